@@ -0,0 +1,123 @@
+package foxhound.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the incremental evaluator at a leaf of the search: a hound
+ * move is played and reported, the position is evaluated for the fox, and
+ * the move is taken back and reported again. The positions are taken from
+ * {@value #SAMPLES} random games, each with its own evaluator, and are
+ * visited in turn. {@link #makeUnmake} does the same without the
+ * evaluation, so the difference between the two is the evaluation cost.
+ * A hound move makes the evaluator check the squares the hound left and
+ * entered, and refill the distance layers only if the fox distance may
+ * change; a fox move leaves them as they are, which
+ * {@link #foxMovedAndEvaluate} measures.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluatorBenchmark {
+
+    static final int SAMPLES = 64;
+
+    @Param({"8", "15", "26"})
+    int dim;
+
+    Object[] positions;
+    Object[] evaluators;
+    int[] origins;
+    int[] dests;
+    int[] foxOrigins;
+    int[] foxDests;
+    int next;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(7);
+        int[] moves = new int[4 * dim];
+        positions = new Object[SAMPLES];
+        evaluators = new Object[SAMPLES];
+        origins = new int[SAMPLES];
+        dests = new int[SAMPLES];
+        foxOrigins = new int[SAMPLES];
+        foxDests = new int[SAMPLES];
+        int[] foxMoves = new int[4];
+        for (int i = 0; i < SAMPLES; ) {
+            // a random point of a random game with the hounds to move
+            Object position = FoxHound.fromPlayers(FoxHound.initialisePositions(dim), dim);
+            int plies = 2 * random.nextInt(2 * dim) + 1, count = 0;
+            for (int ply = 0; ply < plies; ++ply) {
+                count = FoxHound.generate(position, FoxHound.turn(position), moves);
+                if (count == 0)
+                    break;
+                FoxHound.make(position, moves[random.nextInt(count)]);
+            }
+            count = FoxHound.generate(position, FoxHound.HOUND_FIELD, moves);
+            int foxCount = FoxHound.generate(position, FoxHound.FOX_FIELD, foxMoves);
+            if (FoxHound.turn(position) != FoxHound.HOUND_FIELD || count == 0 || foxCount == 0)
+                continue;
+            int move = moves[random.nextInt(count)], foxMove = foxMoves[random.nextInt(foxCount)];
+            positions[i] = position;
+            evaluators[i] = FoxHound.newEvaluator();
+            FoxHound.reset(evaluators[i], position);
+            origins[i] = FoxHound.origin(move);
+            dests[i] = FoxHound.dest(move);
+            foxOrigins[i] = FoxHound.origin(foxMove);
+            foxDests[i] = FoxHound.dest(foxMove);
+            ++i;
+        }
+    }
+
+    @Benchmark
+    public int movedAndEvaluate() {
+        int i = next++ & (SAMPLES - 1);
+        Object position = positions[i], evaluator = evaluators[i];
+        int origin = origins[i], dest = dests[i];
+        FoxHound.move(position, origin, dest);
+        FoxHound.moved(evaluator, origin, dest);
+        int score = FoxHound.evaluate(evaluator, FoxHound.FOX_FIELD);
+        FoxHound.move(position, dest, origin);
+        FoxHound.moved(evaluator, dest, origin);
+        return score;
+    }
+
+    @Benchmark
+    public int foxMovedAndEvaluate() {
+        int i = next++ & (SAMPLES - 1);
+        Object position = positions[i], evaluator = evaluators[i];
+        int origin = foxOrigins[i], dest = foxDests[i];
+        FoxHound.move(position, origin, dest);
+        FoxHound.moved(evaluator, origin, dest);
+        int score = FoxHound.evaluate(evaluator, FoxHound.HOUND_FIELD);
+        FoxHound.move(position, dest, origin);
+        FoxHound.moved(evaluator, dest, origin);
+        return score;
+    }
+
+    @Benchmark
+    public int makeUnmake() {
+        int i = next++ & (SAMPLES - 1);
+        Object position = positions[i];
+        int origin = origins[i], dest = dests[i];
+        FoxHound.move(position, origin, dest);
+        FoxHound.move(position, dest, origin);
+        return origin;
+    }
+}
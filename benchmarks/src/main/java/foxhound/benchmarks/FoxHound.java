@@ -0,0 +1,266 @@
+package foxhound.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Access to the fox hound classes from the benchmarks.
+ * <p>
+ * The game lives in the unnamed package, which cannot be imported, while
+ * JMH requires benchmarks in a named package. The calls therefore go
+ * through constant method handles, which the JIT compiles to direct calls.
+ */
+final class FoxHound {
+
+    static final int DEFAULT_DIM = 8;
+    static final char FOX_FIELD = 'F';
+    static final char HOUND_FIELD = 'H';
+
+    private static final MethodHandle INITIALISE_POSITIONS = find("FoxHoundUtils", "initialisePositions",
+            MethodType.methodType(String[].class, int.class));
+    private static final MethodHandle IS_VALID_MOVE = find("FoxHoundUtils", "isValidMove",
+            MethodType.methodType(boolean.class, int.class, String[].class, char.class, String.class, String.class));
+    private static final MethodHandle IS_HOUND_WIN = find("FoxHoundUtils", "isHoundWin",
+            MethodType.methodType(boolean.class, String[].class, int.class));
+    private static final MethodHandle DISPLAY_BOARD = find("FoxHoundUI", "displayBoard",
+            MethodType.methodType(void.class, String[].class, int.class));
+    private static final MethodHandle LOAD_GAME = find("FoxHoundIO", "loadGame",
+            MethodType.methodType(char.class, String[].class, Path.class));
+    private static final MethodHandle SAVE_GAME = find("FoxHoundIO", "saveGame",
+            MethodType.methodType(boolean.class, String[].class, char.class, Path.class));
+
+    private static final MethodHandle FROM_PLAYERS = find("FoxHoundPosition", "fromPlayers",
+            MethodType.methodType(type("FoxHoundPosition"), String[].class, int.class))
+            .asType(MethodType.methodType(Object.class, String[].class, int.class));
+    private static final MethodHandle SAVE_POSITIONS = find("FoxHoundIO", "savePositions",
+            MethodType.methodType(void.class, Iterable.class, Path.class));
+    private static final MethodHandle LOAD_POSITIONS = find("FoxHoundIO", "loadPositions",
+            MethodType.methodType(List.class, Path.class));
+
+    private static final MethodHandle GENERATE = find("FoxHoundMoves", "generate",
+            MethodType.methodType(int.class, type("FoxHoundPosition"), char.class, int[].class))
+            .asType(MethodType.methodType(int.class, Object.class, char.class, int[].class));
+    private static final MethodHandle ORIGIN = find("FoxHoundMoves", "origin",
+            MethodType.methodType(int.class, int.class));
+    private static final MethodHandle DEST = find("FoxHoundMoves", "dest",
+            MethodType.methodType(int.class, int.class));
+    private static final MethodHandle MOVE = findVirtual("FoxHoundPosition", "move",
+            MethodType.methodType(void.class, int.class, int.class));
+    private static final MethodHandle MAKE = findVirtual("FoxHoundPosition", "make",
+            MethodType.methodType(void.class, int.class));
+    private static final MethodHandle TURN = findVirtual("FoxHoundPosition", "turn",
+            MethodType.methodType(char.class));
+    private static final MethodHandle NEW_EVALUATOR = findConstructor("FoxHoundEvaluator");
+    private static final MethodHandle RESET = findVirtual("FoxHoundEvaluator", "reset",
+            MethodType.methodType(void.class, type("FoxHoundPosition")));
+    private static final MethodHandle MOVED = findVirtual("FoxHoundEvaluator", "moved",
+            MethodType.methodType(void.class, int.class, int.class));
+    private static final MethodHandle EVALUATE = findVirtual("FoxHoundEvaluator", "evaluate",
+            MethodType.methodType(int.class, char.class));
+
+    private FoxHound() {
+    }
+
+    private static Class<?> type(String className) {
+        try {
+            return Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MethodHandle find(String className, String name, MethodType type) {
+        try {
+            return MethodHandles.publicLookup().findStatic(Class.forName(className), name, type);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // an instance method, with the receiver and all objects of fox hound types passed as Object
+    private static MethodHandle findVirtual(String className, String name, MethodType type) {
+        try {
+            MethodHandle handle = MethodHandles.publicLookup().findVirtual(Class.forName(className), name, type);
+            MethodType erased = handle.type();
+            for (int i = 0; i < erased.parameterCount(); ++i)
+                if (!erased.parameterType(i).isPrimitive())
+                    erased = erased.changeParameterType(i, Object.class);
+            return handle.asType(erased);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MethodHandle findConstructor(String className) {
+        try {
+            return MethodHandles.publicLookup().findConstructor(Class.forName(className),
+                    MethodType.methodType(void.class)).asType(MethodType.methodType(Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException)
+            return (RuntimeException) t;
+        if (t instanceof Error)
+            throw (Error) t;
+        return new IllegalStateException(t);
+    }
+
+    static String[] initialisePositions(int dim) {
+        try {
+            return (String[]) INITIALISE_POSITIONS.invokeExact(dim);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static boolean isValidMove(int dim, String[] players, char figure, String origin, String dest) {
+        try {
+            return (boolean) IS_VALID_MOVE.invokeExact(dim, players, figure, origin, dest);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static boolean isHoundWin(String[] players, int dim) {
+        try {
+            return (boolean) IS_HOUND_WIN.invokeExact(players, dim);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void displayBoard(String[] players, int dim) {
+        try {
+            DISPLAY_BOARD.invokeExact(players, dim);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static char loadGame(String[] players, Path input) {
+        try {
+            return (char) LOAD_GAME.invokeExact(players, input);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static boolean saveGame(String[] players, char nextMove, Path saveFile) {
+        try {
+            return (boolean) SAVE_GAME.invokeExact(players, nextMove, saveFile);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    // positions are passed around as Object, their class cannot be named here
+    static Object fromPlayers(String[] players, int dim) {
+        try {
+            return FROM_PLAYERS.invokeExact(players, dim);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void savePositions(List<Object> positions, Path file) {
+        try {
+            SAVE_POSITIONS.invokeExact((Iterable<?>) positions, file);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static List<?> loadPositions(Path file) {
+        try {
+            return (List<?>) LOAD_POSITIONS.invokeExact(file);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int generate(Object position, char figure, int[] moves) {
+        try {
+            return (int) GENERATE.invokeExact(position, figure, moves);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int origin(int move) {
+        try {
+            return (int) ORIGIN.invokeExact(move);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int dest(int move) {
+        try {
+            return (int) DEST.invokeExact(move);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void move(Object position, int origin, int dest) {
+        try {
+            MOVE.invokeExact(position, origin, dest);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void make(Object position, int move) {
+        try {
+            MAKE.invokeExact(position, move);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static char turn(Object position) {
+        try {
+            return (char) TURN.invokeExact(position);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object newEvaluator() {
+        try {
+            return (Object) NEW_EVALUATOR.invokeExact();
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void reset(Object evaluator, Object position) {
+        try {
+            RESET.invokeExact(evaluator, position);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void moved(Object evaluator, int origin, int dest) {
+        try {
+            MOVED.invokeExact(evaluator, origin, dest);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int evaluate(Object evaluator, char side) {
+        try {
+            return (int) EVALUATE.invokeExact(evaluator, side);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package foxhound.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of loading and saving a game. The text format holds the five
+ * figures of the default board only, so there is no dimension parameter.
+ * The bulk benchmarks save and load {@value #BULK_POSITIONS} default
+ * positions in the binary format.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IOBenchmark {
+
+    static final int BULK_POSITIONS = 100_000;
+
+    String[] players;
+    List<Object> positions;
+    Path bulkLoadFile;
+    Path bulkSaveFile;
+    String[] loaded;
+    Path loadFile;
+    Path saveFile;
+    PrintStream stdout;
+    PrintStream stderr;
+
+    @Setup
+    public void setup() throws IOException {
+        players = FoxHound.initialisePositions(FoxHound.DEFAULT_DIM);
+        loaded = new String[players.length];
+        loadFile = Files.createTempFile("foxHoundBenchmark", ".txt");
+        saveFile = Files.createTempFile("foxHoundBenchmark", ".txt");
+        Files.write(loadFile, ("F " + String.join(" ", players)).getBytes());
+        positions = new ArrayList<>(BULK_POSITIONS);
+        for (int i = 0; i < BULK_POSITIONS; ++i)
+            positions.add(FoxHound.fromPlayers(players, FoxHound.DEFAULT_DIM));
+        bulkLoadFile = Files.createTempFile("foxHoundBenchmark", ".fhg");
+        bulkSaveFile = Files.createTempFile("foxHoundBenchmark", ".fhg");
+        FoxHound.savePositions(positions, bulkLoadFile);
+        // both methods report progress on the console
+        stdout = System.out;
+        stderr = System.err;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void teardown() throws IOException {
+        System.setOut(stdout);
+        System.setErr(stderr);
+        Files.deleteIfExists(loadFile);
+        Files.deleteIfExists(saveFile);
+        Files.deleteIfExists(bulkLoadFile);
+        Files.deleteIfExists(bulkSaveFile);
+    }
+
+    @Benchmark
+    public char loadGame() {
+        return FoxHound.loadGame(loaded, loadFile);
+    }
+
+    @Benchmark
+    public boolean saveGame() {
+        return FoxHound.saveGame(players, FoxHound.FOX_FIELD, saveFile);
+    }
+
+    @Benchmark
+    public List<?> loadPositions() {
+        return FoxHound.loadPositions(bulkLoadFile);
+    }
+
+    @Benchmark
+    public void savePositions() {
+        FoxHound.savePositions(positions, bulkSaveFile);
+    }
+}
@@ -0,0 +1,81 @@
+package foxhound.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the board set up, move validation and win check.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtilsBenchmark {
+
+    @Param({"4", "8", "15", "26"})
+    int dim;
+
+    String[] players;
+    String foxOrigin;
+    String foxDest;
+    String houndOrigin;
+    String houndDest;
+
+    @Setup
+    public void setup() {
+        players = FoxHound.initialisePositions(dim);
+        foxOrigin = players[players.length - 1];
+        foxDest = validDestination(FoxHound.FOX_FIELD, foxOrigin);
+        houndOrigin = players[0];
+        houndDest = validDestination(FoxHound.HOUND_FIELD, houndOrigin);
+    }
+
+    // a diagonal neighbour the figure may move to
+    private String validDestination(char figure, String origin) {
+        char column = origin.charAt(0);
+        int row = Integer.parseInt(origin.substring(1));
+        for (int dc = -1; dc <= 1; dc += 2)
+            for (int dr = -1; dr <= 1; dr += 2) {
+                int c = column - 'A' + dc, r = row + dr;
+                if (c < 0 || c >= dim || r < 1 || r > dim)
+                    continue;
+                String dest = (char) ('A' + c) + Integer.toString(r);
+                if (FoxHound.isValidMove(dim, players, figure, origin, dest))
+                    return dest;
+            }
+        throw new IllegalStateException("No valid move from " + origin);
+    }
+
+    @Benchmark
+    public String[] initialisePositions() {
+        return FoxHound.initialisePositions(dim);
+    }
+
+    @Benchmark
+    public boolean isValidFoxMove() {
+        return FoxHound.isValidMove(dim, players, FoxHound.FOX_FIELD, foxOrigin, foxDest);
+    }
+
+    @Benchmark
+    public boolean isValidHoundMove() {
+        return FoxHound.isValidMove(dim, players, FoxHound.HOUND_FIELD, houndOrigin, houndDest);
+    }
+
+    @Benchmark
+    public boolean isHoundWin() {
+        return FoxHound.isHoundWin(players, dim);
+    }
+}
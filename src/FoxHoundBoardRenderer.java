@@ -0,0 +1,190 @@
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Renders the fox hound board for the terminal.
+ * <p>
+ * A frame is composed in a reusable byte buffer and written with a single
+ * call, instead of one write per cell. The incremental mode uses ANSI escape
+ * sequences to redraw only the cells that changed since the last frame; it
+ * assumes the board is drawn at the top of the screen and that the output
+ * below it does not scroll it away.
+ * <p>
+ * A renderer keeps the buffer and the last frame and must not be shared
+ * between threads.
+ */
+public class FoxHoundBoardRenderer {
+
+    private static final byte EMPTY = '.';
+    private static final byte[] CLEAR_SCREEN = {0x1B, '[', 'H', 0x1B, '[', '2', 'J'};
+    private static final byte[] CLEAR_BELOW = {0x1B, '[', 'J'};
+
+    private byte[] buffer = new byte[256];
+    private int length;
+    // cells of the last frame drawn in incremental mode, null before the first one
+    private byte[] frame;
+    private byte[] cells = new byte[0];
+    private int frameDim;
+
+    /**
+     * Writes the whole board.
+     *
+     * @param players   array containing the positions of fox and hounds
+     * @param dimension size of the board
+     * @param out       stream to write the board to
+     * @throws IllegalArgumentException if the given dimension is invalid
+     * @throws NullPointerException     if player array or stream is null
+     */
+    public void render(String[] players, int dimension, PrintStream out) {
+        fillCells(players, dimension);
+        length = 0;
+        appendFrame(dimension);
+        flush(out);
+    }
+
+    /**
+     * Redraws the board, writing only the cells that changed since the last
+     * call. The first call and every change of dimension clear the screen
+     * and draw the whole board.
+     *
+     * @param players   array containing the positions of fox and hounds
+     * @param dimension size of the board
+     * @param out       stream to write the board to
+     * @throws IllegalArgumentException if the given dimension is invalid
+     * @throws NullPointerException     if player array or stream is null
+     */
+    public void renderIncremental(String[] players, int dimension, PrintStream out) {
+        fillCells(players, dimension);
+        length = 0;
+        if (frame == null || frameDim != dimension) {
+            append(CLEAR_SCREEN);
+            appendFrame(dimension);
+            frame = Arrays.copyOf(cells, dimension * dimension);
+            frameDim = dimension;
+        } else {
+            int offset = dimension < 10 ? 2 : 3;
+            for (int i = 0; i < dimension * dimension; ++i) {
+                if (cells[i] == frame[i])
+                    continue;
+                // header and blank line come before the first board row
+                moveCursor(3 + i / dimension, offset + 1 + i % dimension);
+                append(cells[i]);
+                frame[i] = cells[i];
+            }
+            moveCursor(dimension + 6, 1);
+            append(CLEAR_BELOW); // erase the output below the board
+        }
+        flush(out);
+    }
+
+    /**
+     * Forgets the last frame so that the next incremental call draws the
+     * whole board again, e.g. after other output scrolled the screen.
+     */
+    public void reset() {
+        frame = null;
+    }
+
+    private void fillCells(String[] players, int dimension) {
+        if (dimension < 0)
+            throw new IllegalArgumentException("Error : Dimensions cannot be a negative number!");
+        if (dimension < FoxHoundUtils.MIN_DIM || dimension > FoxHoundUtils.MAX_DIM)
+            throw new IllegalArgumentException("Error : Dimension should be between 4 and 26(inclusive)!");
+        if (players == null)
+            throw new NullPointerException("Error : Array containing positions of fox and hounds cannot be empty!");
+        int squares = dimension * dimension;
+        if (cells.length < squares)
+            cells = new byte[squares];
+        Arrays.fill(cells, 0, squares, EMPTY);
+        if (players.length < 2)
+            return; // without hounds the board was always drawn empty
+        int fox = FoxHoundPosition.square(players[players.length - 1], dimension);
+        if (fox >= 0)
+            cells[fox] = FoxHoundUtils.FOX_FIELD;
+        for (int i = 0; i < players.length - 1; ++i) {
+            int hound = FoxHoundPosition.square(players[i], dimension);
+            if (hound >= 0)
+                cells[hound] = FoxHoundUtils.HOUND_FIELD;
+        }
+    }
+
+    // the board as printed by FoxHoundUI.displayBoard
+    private void appendFrame(int dimension) {
+        boolean wide = dimension >= 10;
+        appendColumns(dimension, wide);
+        if (!wide)
+            appendSpaces(2);
+        append((byte) '\n');
+        append((byte) '\n');
+        for (int row = 1; row <= dimension; ++row) {
+            appendRow(row, wide);
+            append((byte) ' ');
+            ensure(dimension);
+            System.arraycopy(cells, (row - 1) * dimension, buffer, length, dimension);
+            length += dimension;
+            append((byte) ' ');
+            appendRow(row, wide);
+            append((byte) '\n');
+        }
+        append((byte) '\n');
+        appendColumns(dimension, wide);
+        if (!wide)
+            appendSpaces(2);
+        append((byte) '\n');
+        append((byte) '\n');
+    }
+
+    private void appendColumns(int dimension, boolean wide) {
+        appendSpaces(wide ? 3 : 2);
+        for (int column = 0; column < dimension; ++column)
+            append((byte) ('A' + column));
+    }
+
+    private void appendRow(int row, boolean wide) {
+        if (wide || row >= 10)
+            append((byte) ('0' + row / 10));
+        append((byte) ('0' + row % 10));
+    }
+
+    private void appendSpaces(int count) {
+        for (int i = 0; i < count; ++i)
+            append((byte) ' ');
+    }
+
+    // ESC [ line ; column H with 1-based screen coordinates
+    private void moveCursor(int line, int column) {
+        append((byte) 0x1B);
+        append((byte) '[');
+        appendNumber(line);
+        append((byte) ';');
+        appendNumber(column);
+        append((byte) 'H');
+    }
+
+    private void appendNumber(int value) {
+        if (value >= 10)
+            appendNumber(value / 10);
+        append((byte) ('0' + value % 10));
+    }
+
+    private void append(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void append(byte b) {
+        ensure(1);
+        buffer[length++] = b;
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > buffer.length)
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+    }
+
+    private void flush(PrintStream out) {
+        out.write(buffer, 0, length);
+        out.flush();
+    }
+}
@@ -0,0 +1,106 @@
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FoxHoundBoardRendererBasicTest {
+
+    private static String render(FoxHoundBoardRenderer renderer, String[] players, int dim, boolean incremental) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes);
+        if (incremental)
+            renderer.renderIncremental(players, dim, out);
+        else
+            renderer.render(players, dim, out);
+        return bytes.toString();
+    }
+
+    // the board as the original per cell implementation of displayBoard printed it
+    private static String legacyBoard(String[] players, int dimension) {
+        StringBuilder out = new StringBuilder();
+        String prefix = dimension < 10 ? "  " : "   ";
+        StringBuilder columns = new StringBuilder(prefix);
+        for (int i = 1; i <= dimension; ++i)
+            columns.append((char) (65 + i - 1));
+        out.append(columns).append(dimension < 10 ? "  \n\n" : "\n\n");
+        for (int i = 1; i <= dimension; ++i) {
+            String row = dimension >= 10 && i < 10 ? "0" + i : Integer.toString(i);
+            out.append(row).append(' ');
+            for (char ch = 'A'; ch <= (char) (64 + dimension); ++ch) {
+                String coords = ch + Integer.toString(i);
+                char cell = '.';
+                for (int j = 0; j < players.length - 1; ++j) {
+                    if (players[j].equals(coords)) {
+                        cell = 'H';
+                        break;
+                    } else if (players[players.length - 1].equals(coords)) {
+                        cell = 'F';
+                        break;
+                    }
+                }
+                out.append(cell);
+            }
+            out.append(' ').append(row).append('\n');
+        }
+        out.append('\n').append(columns).append(dimension < 10 ? "  " : "").append("\n\n");
+        return out.toString();
+    }
+
+    // ------------------------- full frame --------------------
+
+    @Test
+    public void testMatchesLegacyOutput() {
+        FoxHoundBoardRenderer renderer = new FoxHoundBoardRenderer();
+        Random random = new Random(3);
+        int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; ++dim) {
+            FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+            for (int ply = 0; ply < 2 * dim; ++ply) {
+                String[] players = position.toPlayers();
+                assertEquals("Board not as expected on dimension " + dim + ".",
+                        legacyBoard(players, dim), render(renderer, players, dim, false));
+                int count = FoxHoundMoves.generate(position, position.turn(), moves);
+                if (count == 0)
+                    break;
+                int move = moves[random.nextInt(count)];
+                position.move(FoxHoundMoves.origin(move), FoxHoundMoves.dest(move));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDimension() {
+        new FoxHoundBoardRenderer().render(FoxHoundUtils.initialisePositions(8), 27, System.out);
+    }
+
+    // ------------------------- incremental --------------------
+
+    @Test
+    public void testIncrementalRedrawsChangedCells() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundBoardRenderer renderer = new FoxHoundBoardRenderer();
+        String[] players = FoxHoundUtils.initialisePositions(dim);
+
+        String first = render(renderer, players, dim, true);
+
+        assertTrue("First frame expected to clear the screen.", first.startsWith("\u001B[H\u001B[2J"));
+        assertTrue("First frame expected to hold the board.", first.endsWith(legacyBoard(players, dim)));
+
+        String fox = players[players.length - 1];
+        players[players.length - 1] = "D7";
+        String second = render(renderer, players, dim, true);
+
+        // fox enters row 7 column D and leaves row 8 column E, then the cursor parks below the board
+        assertEquals("Only the changed cells expected to be redrawn.",
+                "\u001B[9;6HF\u001B[10;7H.\u001B[14;1H\u001B[J", second);
+        assertEquals("Fox expected to start on E8.", "E8", fox);
+
+        renderer.reset();
+
+        assertTrue("Reset expected to draw the whole board.",
+                render(renderer, players, dim, true).endsWith(legacyBoard(players, dim)));
+    }
+}
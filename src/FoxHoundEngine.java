@@ -0,0 +1,417 @@
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A computer player for the fox hound program.
+ * <p>
+ * It searches the game tree with negamax alpha-beta and iterative
+ * deepening, ordering moves by the best move of the previous iteration,
+ * the move stored in the transposition table, killer moves and a history
+ * table. Every search is bound by a hard
+ * deadline derived from the per-move time budget, after which the best
+ * move of the deepest finished iteration is returned.
+ * <p>
+ * With an endgame table set, every node covered by the table is scored
+ * exactly from it instead of being searched.
+ * <p>
+ * An engine keeps per-search state and must not be shared between threads,
+ * the transposition table however can be shared by several engines.
+ * Every iteration is a {@link FoxHoundEvents.SearchIteration} event.
+ */
+public class FoxHoundEngine {
+
+    /**
+     * Default time budget per move in milliseconds.
+     */
+    public static final long DEFAULT_MOVE_TIME = 1000;
+    /**
+     * Returned by {@link #bestMove} if the side to move has no legal move.
+     */
+    public static final int NO_MOVE = -1;
+    /**
+     * Score of a won position at the root, reduced by one for every ply
+     * until the win is reached.
+     */
+    public static final int WIN_SCORE = 1_000_000;
+    /**
+     * Deepest search depth in plies.
+     */
+    public static final int MAX_PLY = 256;
+
+    private static final int INFINITY = WIN_SCORE + 1;
+    // scores beyond this bound are wins or losses at a known distance
+    private static final int WIN_BOUND = WIN_SCORE - MAX_PLY - 1;
+    // number of nodes between two clock checks
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final long moveTimeNanos;
+    private final FoxHoundTranspositionTable table;
+    private FoxHoundTablebase tablebase;
+    private int maxDepth = MAX_PLY;
+
+    private final int[][] moveStack = new int[MAX_PLY + 1][FoxHoundMoves.MAX_MOVES];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    // history scores indexed by side, origin square and direction
+    private final int[][] history = new int[2][FoxHoundPosition.MAX_SQUARES * 4];
+    private final FoxHoundEvaluator evaluator = new FoxHoundEvaluator();
+
+    private int dim;
+    private int helperIndex;
+    private AtomicBoolean stopFlag;
+    private long deadline;
+    private boolean aborted;
+    private long nodes;
+    private long tableProbes;
+    private long tableHits;
+    private int completedDepth;
+    private int bestScore;
+
+    /**
+     * Creates an engine with the given time budget per move and no
+     * transposition table.
+     *
+     * @param moveTimeMillis time budget per move in milliseconds
+     * @throws IllegalArgumentException if the time budget is not positive
+     */
+    public FoxHoundEngine(long moveTimeMillis) {
+        this(moveTimeMillis, null);
+    }
+
+    /**
+     * Creates an engine with the given time budget per move.
+     *
+     * @param moveTimeMillis time budget per move in milliseconds
+     * @param table          transposition table to use, may be null
+     * @throws IllegalArgumentException if the time budget is not positive
+     */
+    public FoxHoundEngine(long moveTimeMillis, FoxHoundTranspositionTable table) {
+        if (moveTimeMillis <= 0)
+            throw new IllegalArgumentException("Error : Time budget per move has to be positive!");
+        this.moveTimeNanos = moveTimeMillis * 1_000_000L;
+        this.table = table;
+    }
+
+    /**
+     * Limits the depth of the iterative deepening, e.g. for reproducible
+     * results independent of the machine speed.
+     *
+     * @param maxDepth deepest iteration to search in plies
+     * @throws IllegalArgumentException if the depth is outside of 1 to {@value #MAX_PLY}
+     */
+    public void setMaxDepth(int maxDepth) {
+        if (maxDepth < 1 || maxDepth > MAX_PLY)
+            throw new IllegalArgumentException("Error : Search depth should be between 1 and " + MAX_PLY + "!");
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Lets the search score positions from a solved endgame table.
+     *
+     * @param tablebase an opened endgame table or null to search without one
+     */
+    public void setTablebase(FoxHoundTablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Turns this engine into a helper of a parallel search. Helpers search
+     * the root moves in a rotated order and start on alternating depths so
+     * that they fill the shared transposition table with different parts of
+     * the tree, and they stop as soon as the given flag is set. Engines
+     * of a parallel search leave {@link FoxHoundTranspositionTable#newSearch()}
+     * to the parallel search.
+     *
+     * @param helperIndex index of the search thread, 0 for the main thread
+     * @param stopFlag    flag set when the search should end, may be null
+     */
+    void setHelper(int helperIndex, AtomicBoolean stopFlag) {
+        this.helperIndex = helperIndex;
+        this.stopFlag = stopFlag;
+    }
+
+    /**
+     * @return number of nodes visited by the last search
+     */
+    public long nodes() {
+        return nodes;
+    }
+
+    /**
+     * @return number of transposition table probes of the last search
+     */
+    public long tableProbes() {
+        return tableProbes;
+    }
+
+    /**
+     * @return number of transposition table probes of the last search that found their position
+     */
+    public long tableHits() {
+        return tableHits;
+    }
+
+    /**
+     * @return depth of the deepest iteration the last search finished
+     */
+    public int completedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * @return score of the last search from the point of view of the side to move
+     */
+    public int bestScore() {
+        return bestScore;
+    }
+
+    /**
+     * Searches the best move for the given side. The position is used as
+     * scratch space during the search and is restored before returning.
+     *
+     * @param position the position to search
+     * @param figure   {@link FoxHoundUtils#FOX_FIELD} or {@link FoxHoundUtils#HOUND_FIELD}
+     * @return the best move found, encoded as by {@link FoxHoundMoves#encode}, or {@link #NO_MOVE}
+     * @throws IllegalArgumentException if the given figure is invalid
+     * @throws NullPointerException     if the given position is null
+     */
+    public int bestMove(FoxHoundPosition position, char figure) {
+        if (figure != FoxHoundUtils.FOX_FIELD && figure != FoxHoundUtils.HOUND_FIELD)
+            throw new IllegalArgumentException("Error : Next piece to move can either be 'F' or 'H'!");
+        deadline = System.nanoTime() + moveTimeNanos;
+        dim = position.dimension();
+        aborted = false;
+        nodes = 0;
+        tableProbes = 0;
+        tableHits = 0;
+        completedDepth = 0;
+        bestScore = 0;
+        for (int[] k : killers) {
+            k[0] = NO_MOVE;
+            k[1] = NO_MOVE;
+        }
+        // a parallel search starts the generation before any of its engines runs
+        if (table != null && stopFlag == null)
+            table.newSearch();
+        evaluator.reset(position);
+        int[] rootMoves = new int[FoxHoundMoves.MAX_MOVES];
+        int count = FoxHoundMoves.generate(position, figure, rootMoves);
+        if (count == 0)
+            return NO_MOVE;
+        int bestMove = rootMoves[0];
+        if (count == 1)
+            return bestMove;
+        if (helperIndex > 0)
+            rotate(rootMoves, count, helperIndex % count);
+        char opponent = opponent(figure);
+        for (int depth = 1 + (helperIndex & 1); depth <= maxDepth && !aborted; ++depth) {
+            FoxHoundEvents.SearchIteration event = new FoxHoundEvents.SearchIteration();
+            event.begin();
+            int alpha = -INFINITY;
+            int iterationBest = NO_MOVE;
+            for (int i = 0; i < count; ++i) {
+                int move = rootMoves[i];
+                int origin = FoxHoundMoves.origin(move), dest = FoxHoundMoves.dest(move);
+                position.move(origin, dest);
+                evaluator.moved(origin, dest);
+                int score = -negamax(position, opponent, depth - 1, 1, -INFINITY, -alpha);
+                position.move(dest, origin);
+                evaluator.moved(dest, origin);
+                if (aborted)
+                    break;
+                if (score > alpha) {
+                    alpha = score;
+                    iterationBest = move;
+                    // keep the best move in front for the next iteration
+                    System.arraycopy(rootMoves, 0, rootMoves, 1, i);
+                    rootMoves[0] = move;
+                }
+            }
+            // a partially searched iteration still proved its best move
+            // better than the previous choice which is always searched first
+            if (iterationBest != NO_MOVE) {
+                bestMove = iterationBest;
+                bestScore = alpha;
+            }
+            if (event.shouldCommit()) {
+                event.dimension = dim;
+                event.side = figure;
+                event.helper = helperIndex;
+                event.depth = depth;
+                event.completed = !aborted;
+                event.bestMove = FoxHoundPosition.coordinate(FoxHoundMoves.origin(bestMove), dim) + " "
+                        + FoxHoundPosition.coordinate(FoxHoundMoves.dest(bestMove), dim);
+                event.score = bestScore;
+                event.nodes = nodes;
+                event.commit();
+            }
+            if (aborted)
+                break;
+            completedDepth = depth;
+            if (Math.abs(alpha) >= WIN_SCORE - MAX_PLY)
+                break; // the game is decided, searching deeper cannot change the result
+        }
+        return bestMove;
+    }
+
+    private int negamax(FoxHoundPosition position, char side, int depth, int ply, int alpha, int beta) {
+        if (++nodes % CHECK_INTERVAL == 0
+                && (System.nanoTime() - deadline >= 0 || (stopFlag != null && stopFlag.get())))
+            aborted = true;
+        if (aborted)
+            return 0;
+        // same order of checks as the game loop
+        if (position.isFoxTrapped())
+            return side == FoxHoundUtils.HOUND_FIELD ? WIN_SCORE - ply : ply - WIN_SCORE;
+        if (position.isFoxHome())
+            return side == FoxHoundUtils.FOX_FIELD ? WIN_SCORE - ply : ply - WIN_SCORE;
+        if (tablebase != null) {
+            byte value = tablebase.probe(position, side);
+            if (value != FoxHoundTablebase.UNKNOWN) {
+                int score = WIN_SCORE - ply - FoxHoundTablebase.distance(value);
+                return FoxHoundTablebase.isWin(value) ? score : -score;
+            }
+        }
+        if (depth <= 0 || ply >= MAX_PLY)
+            return evaluator.evaluate(side);
+
+        int tableMove = NO_MOVE;
+        // a position and its mirror image share an entry, its move is stored for the canonical one
+        boolean mirrored = !position.isCanonical();
+        if (table != null) {
+            long entry = table.probe(position.canonicalKey());
+            ++tableProbes;
+            if (entry != 0) {
+                ++tableHits;
+                tableMove = FoxHoundTranspositionTable.move(entry);
+                if (mirrored && tableMove != NO_MOVE)
+                    tableMove = position.tables().mirrorMove(tableMove);
+                if (FoxHoundTranspositionTable.depth(entry) >= depth) {
+                    int score = fromTable(FoxHoundTranspositionTable.score(entry), ply);
+                    int bound = FoxHoundTranspositionTable.bound(entry);
+                    if (bound == FoxHoundTranspositionTable.BOUND_EXACT
+                            || (bound == FoxHoundTranspositionTable.BOUND_LOWER && score >= beta)
+                            || (bound == FoxHoundTranspositionTable.BOUND_UPPER && score <= alpha))
+                        return score;
+                }
+            }
+        }
+
+        int[] moves = moveStack[ply];
+        int count = FoxHoundMoves.generate(position, side, moves);
+        if (count == 0)
+            return ply - WIN_SCORE; // hounds that cannot move any more have lost
+        orderMoves(moves, count, side, ply, tableMove);
+
+        char opponent = opponent(side);
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = NO_MOVE;
+        for (int i = 0; i < count; ++i) {
+            int move = moves[i];
+            int origin = FoxHoundMoves.origin(move), dest = FoxHoundMoves.dest(move);
+            position.move(origin, dest);
+            evaluator.moved(origin, dest);
+            int score = -negamax(position, opponent, depth - 1, ply + 1, -beta, -alpha);
+            position.move(dest, origin);
+            evaluator.moved(dest, origin);
+            if (aborted)
+                return 0;
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        storeCutoff(move, side, depth, ply);
+                        break;
+                    }
+                }
+            }
+        }
+        if (table != null) {
+            int bound = best <= originalAlpha ? FoxHoundTranspositionTable.BOUND_UPPER
+                    : best >= beta ? FoxHoundTranspositionTable.BOUND_LOWER
+                    : FoxHoundTranspositionTable.BOUND_EXACT;
+            table.store(position.canonicalKey(), depth, bound, toTable(best, ply),
+                    mirrored && bestMove != NO_MOVE ? position.tables().mirrorMove(bestMove) : bestMove);
+        }
+        return best;
+    }
+
+    // wins and losses are stored relative to the node, not to the root
+    private static int toTable(int score, int ply) {
+        if (score > WIN_BOUND)
+            return score + ply;
+        if (score < -WIN_BOUND)
+            return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score > WIN_BOUND)
+            return score - ply;
+        if (score < -WIN_BOUND)
+            return score + ply;
+        return score;
+    }
+
+    private void storeCutoff(int move, char side, int depth, int ply) {
+        int[] k = killers[ply];
+        if (k[0] != move) {
+            k[1] = k[0];
+            k[0] = move;
+        }
+        int[] scores = history[side == FoxHoundUtils.FOX_FIELD ? 0 : 1];
+        int index = historyIndex(move);
+        scores[index] += depth * depth;
+        if (scores[index] > 1 << 24)
+            for (int i = 0; i < scores.length; ++i)
+                scores[i] >>= 1;
+    }
+
+    // origin square and one of the four diagonal directions
+    private int historyIndex(int move) {
+        int origin = FoxHoundMoves.origin(move);
+        int delta = FoxHoundMoves.dest(move) - origin;
+        int direction = (delta > 0 ? 2 : 0) + (delta == dim + 1 || delta == -dim + 1 ? 1 : 0);
+        return origin * 4 + direction;
+    }
+
+    // insertion sort by table move, killer moves and history scores,
+    // fine for at most MAX_MOVES entries
+    private void orderMoves(int[] moves, int count, char side, int ply, int tableMove) {
+        int[] scores = history[side == FoxHoundUtils.FOX_FIELD ? 0 : 1];
+        int[] k = killers[ply];
+        for (int i = 1; i < count; ++i) {
+            int move = moves[i];
+            int score = moveScore(move, scores, k, tableMove);
+            int j = i - 1;
+            while (j >= 0 && moveScore(moves[j], scores, k, tableMove) < score) {
+                moves[j + 1] = moves[j];
+                --j;
+            }
+            moves[j + 1] = move;
+        }
+    }
+
+    private int moveScore(int move, int[] scores, int[] k, int tableMove) {
+        if (move == tableMove)
+            return Integer.MAX_VALUE;
+        if (move == k[0])
+            return Integer.MAX_VALUE - 1;
+        if (move == k[1])
+            return Integer.MAX_VALUE - 2;
+        return scores[historyIndex(move)];
+    }
+
+    private static void rotate(int[] moves, int count, int by) {
+        for (int r = 0; r < by; ++r) {
+            int first = moves[0];
+            System.arraycopy(moves, 1, moves, 0, count - 1);
+            moves[count - 1] = first;
+        }
+    }
+
+    private static char opponent(char side) {
+        return side == FoxHoundUtils.FOX_FIELD ? FoxHoundUtils.HOUND_FIELD : FoxHoundUtils.FOX_FIELD;
+    }
+}
@@ -0,0 +1,106 @@
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundEngineBasicTest {
+
+    private static String moveString(int move, int dim) {
+        return FoxHoundPosition.coordinate(FoxHoundMoves.origin(move), dim)
+                + " " + FoxHoundPosition.coordinate(FoxHoundMoves.dest(move), dim);
+    }
+
+    // ------------------------- bestMove --------------------
+
+    @Test
+    public void testBestMoveFoxWinsImmediately() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(new String[]{"B1","D1","F3","H3","F2"}, dim);
+        FoxHoundEngine engine = new FoxHoundEngine(FoxHoundEngine.DEFAULT_MOVE_TIME);
+        engine.setMaxDepth(4);
+
+        int move = engine.bestMove(position, FoxHoundUtils.FOX_FIELD);
+
+        assertEquals("Fox expected to move onto the free square in row 1.", "F2 E1", moveString(move, dim));
+        assertEquals("Win expected to be reported.", FoxHoundEngine.WIN_SCORE - 1, engine.bestScore());
+    }
+
+    @Test
+    public void testBestMoveHoundsTrapFox() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(new String[]{"C4","E4","C6","F5","D5"}, dim);
+        FoxHoundEngine engine = new FoxHoundEngine(FoxHoundEngine.DEFAULT_MOVE_TIME);
+        engine.setMaxDepth(4);
+
+        int move = engine.bestMove(position, FoxHoundUtils.HOUND_FIELD);
+        position.move(FoxHoundMoves.origin(move), FoxHoundMoves.dest(move));
+
+        assertTrue("Hounds expected to trap the fox, played " + moveString(move, dim), position.isFoxTrapped());
+    }
+
+    @Test
+    public void testBestMoveRestoresPosition() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+        FoxHoundPosition expected = new FoxHoundPosition(position);
+        FoxHoundEngine engine = new FoxHoundEngine(FoxHoundEngine.DEFAULT_MOVE_TIME);
+        engine.setMaxDepth(6);
+
+        int move = engine.bestMove(position, FoxHoundUtils.HOUND_FIELD);
+
+        assertEquals("Position expected to be restored after the search.", expected, position);
+        assertTrue("Returned move expected to be legal.", FoxHoundMoves.isLegal(position, FoxHoundUtils.HOUND_FIELD,
+                FoxHoundMoves.origin(move), FoxHoundMoves.dest(move)));
+        assertEquals("Search expected to finish the requested depth.", 6, engine.completedDepth());
+    }
+
+    @Test
+    public void testBestMoveNoLegalMove() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(new String[]{"C4","E4","C6","E6","D5"}, dim);
+        FoxHoundEngine engine = new FoxHoundEngine(FoxHoundEngine.DEFAULT_MOVE_TIME);
+
+        assertEquals("No move expected for a trapped fox.",
+                FoxHoundEngine.NO_MOVE, engine.bestMove(position, FoxHoundUtils.FOX_FIELD));
+    }
+
+    @Test
+    public void testBestMoveRespectsDeadline() {
+        int dim = FoxHoundUtils.MAX_DIM;
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+        long budget = 100;
+        FoxHoundEngine engine = new FoxHoundEngine(budget);
+
+        long start = System.nanoTime();
+        int move = engine.bestMove(position, FoxHoundUtils.HOUND_FIELD);
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        assertNotEquals("A move expected to be found.", FoxHoundEngine.NO_MOVE, move);
+        assertTrue("Search expected to stop close to its deadline, took " + elapsed + "ms", elapsed < budget + 100);
+    }
+
+    @Test
+    public void testMirrorImageSharesTableEntries() {
+        int dim = 9;
+        FoxHoundTranspositionTable table = new FoxHoundTranspositionTable(1);
+        FoxHoundEngine engine = new FoxHoundEngine(FoxHoundEngine.DEFAULT_MOVE_TIME, table);
+        engine.setMaxDepth(8);
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(new String[]{"B1","D1","F1","H1","C6"}, dim);
+        FoxHoundPosition mirror = position.mirror();
+
+        engine.bestMove(position, FoxHoundUtils.FOX_FIELD);
+        int score = engine.bestScore();
+        long nodes = engine.nodes();
+        int move = engine.bestMove(mirror, FoxHoundUtils.FOX_FIELD);
+
+        assertEquals("Mirror image expected to score the same.", score, engine.bestScore());
+        assertTrue("Mirror image expected to be searched from the table, took " + engine.nodes() + " nodes.",
+                engine.nodes() < nodes);
+        assertTrue("Returned move expected to be legal.", FoxHoundMoves.isLegal(mirror, FoxHoundUtils.FOX_FIELD,
+                FoxHoundMoves.origin(move), FoxHoundMoves.dest(move)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEngineInvalidBudget() {
+        new FoxHoundEngine(0);
+    }
+}
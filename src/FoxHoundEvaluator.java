@@ -0,0 +1,441 @@
+/**
+ * Static evaluation of fox hound positions, updated move by move.
+ * <p>
+ * The evaluation combines the length of the shortest path of the fox to
+ * row 1 through squares without a hound, the spread of the hound line over
+ * the rows and the mobility of the fox. The path length comes from a
+ * breadth-first flood fill starting on row 1, kept as one set of squares
+ * per distance layer with a bit per column for every row: layer {@code k}
+ * holds the squares exactly {@code k} steps away from row 1. Every step
+ * changes the row by one, so the distance of a square has the parity of its
+ * row and the neighbours of layer {@code k - 1} lie in layer {@code k - 2}
+ * or {@code k}: a layer follows from the two before it, without a set of
+ * all squares reached so far. A square in row {@code r} is at least
+ * {@code r} steps away, so a hound moving between rows {@code r} and
+ * {@code r + 1} leaves all layers below {@code r} unchanged. Fox moves do
+ * not change the layers at all, as the fill does not depend on where the
+ * fox stands.
+ * <p>
+ * A hound move is not handed to the layers right away. Most moves do not
+ * change the distance of the fox, and that can be told from the two squares
+ * the hound left and entered alone: the square it entered only makes the
+ * fox go further if every shortest path of the fox runs through it, and the
+ * square it left only gives a shorter path if one of its neighbours is
+ * close enough to row 1 and to the fox. The evaluation checks both against
+ * the layers it has; the squares every path runs through are traced once
+ * per position of the fox and kept for the next move. Only if a check
+ * fails, the move marks the layers from its rows on as stale and the
+ * evaluation refills them, as far as it needs them. A move taken back
+ * before that costs nothing.
+ * <p>
+ * The fill only covers the rows around the hounds. Rows in front of the
+ * first hound are free, every square there is as many steps away as its
+ * row, so the fill starts with the row before the first hound. The rows
+ * behind the last hound are free as well: a path never needs to go back
+ * further than two rows behind it, and a fox standing further back first
+ * needs as many steps as the larger of the row and the column difference
+ * to reach a square of the row behind the last hound, so the best of those
+ * squares gives its distance.
+ * <p>
+ * An evaluator is bound to one position by {@link #reset} and has to be
+ * told about every move played on it, including moves that take back an
+ * earlier one, by {@link #moved}. It keeps per-position state and must not
+ * be shared between threads.
+ */
+public class FoxHoundEvaluator {
+
+    /**
+     * Returned by {@link #foxDistance()} if the hounds block every path of the fox to row 1.
+     */
+    public static final int SEALED = -1;
+
+    // score per step the fox is closer to row 1
+    private static final int DISTANCE_WEIGHT = 10;
+    // score per free square the fox can move to, towards row 1 and away from it
+    private static final int FORWARD_WEIGHT = 3;
+    private static final int BACKWARD_WEIGHT = 1;
+    // score for the fox per row the hound line is spread over
+    private static final int SPREAD_WEIGHT = 2;
+
+    private FoxHoundPosition position;
+    private FoxHoundTables tables;
+    private int dim;
+    // per row the columns of dark squares without a hound, as far as the layers know
+    private int[] empty = new int[0];
+    // added[k * (dim + 1) + row]: columns of the squares exactly k steps from row 1,
+    // rows outside low[k] to high[k] are kept empty
+    private int[] added = new int[0];
+    private int[] low = new int[0];
+    private int[] high = new int[0];
+    // layer the fill starts from, with every square in front of the first hound
+    private int first;
+    // layers from first up to below this one are up to date
+    private int valid;
+    // first layer that added no square, all further layers equal it
+    private int closed;
+    // rows of the first and the last hound as far as the layers know
+    private int layerMinRow;
+    private int layerMaxRow;
+    private final int[] rowCount = new int[FoxHoundUtils.MAX_DIM];
+    private int minRow;
+    private int maxRow;
+
+    // hound move the layers do not know yet, -1 if there is none
+    private int pendingOrigin = -1;
+    private int pendingDest = -1;
+    // counts the changes of the layers
+    private int version;
+    // distance of the fox on knownFox from the layers of knownVersion
+    private int knownVersion;
+    private int knownFox = -1;
+    private int knownDistance;
+    // per row the columns of the squares that are the only one of their layer on the
+    // shortest paths of the fox, if traced for the known distance
+    private int[] neck = new int[0];
+    private boolean traced;
+    // per row the squares of a layer on the shortest paths and of the layer after it
+    private int[] path = new int[0];
+    private int[] after = new int[0];
+
+    /**
+     * Binds the evaluator to a position and computes everything from scratch.
+     * Call it again whenever the position is changed by anything but
+     * {@link FoxHoundPosition#move}.
+     *
+     * @param position the position to evaluate from now on
+     * @throws NullPointerException if the given position is null
+     */
+    public void reset(FoxHoundPosition position) {
+        this.position = position;
+        this.tables = position.tables();
+        if (dim != position.dimension()) {
+            dim = position.dimension();
+            empty = new int[dim];
+            // every layer adds a square, so there are at most as many layers as dark squares
+            int layers = dim * dim / 2 + 1;
+            // a spare row after the last one, so that the fill can read past it
+            added = new int[layers * (dim + 1)];
+            low = new int[layers];
+            high = new int[layers];
+            neck = new int[dim];
+            path = new int[dim + 1];
+            after = new int[dim + 1];
+        }
+        for (int r = 0; r < dim; ++r) {
+            empty[r] = 0;
+            rowCount[r] = 0;
+        }
+        minRow = dim;
+        maxRow = -1;
+        for (int sq = 0; sq < dim * dim; ++sq) {
+            int row = tables.row(sq);
+            if (position.isHound(sq)) {
+                ++rowCount[row];
+                minRow = Math.min(minRow, row);
+                maxRow = Math.max(maxRow, row);
+            } else if (tables.isDark(sq)) {
+                empty[row] |= 1 << (sq - row * dim);
+            }
+        }
+        layerMinRow = minRow;
+        layerMaxRow = maxRow;
+        first = -1;
+        valid = 0;
+        closed = Integer.MAX_VALUE;
+        pendingOrigin = -1;
+        pendingDest = -1;
+        ++version;
+    }
+
+    /**
+     * Updates the evaluator after a move was played on its position.
+     *
+     * @param origin square index the figure moved from
+     * @param dest   square index the figure moved to
+     */
+    public void moved(int origin, int dest) {
+        if (dest == position.fox())
+            return; // the layers do not depend on the fox
+        if (origin == pendingDest && dest == pendingOrigin) {
+            // taken back before the layers needed it
+            pendingOrigin = -1;
+            pendingDest = -1;
+        } else {
+            if (pendingOrigin >= 0)
+                commit();
+            pendingOrigin = origin;
+            pendingDest = dest;
+        }
+        int from = tables.row(origin), to = tables.row(dest);
+        --rowCount[from];
+        ++rowCount[to];
+        minRow = Math.min(minRow, to);
+        maxRow = Math.max(maxRow, to);
+        if (rowCount[from] == 0) {
+            while (rowCount[minRow] == 0)
+                ++minRow;
+            while (rowCount[maxRow] == 0)
+                --maxRow;
+        }
+    }
+
+    // hands the pending hound move to the layers, the row counts already include it
+    private void commit() {
+        int from = tables.row(pendingOrigin), to = tables.row(pendingDest);
+        empty[from] |= 1 << (pendingOrigin - from * dim);
+        empty[to] &= ~(1 << (pendingDest - to * dim));
+        layerMinRow = minRow;
+        layerMaxRow = maxRow;
+        valid = Math.min(valid, Math.min(from, to));
+        if (closed >= valid)
+            closed = Integer.MAX_VALUE;
+        pendingOrigin = -1;
+        pendingDest = -1;
+        ++version;
+    }
+
+    /**
+     * @return number of steps the fox needs to reach row 1 if the hounds stood
+     * still, or {@link #SEALED} if they block every path
+     */
+    public int foxDistance() {
+        int fox = position.fox();
+        if (tables.row(fox) < minRow)
+            return tables.row(fox);
+        int distance = distance(fox);
+        if (pendingOrigin < 0 || unchanged(fox, distance))
+            return distance;
+        commit();
+        return distance(fox);
+    }
+
+    // distance of the fox from the layers, kept until they or the fox change
+    private int distance(int fox) {
+        if (knownVersion != version || knownFox != fox) {
+            knownDistance = layerDistance(fox);
+            knownVersion = version;
+            knownFox = fox;
+            traced = false;
+        }
+        return knownDistance;
+    }
+
+    // distance of the fox from the layers
+    private int layerDistance(int fox) {
+        int row = tables.row(fox), column = fox - row * dim;
+        if (row < layerMinRow)
+            return row;
+        int start = Math.max(layerMinRow - 1, 0);
+        // moves since the last call may have staled layers in front of the seed as well
+        if (first != start || valid < start) {
+            first = start;
+            valid = start;
+            closed = Integer.MAX_VALUE;
+        }
+        int behind = layerMaxRow + 1;
+        if (row <= behind) {
+            // a square is never closer to row 1 than its row
+            for (int k = row; ; ++k) {
+                if (!available(k))
+                    return SEALED;
+                if ((added[k * (dim + 1) + row] & (1 << column)) != 0)
+                    return k;
+            }
+        }
+        // the fox first enters the row behind the hounds on one of its squares
+        int best = SEALED, seen = 0;
+        for (int k = behind; seen != empty[behind] && (best == SEALED || k + row - behind < best); ++k) {
+            if (!available(k))
+                break;
+            int entered = added[k * (dim + 1) + behind] & ~seen;
+            seen |= entered;
+            for (; entered != 0; entered &= entered - 1) {
+                int distance = k + Math.max(row - behind, Math.abs(column - Integer.numberOfTrailingZeros(entered)));
+                if (best == SEALED || distance < best)
+                    best = distance;
+            }
+        }
+        return best;
+    }
+
+    // true if the pending hound move leaves the distance of the fox as the layers give it
+    private boolean unchanged(int fox, int distance) {
+        int row = tables.row(fox);
+        if (row < layerMinRow)
+            return false;
+        int origin = pendingOrigin, dest = pendingDest, from = tables.row(origin);
+        // a path through the square the hound left needs at least this many steps from there on,
+        // and if the square is on row 1 none to get there
+        int steps = Math.max(Math.abs(from - row), Math.abs(origin - from * dim - (fox - row * dim)));
+        if (from == 0 ? distance == SEALED || steps < distance
+                : closer(origin, dest, distance == SEALED ? Integer.MAX_VALUE : distance - 1 - steps))
+            return false;
+        // taking a square away only makes the fox go further if every shortest path runs through it
+        if (distance == SEALED)
+            return true;
+        if (!traced) {
+            traceNeck(fox, distance);
+            traced = true;
+        }
+        int to = tables.row(dest);
+        return to >= first && (neck[to] & (1 << (dest - to * dim))) == 0;
+    }
+
+    // true if a free neighbour of the square other than skip is less than bound steps from row 1
+    private boolean closer(int square, int skip, int bound) {
+        for (int i = 0, n = tables.foxTargetCount(square); i < n; ++i) {
+            int target = tables.foxTarget(square, i);
+            if (target == skip || position.isHound(target))
+                continue;
+            int row = tables.row(target), bit = 1 << (target - row * dim);
+            if (row < layerMinRow) {
+                if (row < bound)
+                    return true;
+                continue;
+            }
+            // the distance of a square has the parity of its row
+            for (int k = row; k < bound && available(k); k += 2)
+                if ((added[k * (dim + 1) + row] & bit) != 0)
+                    return true;
+        }
+        return false;
+    }
+
+    // goes back from the fox layer by layer over the neighbours one step closer to row 1,
+    // which are the squares on its shortest paths, and keeps those alone in their layer
+    private void traceNeck(int fox, int distance) {
+        int row = tables.row(fox), column = fox - row * dim;
+        int stride = dim + 1, behind = layerMaxRow + 1;
+        int[] layers = added, path = this.path, after = this.after;
+        for (int r = 0; r <= dim; ++r) {
+            path[r] = 0;
+            after[r] = 0;
+        }
+        for (int r = 0; r < dim; ++r)
+            neck[r] = 0;
+        // a fox behind the hounds enters the row behind them on the squares that give its distance
+        int back = Math.max(row - behind, 0), top = distance - back;
+        int pathLow = dim, pathHigh = -1, afterLow = dim, afterHigh = -1;
+        if (back == 0) {
+            path[row] = 1 << column;
+            pathLow = row;
+            pathHigh = row;
+        }
+        for (int k = back == 0 ? top - 1 : top; k >= first; --k) {
+            for (int r = afterLow; r <= afterHigh; ++r)
+                after[r] = 0;
+            int[] swap = after;
+            after = path;
+            path = swap;
+            afterLow = pathLow;
+            afterHigh = pathHigh;
+            int newLow = dim, newHigh = -1, count = 0, at = k * stride;
+            if (available(k)) {
+                for (int r = Math.max(afterLow - 1, low[k]), end = Math.min(afterHigh + 1, high[k]); r <= end; ++r) {
+                    int next = after[r + 1] | (r > 0 ? after[r - 1] : 0);
+                    int squares = ((next << 1) | (next >>> 1)) & layers[at + r];
+                    path[r] = squares;
+                    if (squares != 0) {
+                        newLow = Math.min(newLow, r);
+                        newHigh = r;
+                        count += Integer.bitCount(squares);
+                    }
+                }
+                if (back > 0) {
+                    // the squares of the row behind distance - k steps away from the fox
+                    int reach = distance - k, entries;
+                    if (reach == back)
+                        entries = (int) (((1L << (2 * back + 1)) - 1) << Math.max(column - back, 0) >>> Math.max(back - column, 0));
+                    else
+                        entries = (column + reach < dim ? 1 << (column + reach) : 0) | (column >= reach ? 1 << (column - reach) : 0);
+                    int squares = entries & layers[at + behind] & ~path[behind];
+                    if (squares != 0) {
+                        path[behind] |= squares;
+                        newLow = Math.min(newLow, behind);
+                        newHigh = Math.max(newHigh, behind);
+                        count += Integer.bitCount(squares);
+                    }
+                }
+            }
+            if (count == 1)
+                neck[newLow] = path[newLow];
+            pathLow = newLow;
+            pathHigh = newHigh;
+        }
+        this.path = path;
+        this.after = after;
+    }
+
+    // fills the layers up to k, false if the fill stopped before
+    private boolean available(int k) {
+        if (valid > k || valid > closed)
+            return k <= closed;
+        int[] layers = added, empty = this.empty, low = this.low, high = this.high;
+        int stride = dim + 1, first = this.first, limit = Math.min(layerMaxRow + 2, dim - 1);
+        int layer = valid;
+        for (; layer <= k; ++layer) {
+            int at = layer * stride;
+            // clear what an earlier fill of the layer left
+            for (int r = low[layer]; r <= high[layer]; ++r)
+                layers[at + r] = 0;
+            // rows in front of the first one are never looked at, they are all reached
+            if (layer == first) {
+                layers[at + layer] = empty[layer];
+                low[layer] = layer;
+                high[layer] = layer;
+                continue;
+            }
+            // the squares of the layer before and the one before that, the seed layer holds
+            // no square of the rows the first step reaches
+            int frontier = at - stride, older = layer - 2 < first ? frontier : frontier - stride;
+            int newLow = dim, newHigh = -1;
+            for (int r = Math.max(low[layer - 1] - 1, first), last = Math.min(high[layer - 1] + 1, limit); r <= last; ++r) {
+                int next = layers[frontier + r + 1] | (r > 0 ? layers[frontier + r - 1] : 0);
+                int squares = ((next << 1) | (next >>> 1)) & empty[r] & ~layers[older + r];
+                layers[at + r] = squares;
+                if (squares != 0) {
+                    newLow = Math.min(newLow, r);
+                    newHigh = r;
+                }
+            }
+            low[layer] = newLow;
+            high[layer] = newHigh;
+            if (newHigh < 0) {
+                closed = layer;
+                ++layer;
+                break;
+            }
+        }
+        valid = layer;
+        return k <= closed;
+    }
+
+    /**
+     * @return number of rows between the lowest and the highest hound
+     */
+    public int houndSpread() {
+        return Math.max(maxRow - minRow, 0);
+    }
+
+    /**
+     * Evaluates the position, which must not have a winner yet.
+     *
+     * @param side the side to move
+     * @return score from the point of view of the side to move
+     */
+    public int evaluate(char side) {
+        int fox = position.fox();
+        int row = tables.row(fox);
+        int distance = foxDistance();
+        if (distance == SEALED)
+            distance = dim * dim / 2; // longer than any path
+        int score = (dim - 1 - distance) * DISTANCE_WEIGHT + houndSpread() * SPREAD_WEIGHT;
+        // a fox that has no hound left between itself and row 1 cannot be stopped
+        if (minRow >= row)
+            score += FoxHoundEngine.WIN_SCORE / 2 - row;
+        for (int i = 0, n = tables.foxTargetCount(fox), forward = tables.foxForwardCount(fox); i < n; ++i)
+            if (!position.isHound(tables.foxTarget(fox, i)))
+                score += i < forward ? FORWARD_WEIGHT : BACKWARD_WEIGHT;
+        return side == FoxHoundUtils.FOX_FIELD ? score : -score;
+    }
+}
@@ -0,0 +1,199 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FoxHoundEvaluatorBasicTest {
+
+    // breadth-first search of the fox towards row 1 around the hounds
+    private static int naiveDistance(FoxHoundPosition position) {
+        int dim = position.dimension();
+        int[] distance = new int[dim * dim];
+        Arrays.fill(distance, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        distance[position.fox()] = 0;
+        queue.add(position.fox());
+        while (!queue.isEmpty()) {
+            int sq = queue.poll();
+            if (sq / dim == 0)
+                return distance[sq];
+            for (int dr = -1; dr <= 1; dr += 2)
+                for (int dc = -1; dc <= 1; dc += 2) {
+                    int row = sq / dim + dr, column = sq % dim + dc;
+                    if (row < 0 || row >= dim || column < 0 || column >= dim)
+                        continue;
+                    int target = row * dim + column;
+                    if (distance[target] < 0 && !position.isHound(target)) {
+                        distance[target] = distance[sq] + 1;
+                        queue.add(target);
+                    }
+                }
+        }
+        return FoxHoundEvaluator.SEALED;
+    }
+
+    private static FoxHoundEvaluator fresh(FoxHoundPosition position) {
+        FoxHoundEvaluator evaluator = new FoxHoundEvaluator();
+        evaluator.reset(new FoxHoundPosition(position));
+        return evaluator;
+    }
+
+    // ------------------------- incremental updates --------------------
+
+    @Test
+    public void testIncrementalMatchesFromScratch() {
+        Random random = new Random(17);
+        int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+        int[] line = new int[8];
+        FoxHoundEvaluator evaluator = new FoxHoundEvaluator();
+        for (int game = 0; game < 200; ++game) {
+            int dim = FoxHoundUtils.MIN_DIM + game % (FoxHoundUtils.MAX_DIM - FoxHoundUtils.MIN_DIM + 1);
+            FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+            evaluator.reset(position);
+            for (int count; (count = FoxHoundMoves.generate(position, position.turn(), moves)) > 0
+                    && !position.isFoxHome() && !position.isFoxTrapped(); ) {
+                // some plies ahead and back again as a search would
+                int depth = 0;
+                while (depth < line.length && (count = FoxHoundMoves.generate(position, position.turn(), moves)) > 0
+                        && !position.isFoxHome()) {
+                    line[depth++] = moves[random.nextInt(count)];
+                    position.make(line[depth - 1]);
+                    evaluator.moved(FoxHoundMoves.origin(line[depth - 1]), FoxHoundMoves.dest(line[depth - 1]));
+                    // a search evaluates leaves only, several moves pass between evaluations
+                    if (random.nextBoolean())
+                        continue;
+                    FoxHoundEvaluator expected = fresh(position);
+
+                    assertEquals("Fox distance not as expected for " + position + ".", naiveDistance(position),
+                            evaluator.foxDistance());
+                    assertEquals("Hound spread not as expected.", expected.houndSpread(), evaluator.houndSpread());
+                    assertEquals("Evaluation not as expected for " + position + ".",
+                            expected.evaluate(position.turn()), evaluator.evaluate(position.turn()));
+                }
+                while (depth > 1) {
+                    position.unmake(line[--depth]);
+                    evaluator.moved(FoxHoundMoves.dest(line[depth]), FoxHoundMoves.origin(line[depth]));
+                }
+                if (random.nextBoolean())
+                    assertEquals("Fox distance not as expected after undoing.", naiveDistance(position),
+                            evaluator.foxDistance());
+            }
+        }
+    }
+
+    @Test
+    public void testEveryMoveTakenBack() {
+        Random random = new Random(29);
+        int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+        int[] replies = new int[FoxHoundMoves.MAX_MOVES];
+        FoxHoundEvaluator evaluator = new FoxHoundEvaluator();
+        for (int game = 0; game < 60; ++game) {
+            int dim = FoxHoundUtils.MIN_DIM + game % (FoxHoundUtils.MAX_DIM - FoxHoundUtils.MIN_DIM + 1);
+            FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+            evaluator.reset(position);
+            for (int count; (count = FoxHoundMoves.generate(position, position.turn(), moves)) > 0
+                    && !position.isFoxHome() && !position.isFoxTrapped(); ) {
+                // the leaves of a search: every move evaluated and taken back, some after a reply
+                for (int i = 0; i < count; ++i) {
+                    int origin = FoxHoundMoves.origin(moves[i]), dest = FoxHoundMoves.dest(moves[i]);
+                    position.move(origin, dest);
+                    evaluator.moved(origin, dest);
+
+                    assertEquals("Fox distance not as expected for " + position + ".", naiveDistance(position),
+                            evaluator.foxDistance());
+
+                    int replyCount = position.isFoxHome() ? 0 : FoxHoundMoves.generate(position, position.turn(), replies);
+                    if (replyCount > 0 && random.nextBoolean()) {
+                        int reply = replies[random.nextInt(replyCount)];
+                        position.make(reply);
+                        evaluator.moved(FoxHoundMoves.origin(reply), FoxHoundMoves.dest(reply));
+
+                        assertEquals("Fox distance not as expected after the reply.", naiveDistance(position),
+                                evaluator.foxDistance());
+
+                        position.unmake(reply);
+                        evaluator.moved(FoxHoundMoves.dest(reply), FoxHoundMoves.origin(reply));
+                    }
+                    position.move(dest, origin);
+                    evaluator.moved(dest, origin);
+                }
+                int move = moves[random.nextInt(count)];
+                position.make(move);
+                evaluator.moved(FoxHoundMoves.origin(move), FoxHoundMoves.dest(move));
+            }
+        }
+    }
+
+    @Test
+    public void testTakeBackWholeGame() {
+        Random random = new Random(3);
+        int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+        int dim = FoxHoundUtils.MAX_DIM;
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+        FoxHoundEvaluator evaluator = new FoxHoundEvaluator();
+        evaluator.reset(position);
+        // every move is evaluated before the next one, so no move is taken back right away
+        int[] game = new int[dim * dim];
+        int plies = 0;
+        for (int count; (count = FoxHoundMoves.generate(position, position.turn(), moves)) > 0
+                && !position.isFoxHome() && !position.isFoxTrapped(); ) {
+            game[plies] = moves[random.nextInt(count)];
+            position.make(game[plies]);
+            evaluator.moved(FoxHoundMoves.origin(game[plies]), FoxHoundMoves.dest(game[plies]));
+            ++plies;
+
+            assertEquals("Fox distance not as expected after " + plies + " plies.", naiveDistance(position),
+                    evaluator.foxDistance());
+        }
+        while (plies > 0) {
+            position.unmake(game[--plies]);
+            evaluator.moved(FoxHoundMoves.dest(game[plies]), FoxHoundMoves.origin(game[plies]));
+
+            assertEquals("Fox distance not as expected after taking back " + plies + " plies.",
+                    naiveDistance(position), evaluator.foxDistance());
+        }
+    }
+
+    // ------------------------- features --------------------
+
+    @Test
+    public void testSealedFox() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(new String[]{"A2","C2","E2","G2","D5"}, dim);
+        FoxHoundEvaluator evaluator = fresh(position);
+
+        assertEquals("Fox expected to be sealed off.", FoxHoundEvaluator.SEALED, evaluator.foxDistance());
+        assertEquals("Hound line expected to be in one row.", 0, evaluator.houndSpread());
+
+        position.move(FoxHoundPosition.square("G2", dim), FoxHoundPosition.square("H3", dim));
+        evaluator = fresh(position);
+
+        assertEquals("Fox expected to reach row 1 through the gap.", 4, evaluator.foxDistance());
+        assertEquals("Hound spread not as expected.", 1, evaluator.houndSpread());
+        assertTrue("Gap expected to favour the fox.", evaluator.evaluate(FoxHoundUtils.FOX_FIELD)
+                > fresh(FoxHoundPosition.fromPlayers(new String[]{"A2","C2","E2","G2","D5"}, dim))
+                .evaluate(FoxHoundUtils.FOX_FIELD));
+    }
+
+    @Test
+    public void testDetour() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        // G2 is the only way through row 2, the fox zigzags from A4 over to it
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(new String[]{"A2","C2","E2","G4","A4"}, dim);
+
+        assertEquals("Fox distance not as expected.", 7, fresh(position).foxDistance());
+        assertEquals("Fox distance expected to match a plain search.", naiveDistance(position), fresh(position).foxDistance());
+    }
+
+    @Test
+    public void testScoreIsSymmetric() {
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(new String[]{"B1","D1","F3","H3","F2"}, 8);
+        FoxHoundEvaluator evaluator = fresh(position);
+
+        assertEquals("Scores of both sides expected to add up to zero.",
+                -evaluator.evaluate(FoxHoundUtils.FOX_FIELD), evaluator.evaluate(FoxHoundUtils.HOUND_FIELD));
+    }
+}
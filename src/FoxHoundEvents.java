@@ -0,0 +1,146 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder events for the phases of the fox hound program, so
+ * that a recording tells waiting for the player apart from validation,
+ * drawing, file access and search.
+ * <p>
+ * All events are disabled unless a recording enables them, e.g. with
+ * {@code -XX:StartFlightRecording:+foxhound.Validation#enabled=true} or
+ * {@link jdk.jfr.Recording#enable(Class)}. A disabled event is never
+ * committed and its object does not escape, so the JIT removes it and
+ * leaves only a check of a static flag. Callers therefore fill in the
+ * fields only after {@link Event#shouldCommit()}.
+ */
+public final class FoxHoundEvents {
+
+    private static final String CATEGORY = "Fox Hound";
+
+    private FoxHoundEvents() {
+    }
+
+    /**
+     * Waiting for the player to answer a query.
+     */
+    @Name("foxhound.InputWait")
+    @Label("Input Wait")
+    @Category(CATEGORY)
+    @Description("Waiting for the player to choose a menu entry, a move or a file")
+    @Enabled(false)
+    public static final class InputWait extends Event {
+        /**
+         * Query menu entry.
+         */
+        public static final String MENU = "menu";
+        /**
+         * Query of a move.
+         */
+        public static final String MOVE = "move";
+        /**
+         * Query of a file name.
+         */
+        public static final String FILE = "file";
+
+        @Label("Dimension")
+        public int dimension;
+        @Label("Side to Move")
+        public char side;
+        @Label("Query")
+        public String query;
+    }
+
+    /**
+     * Checking a move entered by a player.
+     */
+    @Name("foxhound.Validation")
+    @Label("Move Validation")
+    @Category(CATEGORY)
+    @Enabled(false)
+    public static final class Validation extends Event {
+        @Label("Dimension")
+        public int dimension;
+        @Label("Side to Move")
+        public char side;
+        @Label("Origin")
+        public String origin;
+        @Label("Destination")
+        public String destination;
+        @Label("Valid")
+        public boolean valid;
+    }
+
+    /**
+     * Drawing the board.
+     */
+    @Name("foxhound.Rendering")
+    @Label("Board Rendering")
+    @Category(CATEGORY)
+    @Enabled(false)
+    public static final class Rendering extends Event {
+        @Label("Dimension")
+        public int dimension;
+        @Label("Incremental")
+        public boolean incremental;
+    }
+
+    /**
+     * Saving or loading a game.
+     */
+    @Name("foxhound.GameFile")
+    @Label("Game File")
+    @Category(CATEGORY)
+    @Enabled(false)
+    public static final class GameFile extends Event {
+        @Label("Dimension")
+        public int dimension;
+        @Label("Side to Move")
+        @Description("Side to move after the operation")
+        public char side;
+        @Label("Path")
+        public String path;
+        @Label("Save")
+        @Description("True if the game was saved, false if it was loaded")
+        public boolean save;
+        @Label("File Size")
+        @DataAmount
+        @Description("Size of the file after the operation, -1 if it cannot be read")
+        public long size;
+        @Label("Succeeded")
+        public boolean succeeded;
+    }
+
+    /**
+     * One iteration of the iterative deepening of an engine.
+     */
+    @Name("foxhound.SearchIteration")
+    @Label("Search Iteration")
+    @Category(CATEGORY)
+    @Enabled(false)
+    public static final class SearchIteration extends Event {
+        @Label("Dimension")
+        public int dimension;
+        @Label("Side to Move")
+        public char side;
+        @Label("Helper")
+        @Description("Index of the engine in a parallel search, 0 for the main engine")
+        public int helper;
+        @Label("Depth")
+        public int depth;
+        @Label("Completed")
+        @Description("False if the time ran out during the iteration")
+        public boolean completed;
+        @Label("Best Move")
+        public String bestMove;
+        @Label("Score")
+        public int score;
+        @Label("Nodes")
+        @Description("Nodes visited by the search so far")
+        public long nodes;
+    }
+}
@@ -0,0 +1,86 @@
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Scanner;
+import java.util.stream.Collectors;
+
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Test;
+
+public class FoxHoundEventsBasicTest {
+
+    private static List<RecordedEvent> events(List<RecordedEvent> all, String name) {
+        return all.stream().filter(event -> event.getEventType().getName().equals(name))
+                .sorted(Comparator.comparing(RecordedEvent::getStartTime)).collect(Collectors.toList());
+    }
+
+    // ------------------------- recording --------------------
+
+    @Test
+    public void testDisabledByDefault() {
+        for (Class<?> type : FoxHoundEvents.class.getClasses())
+            assertFalse(type.getSimpleName() + " expected to be disabled.",
+                    type.getAnnotation(jdk.jfr.Enabled.class).value());
+        assertFalse("Event expected to be disabled without a recording.",
+                EventType.getEventType(FoxHoundEvents.Validation.class).isEnabled());
+    }
+
+    @Test
+    public void testSessionPhases() throws Exception {
+        Path game = Files.createTempFile("foxHoundEvents", ".fhg");
+        Path recorded = Files.createTempFile("foxHoundEvents", ".jfr");
+        PrintStream out = new PrintStream(new ByteArrayOutputStream());
+        // a move rejected and a move played, save, load and a computer move
+        String input = "1\nC4 C3\nC4 D3\n2\n" + game + "\n3\n" + game + "\n5\n4\n";
+        FoxHoundGameSession session =
+                new FoxHoundGameSession(4, new Scanner(new ByteArrayInputStream(input.getBytes())), out, out);
+        session.setMoveTime(50);
+        session.setTable(new FoxHoundTranspositionTable(1));
+
+        try (Recording recording = new Recording()) {
+            for (Class<?> type : FoxHoundEvents.class.getClasses())
+                recording.enable(type.asSubclass(jdk.jfr.Event.class));
+            recording.start();
+            assertEquals("Exit expected.", FoxHoundGameSession.Result.EXIT, session.run());
+            recording.stop();
+            recording.dump(recorded);
+        }
+        List<RecordedEvent> all = RecordingFile.readAllEvents(recorded);
+
+        List<RecordedEvent> validations = events(all, "foxhound.Validation");
+        assertEquals("Two validations expected.", 2, validations.size());
+        assertFalse("First move expected to be invalid.", validations.get(0).getBoolean("valid"));
+        assertEquals("Destination not as expected.", "D3", validations.get(1).getString("destination"));
+        assertEquals("Side not as expected.", FoxHoundUtils.FOX_FIELD, validations.get(1).getChar("side"));
+
+        List<RecordedEvent> files = events(all, "foxhound.GameFile");
+        assertEquals("Save and load expected.", 2, files.size());
+        assertTrue("Save expected first.", files.get(0).getBoolean("save"));
+        assertFalse("Load expected second.", files.get(1).getBoolean("save"));
+        for (RecordedEvent file : files) {
+            assertTrue("File access expected to succeed.", file.getBoolean("succeeded"));
+            assertEquals("File size not as expected.", FoxHoundIO.binarySize(4), file.getLong("size"));
+        }
+
+        assertEquals("Every board expected to be drawn.", 5, events(all, "foxhound.Rendering").size());
+        // five menu choices, two moves and two file names
+        assertEquals("Every query expected to be waited for.", 5 + 2 + 2,
+                events(all, "foxhound.InputWait").size());
+        List<RecordedEvent> iterations = events(all, "foxhound.SearchIteration");
+        assertFalse("Search iterations expected.", iterations.isEmpty());
+        assertEquals("First iteration not as expected.", 1, iterations.get(0).getInt("depth"));
+        assertEquals("Hounds expected to search.", FoxHoundUtils.HOUND_FIELD, iterations.get(0).getChar("side"));
+        Files.delete(game);
+        Files.delete(recorded);
+    }
+}
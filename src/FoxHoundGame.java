@@ -1,3 +1,5 @@
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 /**
@@ -24,98 +26,150 @@ public class FoxHoundGame {
     private static final Scanner STDIN_SCAN = new Scanner(System.in);
 
     /**
-     * Swap between fox and hounds to determine the next
-     * figure to move.
+     * System property holding the time budget of the computer player
+     * per move in milliseconds.
+     */
+    private static final String MOVE_TIME_PROPERTY = "foxhound.moveTime";
+
+    /**
+     * System property holding the size of the transposition table of the
+     * computer player in megabytes.
+     */
+    private static final String HASH_SIZE_PROPERTY = "foxhound.hashMb";
+
+    /**
+     * System property holding the number of search threads of the
+     * computer player.
+     */
+    private static final String THREADS_PROPERTY = "foxhound.threads";
+
+    /**
+     * System property holding the path of a solved endgame table for the
+     * computer player.
+     */
+    private static final String TABLEBASE_PROPERTY = "foxhound.tablebase";
+
+    /**
+     * System property that, if true, redraws only the changed cells of the
+     * board using ANSI escape sequences.
+     */
+    private static final String ANSI_PROPERTY = "foxhound.ansi";
+
+    /**
+     * System property holding the path of a journal file every move is
+     * appended to.
+     */
+    private static final String JOURNAL_PROPERTY = "foxhound.journal";
+
+    /**
+     * System property holding the number of journal events after which
+     * they are forced to the disk, 0 to leave it to the operating system.
+     */
+    private static final String JOURNAL_SYNC_PROPERTY = "foxhound.journalSync";
+
+    /**
+     * System property holding the path of a file the runtime metrics are
+     * written to periodically.
+     */
+    private static final String METRICS_FILE_PROPERTY = "foxhound.metricsFile";
+
+    /**
+     * System property holding the time between two writes of the metrics
+     * file in milliseconds.
+     */
+    private static final String METRICS_PERIOD_PROPERTY = "foxhound.metricsPeriod";
+
+    /**
+     * Default time between two writes of the metrics file in milliseconds.
+     */
+    private static final long DEFAULT_METRICS_PERIOD = 10_000;
+
+    /**
+     * Opens the endgame table named by {@value #TABLEBASE_PROPERTY} if it
+     * matches the dimension of the game.
      *
-     * @param currentTurn last figure to be moved
-     * @return next figure to be moved
-     */
-    private static char swapPlayers(char currentTurn) {
-        if (currentTurn == FoxHoundUtils.FOX_FIELD) {
-            return FoxHoundUtils.HOUND_FIELD;
-        } else {
-            return FoxHoundUtils.FOX_FIELD;
+     * @param dim the dimension of the game board
+     * @return the opened table or null if there is none
+     */
+    private static FoxHoundTablebase openTablebase(int dim) {
+        String file = System.getProperty(TABLEBASE_PROPERTY);
+        if (file == null)
+            return null;
+        try {
+            FoxHoundTablebase tablebase = FoxHoundTablebase.open(Paths.get(file));
+            if (tablebase.dimension() == dim)
+                return tablebase;
+            System.err.println("Error: Endgame table " + file + " is for dimension " + tablebase.dimension() + "!");
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
         }
+        return null;
     }
 
     /**
-     * The main loop of the game. Interactions with the main
-     * menu are interpreted and executed here.
+     * Opens the journal named by {@value #JOURNAL_PROPERTY}.
      *
-     * @param dim     the dimension of the game board
-     * @param players current position of all figures on the board in board coordinates
+     * @return the opened journal or null if there is none
+     */
+    private static FoxHoundJournal openJournal() {
+        String file = System.getProperty(JOURNAL_PROPERTY);
+        if (file == null)
+            return null;
+        try {
+            return new FoxHoundJournal(Paths.get(file), Integer.getInteger(JOURNAL_SYNC_PROPERTY, 0));
+        } catch (IOException e) {
+            System.err.println("Error: Opening the journal " + file + " failed!");
+            return null;
+        }
+    }
+
+    /**
+     * Publishes the runtime metrics as an MBean and starts writing them to
+     * the file named by {@value #METRICS_FILE_PROPERTY}, if there is one.
      */
-    private static void gameLoop(int dim, String[] players) {
+    private static void startMetrics() {
+        try {
+            FoxHoundMetrics.registerMBean();
+        } catch (IllegalStateException e) {
+            System.err.println(e.getMessage());
+        }
+        String file = System.getProperty(METRICS_FILE_PROPERTY);
+        if (file == null)
+            return;
+        try {
+            FoxHoundMetrics.global().startDumping(Paths.get(file),
+                    Long.getLong(METRICS_PERIOD_PROPERTY, DEFAULT_METRICS_PERIOD));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+        }
+    }
 
-        // start each game with the Fox
-        char turn = FoxHoundUtils.FOX_FIELD;
-        boolean exit = false, validity = false;
-        while (!exit) {
-            System.out.println("\n#################################");
+    /**
+     * The main loop of the game. Interactions with the main
+     * menu are interpreted and executed by a session on the console.
+     *
+     * @param dim the dimension of the game board
+     */
+    private static void gameLoop(int dim) {
+        startMetrics();
+        FoxHoundGameSession session = new FoxHoundGameSession(dim, STDIN_SCAN, System.out, System.err);
+        session.setAnsi(Boolean.getBoolean(ANSI_PROPERTY));
+        session.setThreads(Integer.getInteger(THREADS_PROPERTY, 1));
+        session.setMoveTime(Long.getLong(MOVE_TIME_PROPERTY, FoxHoundEngine.DEFAULT_MOVE_TIME));
+        session.setTable(new FoxHoundTranspositionTable(
+                Integer.getInteger(HASH_SIZE_PROPERTY, FoxHoundTranspositionTable.DEFAULT_SIZE_MB)));
+        session.setTablebase(openTablebase(dim));
+        FoxHoundJournal journal = openJournal();
+        session.setJournal(journal);
+        session.run();
+        if (journal != null) {
             try {
-                FoxHoundUI.displayBoard(players, dim);
-            } catch (IllegalArgumentException e) {
-                System.err.println("Error: Illegal argument exception!");
-            }
-            if (FoxHoundUtils.isHoundWin(players, dim)) { // checks if hounds win
-                System.out.println("The Hounds win!");
-                System.exit(0);
-            } else if (FoxHoundUtils.isFoxWin(players[dim / 2])) { // checks if fox win
-                System.out.println("The Fox wins!");
-                System.exit(0);
-            }
-            int choice = FoxHoundUI.mainMenuQuery(turn, STDIN_SCAN);
-
-            // handle menu choice
-            switch (choice) {
-                case FoxHoundUI.MENU_MOVE: // case 1 to move a piece
-                    String[] positions = FoxHoundUI.positionQuery(dim, STDIN_SCAN);
-                    // while loop to check if the co-ordinates returned from position query function are valid
-                    while (!validity) {
-                        try {
-                            validity = FoxHoundUtils.isValidMove(dim, players, turn, positions[0], positions[1]);
-                        } catch (NullPointerException error) {
-                            validity = FoxHoundUtils.isValidMove(dim, players, turn, positions[0], positions[1]);
-                        }
-                        if (!validity) {
-                            System.out.println("Input valid coordinates!");
-                            positions = FoxHoundUI.positionQuery(dim, STDIN_SCAN);
-                        }
-                    }
-                    if (turn == 'F')
-                        players[dim / 2] = positions[1];
-                    else {
-                        for (int i = 0; i < dim / 2; ++i)
-                            if (players[i].equals(positions[0])) {
-                                players[i] = positions[1];
-                                break;
-                            }
-                    }
-                    turn = swapPlayers(turn);
-                    break;
-                case FoxHoundUI.MENU_SAVE: // case 2 to save the game
-                    boolean check;
-                    check = FoxHoundIO.saveGame(players, turn, FoxHoundUI.fileQuery(STDIN_SCAN));
-                    if (!check) // checks if the game can be saved
-                        System.err.println("Error: Saving file failed.");
-                    break;
-                case FoxHoundUI.MENU_LOAD: // case 3 to load a game
-                    char figure;
-                    figure = FoxHoundIO.loadGame(players, FoxHoundUI.fileQuery(STDIN_SCAN));
-                    if (figure == '#') // checks if the game can be loaded into the system
-                        System.err.println("ERROR: Loading from file failed.");
-                    else {
-                        System.out.println("Game has been successfully loaded!");
-                        turn = figure;
-                    }
-                    break;
-                case FoxHoundUI.MENU_EXIT: // case 4 to exit out of the game
-                    exit = true;
-                    break;
-                default: // default case in case the inputted number is not 1-4
-                    System.err.println("ERROR: invalid menu choice: " + choice);
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("Error: Closing the journal failed!");
             }
         }
+        FoxHoundMetrics.global().stopDumping();
     }
 
     /**
@@ -137,7 +191,6 @@ public class FoxHoundGame {
     public static void main(String[] args) {
 
         int dimension = FoxHoundUtils.DEFAULT_DIM;
-        String[] players;
         System.out.print("Do you wish to enter a dimension (y/y for yes, any other character for no) ? ");
         // prompts the user to enter a dimension if the given input is 'y' or 'Y'
         char choice = STDIN_SCAN.next().charAt(0);
@@ -155,12 +208,7 @@ public class FoxHoundGame {
             if (check == 0)
                 dimension = 8;
         }
-        try {
-            players = FoxHoundUtils.initialisePositions(dimension); // initialises fox and hound positions
-        } catch (IllegalArgumentException error) {
-            players = FoxHoundUtils.initialisePositions(FoxHoundUtils.DEFAULT_DIM);
-        }
-        gameLoop(dimension, players);
+        gameLoop(dimension);
         // Close the scanner reading the standard input stream       
         STDIN_SCAN.close();
     }
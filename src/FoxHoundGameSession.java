@@ -0,0 +1,459 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+/**
+ * One game of fox and hounds with its own board, side to move and
+ * input / output channels.
+ * <p>
+ * {@link #run} plays the menu driven game loop until the game is decided,
+ * a player exits or the input ends, and returns instead of terminating the
+ * program. Sessions share no mutable state, so many of them can run at the
+ * same time, e.g. on a {@link FoxHoundSessionScheduler}. The computer player
+ * of a session is created on its first use; transposition table and
+ * endgame table may be shared between sessions. Moves can be taken back
+ * and played again, and are recorded in a {@link FoxHoundJournal} if the
+ * session has one. Validation, win checks, drawing, saving and loading are
+ * timed in {@link FoxHoundMetrics#global()}, and waiting for input,
+ * validation, drawing and file access are recorded as {@link FoxHoundEvents}.
+ */
+public class FoxHoundGameSession {
+
+    private static final FoxHoundHistogram VALIDATION =
+            FoxHoundMetrics.global().histogram(FoxHoundMetrics.MOVE_VALIDATION);
+    private static final FoxHoundHistogram WIN_DETECTION =
+            FoxHoundMetrics.global().histogram(FoxHoundMetrics.WIN_DETECTION);
+    private static final FoxHoundHistogram RENDERING =
+            FoxHoundMetrics.global().histogram(FoxHoundMetrics.BOARD_RENDERING);
+    private static final FoxHoundHistogram SAVING = FoxHoundMetrics.global().histogram(FoxHoundMetrics.SAVE);
+    private static final FoxHoundHistogram LOADING = FoxHoundMetrics.global().histogram(FoxHoundMetrics.LOAD);
+
+    /**
+     * How a session ended.
+     */
+    public enum Result {
+        /**
+         * The fox reached the first row.
+         */
+        FOX_WIN,
+        /**
+         * The hounds trapped the fox.
+         */
+        HOUND_WIN,
+        /**
+         * A player chose to exit.
+         */
+        EXIT,
+        /**
+         * The input ended before the game was decided.
+         */
+        DISCONNECTED
+    }
+
+    private final int dim;
+    private final Scanner in;
+    private final PrintStream out;
+    private final PrintStream err;
+    private final FoxHoundBoardRenderer renderer = new FoxHoundBoardRenderer();
+    private final FoxHoundHistory history = new FoxHoundHistory();
+
+    private String[] players;
+    private FoxHoundPosition position;
+    private char turn = FoxHoundUtils.FOX_FIELD;
+
+    private boolean ansi;
+    private int threads = 1;
+    private long moveTimeMillis = FoxHoundEngine.DEFAULT_MOVE_TIME;
+    private FoxHoundTranspositionTable table;
+    private FoxHoundTablebase tablebase;
+    private FoxHoundParallelSearch engine;
+    private FoxHoundJournal journal;
+
+    /**
+     * Creates a session starting from the initial position.
+     *
+     * @param dim the dimension of the game board
+     * @param in  a Scanner object to read user input from
+     * @param out stream for the board, menus and messages
+     * @param err stream for error messages
+     * @throws IllegalArgumentException if the given dimension is invalid
+     * @throws NullPointerException     if a channel is null
+     */
+    public FoxHoundGameSession(int dim, Scanner in, PrintStream out, PrintStream err) {
+        if (in == null || out == null || err == null)
+            throw new NullPointerException("Error : Input and output of a session cannot be empty!");
+        this.dim = dim;
+        this.in = in;
+        this.out = out;
+        this.err = err;
+        this.players = FoxHoundUtils.initialisePositions(dim);
+        this.position = FoxHoundPosition.fromPlayers(players, dim);
+    }
+
+    /**
+     * @param ansi true to redraw only the changed cells of the board using ANSI escape sequences
+     */
+    public void setAnsi(boolean ansi) {
+        this.ansi = ansi;
+    }
+
+    /**
+     * @param threads number of search threads of the computer player
+     * @throws IllegalArgumentException if the thread count is not positive
+     */
+    public void setThreads(int threads) {
+        if (threads <= 0)
+            throw new IllegalArgumentException("Error : Number of search threads has to be positive!");
+        this.threads = threads;
+    }
+
+    /**
+     * @param moveTimeMillis time budget of the computer player per move in milliseconds
+     * @throws IllegalArgumentException if the time budget is not positive
+     */
+    public void setMoveTime(long moveTimeMillis) {
+        if (moveTimeMillis <= 0)
+            throw new IllegalArgumentException("Error : Time budget per move has to be positive!");
+        this.moveTimeMillis = moveTimeMillis;
+    }
+
+    /**
+     * @param table transposition table of the computer player, null for a
+     *              table of {@value FoxHoundTranspositionTable#DEFAULT_SIZE_MB} MB of its own
+     */
+    public void setTable(FoxHoundTranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * @param tablebase an opened endgame table for the computer player or null
+     */
+    public void setTablebase(FoxHoundTablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * @param journal journal to record the games of this session in, or null;
+     *                it is flushed but not closed when the session ends
+     */
+    public void setJournal(FoxHoundJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * @return current position of all figures on the board in board coordinates
+     */
+    public String[] players() {
+        return players.clone();
+    }
+
+    /**
+     * @return the figure to move next
+     */
+    public char turn() {
+        return turn;
+    }
+
+    /**
+     * Plays the game. Interactions with the main menu are interpreted and
+     * executed here.
+     *
+     * @return how the game ended
+     */
+    public Result run() {
+        try {
+            record(position);
+            return loop();
+        } catch (NoSuchElementException e) {
+            // the input was closed in the middle of a query
+            return Result.DISCONNECTED;
+        } finally {
+            if (engine != null)
+                engine.close();
+            try {
+                if (journal != null)
+                    journal.flush();
+            } catch (IOException e) {
+                err.println("Error: Writing the journal failed!");
+            }
+        }
+    }
+
+    private Result loop() {
+        boolean validity;
+        while (true) {
+            long start = System.nanoTime();
+            FoxHoundEvents.Rendering rendering = new FoxHoundEvents.Rendering();
+            rendering.begin();
+            try {
+                if (ansi) {
+                    renderer.renderIncremental(players, dim, out);
+                } else {
+                    out.println("\n#################################");
+                    renderer.render(players, dim, out);
+                }
+            } catch (IllegalArgumentException e) {
+                err.println("Error: Illegal argument exception!");
+            }
+            RENDERING.recordSince(start);
+            if (rendering.shouldCommit()) {
+                rendering.dimension = dim;
+                rendering.incremental = ansi;
+                rendering.commit();
+            }
+            start = System.nanoTime();
+            boolean trapped = position.isFoxTrapped(), home = !trapped && position.isFoxHome();
+            WIN_DETECTION.recordSince(start);
+            if (trapped) { // checks if hounds win
+                out.println("The Hounds win!");
+                return Result.HOUND_WIN;
+            } else if (home) { // checks if fox win
+                out.println("The Fox wins!");
+                return Result.FOX_WIN;
+            }
+            FoxHoundEvents.InputWait wait = new FoxHoundEvents.InputWait();
+            wait.begin();
+            int choice = FoxHoundUI.mainMenuQuery(turn, in, out);
+            commit(wait, FoxHoundEvents.InputWait.MENU);
+
+            // handle menu choice
+            switch (choice) {
+                case FoxHoundUI.MENU_MOVE: // case 1 to move a piece
+                    String[] positions = positionQuery();
+                    validity = false; // every move has to be validated again
+                    // while loop to check if the co-ordinates returned from position query function are valid
+                    while (!validity) {
+                        start = System.nanoTime();
+                        FoxHoundEvents.Validation validation = new FoxHoundEvents.Validation();
+                        validation.begin();
+                        validity = FoxHoundUtils.isValidMove(dim, players, turn, positions[0], positions[1]);
+                        VALIDATION.recordSince(start);
+                        if (validation.shouldCommit()) {
+                            validation.dimension = dim;
+                            validation.side = turn;
+                            validation.origin = positions[0];
+                            validation.destination = positions[1];
+                            validation.valid = validity;
+                            validation.commit();
+                        }
+                        if (!validity) {
+                            out.println("Input valid coordinates!");
+                            positions = positionQuery();
+                        }
+                    }
+                    play(FoxHoundPosition.square(positions[0], dim), FoxHoundPosition.square(positions[1], dim));
+                    break;
+                case FoxHoundUI.MENU_SAVE: // case 2 to save the game
+                    if (!save(fileQuery())) // checks if the game can be saved
+                        err.println("Error: Saving file failed.");
+                    break;
+                case FoxHoundUI.MENU_LOAD: // case 3 to load a game
+                    if (!load(fileQuery())) // checks if the game can be loaded into the system
+                        err.println("ERROR: Loading from file failed.");
+                    else
+                        out.println("Game has been successfully loaded!");
+                    break;
+                case FoxHoundUI.MENU_EXIT: // case 4 to exit out of the game
+                    return Result.EXIT;
+                case FoxHoundUI.MENU_COMPUTER: // case 5 to let the computer move
+                    FoxHoundParallelSearch search = engine();
+                    int move = search.bestMove(position, turn);
+                    if (move == FoxHoundEngine.NO_MOVE) {
+                        err.println("ERROR: No legal move available.");
+                        break;
+                    }
+                    int origin = FoxHoundMoves.origin(move), dest = FoxHoundMoves.dest(move);
+                    out.println("Computer moves " + FoxHoundPosition.coordinate(origin, dim)
+                            + " " + FoxHoundPosition.coordinate(dest, dim)
+                            + " (depth " + search.completedDepth() + ", " + search.nodesPerSecond() + " nodes/s, "
+                            + Math.round(table.hitRate() * 100) + "% table hits)");
+                    play(origin, dest);
+                    break;
+                case FoxHoundUI.MENU_UNDO: // case 6 to take back the last move
+                    int undone = history.undo();
+                    if (undone == FoxHoundEngine.NO_MOVE) {
+                        err.println("ERROR: No move to undo.");
+                        break;
+                    }
+                    position.unmake(undone);
+                    synchronise();
+                    record(FoxHoundJournal.UNDO);
+                    break;
+                case FoxHoundUI.MENU_REDO: // case 7 to play a taken back move again
+                    int redone = history.redo();
+                    if (redone == FoxHoundEngine.NO_MOVE) {
+                        err.println("ERROR: No move to redo.");
+                        break;
+                    }
+                    position.make(redone);
+                    synchronise();
+                    record(redone);
+                    break;
+                default: // default case in case the inputted number is not 1-7
+                    err.println("ERROR: invalid menu choice: " + choice);
+            }
+        }
+    }
+
+    private String[] positionQuery() {
+        FoxHoundEvents.InputWait wait = new FoxHoundEvents.InputWait();
+        wait.begin();
+        String[] positions = FoxHoundUI.positionQuery(dim, in, out, err);
+        commit(wait, FoxHoundEvents.InputWait.MOVE);
+        return positions;
+    }
+
+    private Path fileQuery() {
+        FoxHoundEvents.InputWait wait = new FoxHoundEvents.InputWait();
+        wait.begin();
+        Path file = FoxHoundUI.fileQuery(in, out);
+        commit(wait, FoxHoundEvents.InputWait.FILE);
+        return file;
+    }
+
+    private void commit(FoxHoundEvents.InputWait wait, String query) {
+        if (wait.shouldCommit()) {
+            wait.dimension = dim;
+            wait.side = turn;
+            wait.query = query;
+            wait.commit();
+        }
+    }
+
+    // the text format only holds the default board, every other board is saved in binary
+    private boolean save(Path saveFile) {
+        long start = System.nanoTime();
+        FoxHoundEvents.GameFile event = new FoxHoundEvents.GameFile();
+        event.begin();
+        boolean saved = false;
+        try {
+            boolean binaryName = saveFile.toString().endsWith(FoxHoundIO.BINARY_EXTENSION);
+            if (dim == FoxHoundUtils.DEFAULT_DIM && !binaryName) {
+                saved = FoxHoundIO.saveGame(players, turn, saveFile);
+            } else {
+                saved = FoxHoundIO.saveBinaryGame(position, saveFile);
+                // a text load of the file would fail without saying why
+                if (saved && !binaryName)
+                    out.println("Game has been saved in the binary format, the text format only holds "
+                            + FoxHoundUtils.DEFAULT_DIM + "x" + FoxHoundUtils.DEFAULT_DIM + " boards.");
+            }
+            return saved;
+        } finally {
+            SAVING.recordSince(start);
+            commit(event, saveFile, true, saved);
+        }
+    }
+
+    private boolean load(Path input) {
+        long start = System.nanoTime();
+        FoxHoundEvents.GameFile event = new FoxHoundEvents.GameFile();
+        event.begin();
+        boolean loaded = false;
+        try {
+            loaded = read(input);
+            return loaded;
+        } finally {
+            LOADING.recordSince(start);
+            commit(event, input, false, loaded);
+        }
+    }
+
+    private void commit(FoxHoundEvents.GameFile event, Path file, boolean save, boolean succeeded) {
+        event.end();
+        if (!event.shouldCommit())
+            return;
+        event.dimension = dim;
+        event.side = turn;
+        event.path = file.toString();
+        event.save = save;
+        try {
+            event.size = Files.size(file);
+        } catch (IOException e) {
+            event.size = -1;
+        }
+        event.succeeded = succeeded;
+        event.commit();
+    }
+
+    private boolean read(Path input) {
+        FoxHoundPosition loaded;
+        if (FoxHoundIO.isBinaryGame(input)) {
+            loaded = FoxHoundIO.loadBinaryGame(input);
+            if (loaded == null || loaded.dimension() != dim)
+                return false;
+        } else {
+            if (dim != FoxHoundUtils.DEFAULT_DIM)
+                return false;
+            String[] text = players.clone();
+            char figure = FoxHoundIO.loadGame(text, input);
+            if (figure == '#')
+                return false;
+            try {
+                loaded = FoxHoundPosition.fromPlayers(text, dim);
+            } catch (IllegalArgumentException e) {
+                return false; // two figures on one square
+            }
+            loaded.setTurn(figure);
+        }
+        position = loaded;
+        synchronise();
+        history.clear();
+        record(position);
+        return true;
+    }
+
+    private void play(int origin, int dest) {
+        int move = FoxHoundMoves.encode(origin, dest);
+        position.make(move);
+        synchronise();
+        history.push(move);
+        record(move);
+    }
+
+    // keeps the legacy array in sync for display and saving
+    private void synchronise() {
+        players = position.toPlayers();
+        turn = position.turn();
+    }
+
+    private void record(FoxHoundPosition start) {
+        try {
+            if (journal != null)
+                journal.startGame(start);
+        } catch (IOException e) {
+            stopJournal();
+        }
+    }
+
+    private void record(int event) {
+        try {
+            if (journal != null) {
+                if (event == FoxHoundJournal.UNDO)
+                    journal.undo();
+                else
+                    journal.move(event);
+            }
+        } catch (IOException e) {
+            stopJournal();
+        }
+    }
+
+    // a broken journal must not end the game
+    private void stopJournal() {
+        err.println("Error: Writing the journal failed, moves are no longer recorded!");
+        journal = null;
+    }
+
+    private FoxHoundParallelSearch engine() {
+        if (engine == null) {
+            if (table == null)
+                table = new FoxHoundTranspositionTable(FoxHoundTranspositionTable.DEFAULT_SIZE_MB);
+            engine = new FoxHoundParallelSearch(threads, moveTimeMillis, table);
+            engine.setTablebase(tablebase != null && tablebase.dimension() == dim ? tablebase : null);
+        }
+        return engine;
+    }
+}
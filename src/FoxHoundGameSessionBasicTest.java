@@ -0,0 +1,121 @@
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class FoxHoundGameSessionBasicTest {
+
+    // fox runs from C4 to B1 on the 4x4 board
+    private static final String FOX_WIN_INPUT = "1\nC4 D3\n1\nB1 A2\n1\nD3 C2\n1\nA2 B3\n1\nC2 B1\n";
+
+    private static FoxHoundGameSession session(int dim, String input, ByteArrayOutputStream out) {
+        PrintStream stream = new PrintStream(out);
+        return new FoxHoundGameSession(dim, new Scanner(new ByteArrayInputStream(input.getBytes())), stream, stream);
+    }
+
+    // ------------------------- single session --------------------
+
+    @Test
+    public void testFoxWinEndsSession() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        FoxHoundGameSession session = session(4, FOX_WIN_INPUT, out);
+
+        assertEquals("Fox expected to win.", FoxHoundGameSession.Result.FOX_WIN, session.run());
+        assertTrue("Win expected to be announced.", out.toString().contains("The Fox wins!"));
+        assertArrayEquals("Final position not as expected.", new String[]{"D1", "B3", "B1"}, session.players());
+    }
+
+    @Test
+    public void testExitAndDisconnect() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals("Exit expected.", FoxHoundGameSession.Result.EXIT,
+                session(FoxHoundUtils.DEFAULT_DIM, "4\n", out).run());
+        assertEquals("Disconnect expected when the input ends.", FoxHoundGameSession.Result.DISCONNECTED,
+                session(FoxHoundUtils.DEFAULT_DIM, "1\nE8 D7\n", out).run());
+    }
+
+    @Test
+    public void testComputerMove() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        FoxHoundGameSession session = session(FoxHoundUtils.DEFAULT_DIM, "5\n4\n", out);
+        session.setMoveTime(50);
+        session.setTable(new FoxHoundTranspositionTable(1));
+
+        assertEquals("Exit expected.", FoxHoundGameSession.Result.EXIT, session.run());
+        assertTrue("Computer move expected.", out.toString().contains("Computer moves E8 "));
+        assertEquals("Hounds expected to move next.", FoxHoundUtils.HOUND_FIELD, session.turn());
+    }
+
+    @Test
+    public void testSaveAndLoadOtherDimension() throws Exception {
+        Path file = Files.createTempFile("foxHoundSession", ".txt");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // save after the first fox move, play on, load the saved game and exit
+        String input = "1\nC4 D3\n2\n" + file + "\n1\nB1 A2\n3\n" + file + "\n4\n";
+        FoxHoundGameSession session = session(4, input, out);
+
+        assertEquals("Exit expected.", FoxHoundGameSession.Result.EXIT, session.run());
+        assertTrue("Load expected to succeed.", out.toString().contains("Game has been successfully loaded!"));
+        assertTrue("Game on a 4x4 board expected to be saved in binary.", FoxHoundIO.isBinaryGame(file));
+        assertTrue("Binary format expected to be reported for a text file name.",
+                out.toString().contains("Game has been saved in the binary format"));
+        assertArrayEquals("Loaded position not as expected.", new String[]{"B1", "D1", "D3"}, session.players());
+        assertEquals("Hounds expected to move next.", FoxHoundUtils.HOUND_FIELD, session.turn());
+        Files.delete(file);
+    }
+
+    @Test
+    public void testUndoRedoAndJournal() throws Exception {
+        Path file = Files.createTempFile("foxHoundSession", ".fhj");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // fox and hound move, both are taken back, the fox move is played again
+        String input = "1\nC4 D3\n1\nB1 A2\n6\n6\n6\n7\n4\n";
+        FoxHoundGameSession session = session(4, input, out);
+        try (FoxHoundJournal journal = new FoxHoundJournal(file, 0)) {
+            session.setJournal(journal);
+            assertEquals("Exit expected.", FoxHoundGameSession.Result.EXIT, session.run());
+        }
+
+        assertTrue("Undo without a move expected to fail.", out.toString().contains("ERROR: No move to undo."));
+        assertArrayEquals("Position after redo not as expected.", new String[]{"B1", "D1", "D3"}, session.players());
+        assertEquals("Hounds expected to move next.", FoxHoundUtils.HOUND_FIELD, session.turn());
+        FoxHoundReplay replay = FoxHoundReplay.load(file);
+        assertEquals("Journal expected to hold the redone move only.", 1, replay.length(0));
+        Files.delete(file);
+    }
+
+    // ------------------------- scheduler --------------------
+
+    @Test
+    public void testManyConcurrentSessions() throws Exception {
+        int sessions = 2000;
+        List<ByteArrayOutputStream> outputs = new ArrayList<>();
+        List<Future<FoxHoundGameSession.Result>> results = new ArrayList<>();
+        try (FoxHoundSessionScheduler scheduler = new FoxHoundSessionScheduler()) {
+            for (int i = 0; i < sessions; ++i) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                outputs.add(out);
+                results.add(scheduler.submit(session(4, i % 2 == 0 ? FOX_WIN_INPUT : "4\n", out)));
+            }
+            for (int i = 0; i < sessions; ++i)
+                assertEquals("Result not as expected.", i % 2 == 0 ? FoxHoundGameSession.Result.FOX_WIN
+                        : FoxHoundGameSession.Result.EXIT, results.get(i).get(10, TimeUnit.SECONDS));
+            assertTrue("Scheduler expected to finish.", scheduler.shutdown(10, TimeUnit.SECONDS));
+            assertEquals("No session expected to be running.", 0, scheduler.activeSessions());
+        }
+        String first = outputs.get(0).toString();
+        for (int i = 2; i < sessions; i += 2)
+            assertEquals("Sessions expected to write only their own output.", first, outputs.get(i).toString());
+    }
+}
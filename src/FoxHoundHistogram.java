@@ -0,0 +1,153 @@
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies in nanoseconds that many threads record into
+ * at the same time.
+ * <p>
+ * Buckets are spaced as in an HDR histogram: values below
+ * {@value #SUB_BUCKETS} get a bucket of their own, and every power of two
+ * above is split into {@value #SUB_BUCKETS} equal buckets, so a percentile
+ * is off by less than an eighth of its value. Values of {@value #MAX_VALUE}
+ * nanoseconds (about 78 hours) and more share the last bucket. Every bucket
+ * is a {@link LongAdder}, so recording costs one uncontended add in the
+ * common case and threads recording at once update different cells
+ * instead of fighting over one.
+ * <p>
+ * A snapshot taken while other threads record may miss their latest values,
+ * but never sees a value twice.
+ */
+public class FoxHoundHistogram {
+
+    /**
+     * Number of buckets per power of two.
+     */
+    public static final int SUB_BUCKETS = 8;
+    /**
+     * Smallest value sharing the last bucket.
+     */
+    public static final long MAX_VALUE = 1L << 48;
+
+    private static final int SUB_BITS = 3;
+    private static final int BUCKETS = bucket(MAX_VALUE) + 1;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Creates an empty histogram.
+     */
+    public FoxHoundHistogram() {
+        for (int i = 0; i < BUCKETS; ++i)
+            buckets[i] = new LongAdder();
+    }
+
+    // index of the bucket holding the given value
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        return ((exponent - SUB_BITS + 1) << SUB_BITS) | (int) ((value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1));
+    }
+
+    // largest value of the given bucket
+    private static long highest(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        int exponent = (bucket >>> SUB_BITS) + SUB_BITS - 1;
+        long lowest = (long) (SUB_BUCKETS | (bucket & (SUB_BUCKETS - 1))) << (exponent - SUB_BITS);
+        return lowest + (1L << (exponent - SUB_BITS)) - 1;
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos the latency in nanoseconds, negative values count as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        buckets[bucket(Math.min(value, MAX_VALUE))].increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Records the time passed since a start time.
+     *
+     * @param startNanos a value of {@link System#nanoTime()}
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @return number of recorded values
+     */
+    public long count() {
+        long count = 0;
+        for (LongAdder bucket : buckets)
+            count += bucket.sum();
+        return count;
+    }
+
+    /**
+     * @return sum of all recorded values in nanoseconds
+     */
+    public long sum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return largest recorded value in nanoseconds, 0 if nothing was recorded
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * @return average of the recorded values in nanoseconds, 0 if nothing was recorded
+     */
+    public double mean() {
+        long count = count();
+        return count == 0 ? 0 : (double) sum() / count;
+    }
+
+    /**
+     * Estimates a percentile as the largest value of the bucket it falls
+     * into, but at most the largest recorded value.
+     *
+     * @param percentile a percentile between 0 and 100
+     * @return the percentile in nanoseconds, 0 if nothing was recorded
+     * @throws IllegalArgumentException if the percentile is outside of 0 to 100
+     */
+    public long percentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100))
+            throw new IllegalArgumentException("Error : Percentile should be between 0 and 100!");
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; ++i)
+            total += counts[i] = buckets[i].sum();
+        if (total == 0)
+            return 0;
+        long rank = Math.max((long) Math.ceil(percentile / 100 * total), 1);
+        for (int i = 0; i < BUCKETS; ++i) {
+            rank -= counts[i];
+            // the last bucket also holds every value beyond it
+            if (rank <= 0)
+                return i == BUCKETS - 1 ? max() : Math.min(highest(i), max());
+        }
+        return max();
+    }
+
+    /**
+     * Clears all recorded values. Values recorded at the same time may or
+     * may not survive.
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets)
+            bucket.reset();
+        sum.reset();
+        max.reset();
+    }
+}
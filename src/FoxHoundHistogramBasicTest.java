@@ -0,0 +1,80 @@
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundHistogramBasicTest {
+
+    // ------------------------- recording --------------------
+
+    @Test
+    public void testPercentilesWithinAnEighth() {
+        FoxHoundHistogram histogram = new FoxHoundHistogram();
+        for (long value = 1; value <= 100_000; ++value)
+            histogram.record(value);
+
+        assertEquals("Count not as expected.", 100_000, histogram.count());
+        assertEquals("Mean not as expected.", 50_000.5, histogram.mean(), 1e-9);
+        assertEquals("Maximum not as expected.", 100_000, histogram.max());
+        for (double percentile : new double[]{1, 25, 50, 90, 99, 99.9}) {
+            long exact = (long) Math.ceil(percentile * 1000);
+            long estimate = histogram.percentile(percentile);
+            assertTrue("Percentile " + percentile + " expected to be at least " + exact + " but was " + estimate + ".",
+                    estimate >= exact);
+            assertTrue("Percentile " + percentile + " expected to be off by less than an eighth.",
+                    estimate < exact + exact / FoxHoundHistogram.SUB_BUCKETS + 1);
+        }
+        assertEquals("Largest percentile expected to be the maximum.", 100_000, histogram.percentile(100));
+    }
+
+    @Test
+    public void testSmallAndLargeValues() {
+        FoxHoundHistogram histogram = new FoxHoundHistogram();
+        for (int value = 0; value < FoxHoundHistogram.SUB_BUCKETS; ++value)
+            histogram.record(value);
+
+        assertEquals("Small values expected to be exact.", 3, histogram.percentile(50));
+
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals("Negative value expected to count as 0.", 0, histogram.percentile(0));
+        assertEquals("Huge value expected to be the maximum.", Long.MAX_VALUE, histogram.percentile(100));
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        FoxHoundHistogram histogram = new FoxHoundHistogram();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i] = new Thread(() -> {
+                for (int value = 0; value < 100_000; ++value)
+                    histogram.record(value);
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals("No value expected to be lost.", 400_000, histogram.count());
+        assertEquals("Sum not as expected.", 4 * (99_999L * 100_000 / 2), histogram.sum());
+    }
+
+    @Test
+    public void testReset() {
+        FoxHoundHistogram histogram = new FoxHoundHistogram();
+        histogram.record(1000);
+
+        histogram.reset();
+
+        assertEquals("Histogram expected to be empty.", 0, histogram.count());
+        assertEquals("Percentile of an empty histogram expected to be 0.", 0, histogram.percentile(50));
+        assertEquals("Maximum expected to be cleared.", 0, histogram.max());
+    }
+
+    // ------------------------- invalid input --------------------
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPercentile() {
+        new FoxHoundHistogram().percentile(101);
+    }
+}
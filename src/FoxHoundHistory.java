@@ -0,0 +1,67 @@
+import java.util.Arrays;
+
+/**
+ * The moves played in a game, with undo and redo.
+ * <p>
+ * Moves are kept as encoded ints in a growing array. Undoing a move moves
+ * the cursor back without forgetting the move, so it can be redone until
+ * a different move is played. Recording, undoing and redoing never
+ * allocate once the array is large enough for the game.
+ */
+public class FoxHoundHistory {
+
+    private int[] moves = new int[64];
+    private int size;
+    private int cursor;
+
+    /**
+     * Records a played move. Moves that were undone before are forgotten.
+     *
+     * @param move a move encoded by {@link FoxHoundMoves#encode}
+     */
+    public void push(int move) {
+        if (cursor == moves.length)
+            moves = Arrays.copyOf(moves, 2 * moves.length);
+        moves[cursor++] = move;
+        size = cursor;
+    }
+
+    /**
+     * @return the last played move to take back, {@link FoxHoundEngine#NO_MOVE} if there is none
+     */
+    public int undo() {
+        return cursor == 0 ? FoxHoundEngine.NO_MOVE : moves[--cursor];
+    }
+
+    /**
+     * @return the last undone move to play again, {@link FoxHoundEngine#NO_MOVE} if there is none
+     */
+    public int redo() {
+        return cursor == size ? FoxHoundEngine.NO_MOVE : moves[cursor++];
+    }
+
+    /**
+     * @return number of moves played and not undone
+     */
+    public int length() {
+        return cursor;
+    }
+
+    /**
+     * @param ply a number of moves between 0 inclusive and {@link #length()} exclusive
+     * @return the move played at the given ply
+     * @throws IndexOutOfBoundsException if the ply is not played
+     */
+    public int move(int ply) {
+        if (ply < 0 || ply >= cursor)
+            throw new IndexOutOfBoundsException("Error : Move " + ply + " is not played!");
+        return moves[ply];
+    }
+
+    /**
+     * Forgets all moves, e.g. when another game is loaded.
+     */
+    public void clear() {
+        size = cursor = 0;
+    }
+}
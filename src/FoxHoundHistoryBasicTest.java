@@ -0,0 +1,47 @@
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundHistoryBasicTest {
+
+    @Test
+    public void testUndoRedo() {
+        FoxHoundHistory history = new FoxHoundHistory();
+        history.push(1);
+        history.push(2);
+
+        assertEquals("Last move expected to be undone.", 2, history.undo());
+        assertEquals("First move expected to be undone.", 1, history.undo());
+        assertEquals("Nothing left to undo.", FoxHoundEngine.NO_MOVE, history.undo());
+        assertEquals("First move expected to be redone.", 1, history.redo());
+        assertEquals("Length not as expected.", 1, history.length());
+
+        history.push(3);
+
+        assertEquals("Undone moves expected to be forgotten by a new move.", FoxHoundEngine.NO_MOVE, history.redo());
+        assertEquals("Line not as expected.", 3, history.move(1));
+    }
+
+    @Test
+    public void testGrowAndClear() {
+        FoxHoundHistory history = new FoxHoundHistory();
+        for (int i = 0; i < 1000; ++i)
+            history.push(i);
+
+        assertEquals("Length not as expected.", 1000, history.length());
+        assertEquals("Move not as expected.", 999, history.move(999));
+
+        history.clear();
+
+        assertEquals("History expected to be empty.", 0, history.length());
+        assertEquals("Nothing left to redo.", FoxHoundEngine.NO_MOVE, history.redo());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testMoveNotPlayed() {
+        FoxHoundHistory history = new FoxHoundHistory();
+        history.push(1);
+        history.undo();
+        history.move(0);
+    }
+}
@@ -2,17 +2,53 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
+import java.util.zip.CRC32;
 
 /**
  * A utility class for the fox hound program.
  * <p>
  * It contains helper functions for all file input / output
  * related operations such as saving and loading a game.
+ * <p>
+ * Besides the text format of the default board there is a binary format
+ * for every dimension. A binary game is a record of
+ * {@link #binarySize(int)} bytes in big endian order: the magic number
+ * {@code "FHSG"}, a version byte, the dimension, the figure to move
+ * ({@code 'F'} or {@code 'H'}), the square indices of all hounds in
+ * ascending order and of the fox as unsigned shorts, and a CRC-32 of all
+ * preceding bytes of the record. Records are self-describing, so a file
+ * may hold any number of them, even of different dimensions.
  */
 public class FoxHoundIO {
 
+    /**
+     * First four bytes of every binary game record, {@code "FHSG"}.
+     */
+    public static final int BINARY_MAGIC = 0x46485347;
+    /**
+     * Version of the binary game format.
+     */
+    public static final int BINARY_VERSION = 1;
+    /**
+     * File name extension that selects the binary format when saving.
+     */
+    public static final String BINARY_EXTENSION = ".fhg";
+
+    // magic, version, dimension and figure to move
+    private static final int BINARY_HEADER_BYTES = 7;
+    private static final int CHECKSUM_BYTES = 4;
+    private static final int BULK_BUFFER_BYTES = 1 << 16;
+
     /**
      * Loads the game if file is found
      *
@@ -112,4 +148,276 @@ public class FoxHoundIO {
         }
         return true;
     }
+
+    /**
+     * @param dim the dimension of the game board
+     * @return size of a binary game record of the given dimension in bytes
+     * @throws IllegalArgumentException if the given dimension is invalid
+     */
+    public static int binarySize(int dim) {
+        FoxHoundPosition.checkDimension(dim);
+        return BINARY_HEADER_BYTES + 2 * (dim / 2 + 1) + CHECKSUM_BYTES;
+    }
+
+    /**
+     * Writes a position as binary game record at the position of the buffer
+     * and advances the buffer past it.
+     *
+     * @param position the position to write, including the figure to move
+     * @param dst      buffer to write to
+     * @throws IllegalArgumentException if the number of hounds does not match the dimension
+     * @throws BufferOverflowException  if the record does not fit into the buffer
+     * @throws NullPointerException     if the position or buffer is null
+     */
+    public static void writeBinary(FoxHoundPosition position, ByteBuffer dst) {
+        if (position == null || dst == null)
+            throw new NullPointerException("Error: Position and buffer cannot be empty!");
+        writeBinary(position, dst, new Checksum(dst));
+    }
+
+    private static void writeBinary(FoxHoundPosition position, ByteBuffer dst, Checksum checksum) {
+        int dim = position.dimension();
+        if (position.houndCount() != dim / 2)
+            throw new IllegalArgumentException("Error: Number of hounds does not match the dimension!");
+        int size = binarySize(dim);
+        if (dst.remaining() < size)
+            throw new BufferOverflowException();
+        int start = dst.position();
+        putInt(dst, start, BINARY_MAGIC);
+        dst.put(start + 4, (byte) BINARY_VERSION);
+        dst.put(start + 5, (byte) dim);
+        dst.put(start + 6, (byte) position.turn());
+        int offset = start + BINARY_HEADER_BYTES;
+        for (int w = 0; w < position.words(); ++w) {
+            for (long bits = position.houndWord(w); bits != 0; bits &= bits - 1) {
+                putShort(dst, offset, (w << 6) + Long.numberOfTrailingZeros(bits));
+                offset += 2;
+            }
+        }
+        putShort(dst, offset, position.fox());
+        offset += 2;
+        putInt(dst, offset, checksum.of(start, offset));
+        dst.position(start + size);
+    }
+
+    /**
+     * Reads a binary game record at the position of the buffer and advances
+     * the buffer past it. The checksum is verified in one pass over the
+     * record before a second pass decodes the pieces, so corrupt data never
+     * reaches the position. No text is created on the way.
+     *
+     * @param src buffer to read from
+     * @return the position of the record, including the figure to move
+     * @throws IllegalArgumentException if the record is truncated, corrupt or describes an invalid game
+     * @throws NullPointerException     if the buffer is null
+     */
+    public static FoxHoundPosition readBinary(ByteBuffer src) {
+        if (src == null)
+            throw new NullPointerException("Error: Buffer cannot be empty!");
+        return readBinary(src, new Checksum(src), false);
+    }
+
+    // lets the validator read a record with figures on light squares and name the problem itself
+    static FoxHoundPosition readBinary(ByteBuffer src, boolean lightSquares) {
+        return readBinary(src, new Checksum(src), lightSquares);
+    }
+
+    private static FoxHoundPosition readBinary(ByteBuffer src, Checksum checksum, boolean lightSquares) {
+        int start = src.position();
+        if (src.remaining() < BINARY_HEADER_BYTES || getInt(src, start) != BINARY_MAGIC)
+            throw new IllegalArgumentException("Error: Not a binary fox hound game!");
+        if (src.get(start + 4) != BINARY_VERSION)
+            throw new IllegalArgumentException("Error: Unsupported binary game version " + src.get(start + 4) + "!");
+        int dim = src.get(start + 5);
+        int size = binarySize(dim);
+        if (src.remaining() < size)
+            throw new IllegalArgumentException("Error: Binary game is truncated!");
+        int end = start + size - CHECKSUM_BYTES;
+        if (checksum.of(start, end) != getInt(src, end))
+            throw new IllegalArgumentException("Error: Checksum of binary game does not match!");
+        int hounds = dim / 2;
+        int offset = start + BINARY_HEADER_BYTES;
+        int fox = getShort(src, offset + 2 * hounds);
+        FoxHoundPosition position = new FoxHoundPosition(dim, fox);
+        FoxHoundTables tables = position.tables();
+        if (!lightSquares && !tables.isDark(fox))
+            throw new IllegalArgumentException("Error: Fox on a light square in binary game!");
+        position.setTurn((char) src.get(start + 6));
+        int previous = -1;
+        for (int i = 0; i < hounds; ++i, offset += 2) {
+            int square = getShort(src, offset);
+            // ascending order also rules out two hounds on one square
+            if (square <= previous || square >= dim * dim || square == fox || !lightSquares && !tables.isDark(square))
+                throw new IllegalArgumentException("Error: Invalid hound square in binary game!");
+            position.addHound(square);
+            previous = square;
+        }
+        src.position(start + size);
+        return position;
+    }
+
+    /**
+     * Saves the game to the file in the binary format.
+     *
+     * @param position the position to save, including the figure to move
+     * @param saveFile a path to the file where the game is to be saved
+     * @return a boolean value indicating whether the game has been saved or not
+     * @throws IllegalArgumentException if the number of hounds does not match the dimension
+     * @throws NullPointerException     if the given path or position is null
+     */
+    public static boolean saveBinaryGame(FoxHoundPosition position, Path saveFile) {
+        if (position == null)
+            throw new NullPointerException("Error: Position cannot be empty!");
+        if (saveFile == null)
+            throw new NullPointerException("Error: File name cannot be empty!");
+        ByteBuffer buffer = ByteBuffer.allocate(binarySize(position.dimension()));
+        writeBinary(position, buffer);
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(saveFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        } catch (IOException e) {
+            System.err.println("Error: IO Exception!");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Loads a game saved in the binary format.
+     *
+     * @param input a path to the file to be loaded
+     * @return the loaded position, null if the file fails to load
+     * @throws NullPointerException if the given path is null
+     */
+    public static FoxHoundPosition loadBinaryGame(Path input) {
+        if (input == null)
+            throw new NullPointerException("Error: File name cannot be empty!");
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(input));
+            FoxHoundPosition position = readBinary(buffer);
+            return buffer.hasRemaining() ? null : position; // a game file holds a single record
+        } catch (IOException e) {
+            System.err.println("Error: File not found!");
+            return null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param input a path to a file
+     * @return true if the file starts like a binary game
+     * @throws NullPointerException if the given path is null
+     */
+    public static boolean isBinaryGame(Path input) {
+        if (input == null)
+            throw new NullPointerException("Error: File name cannot be empty!");
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) ;
+            return !magic.hasRemaining() && getInt(magic, 0) == BINARY_MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Saves many positions to one file as consecutive binary game records.
+     *
+     * @param positions the positions to save
+     * @param file      a path to the file, replaced if it exists
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if the number of hounds of a position does not match its dimension
+     * @throws NullPointerException     if the given path, collection or one of the positions is null
+     */
+    public static void savePositions(Iterable<FoxHoundPosition> positions, Path file) throws IOException {
+        if (positions == null)
+            throw new NullPointerException("Error: Positions cannot be empty!");
+        if (file == null)
+            throw new NullPointerException("Error: File name cannot be empty!");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BULK_BUFFER_BYTES);
+        Checksum checksum = new Checksum(buffer);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (FoxHoundPosition position : positions) {
+                if (position == null)
+                    throw new NullPointerException("Error: Position cannot be empty!");
+                if (buffer.remaining() < binarySize(position.dimension()))
+                    flush(buffer, channel);
+                writeBinary(position, buffer, checksum);
+            }
+            flush(buffer, channel);
+        }
+    }
+
+    /**
+     * Loads all positions of a file written by {@link #savePositions}. The
+     * file is mapped into memory and decoded record by record.
+     *
+     * @param file a path to the file
+     * @return the positions in file order
+     * @throws IOException              if the file cannot be read or is larger than 2 GB
+     * @throws IllegalArgumentException if a record is truncated, corrupt or describes an invalid game
+     * @throws NullPointerException     if the given path is null
+     */
+    public static List<FoxHoundPosition> loadPositions(Path file) throws IOException {
+        if (file == null)
+            throw new NullPointerException("Error: File name cannot be empty!");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("Error: File is too large to be loaded at once!");
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            List<FoxHoundPosition> positions = new ArrayList<>();
+            Checksum checksum = new Checksum(buffer);
+            while (buffer.hasRemaining())
+                positions.add(readBinary(buffer, checksum, false));
+            return positions;
+        }
+    }
+
+    private static void flush(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    // a CRC-32 and a view of one buffer, reused for all records of a bulk load or save
+    private static final class Checksum {
+        private final CRC32 crc = new CRC32();
+        private final ByteBuffer view;
+
+        Checksum(ByteBuffer buffer) {
+            view = buffer.duplicate();
+        }
+
+        // CRC-32 of the bytes from start inclusive to end exclusive, leaves the buffer unchanged
+        int of(int start, int end) {
+            crc.reset();
+            crc.update(view.limit(end).position(start));
+            return (int) crc.getValue();
+        }
+    }
+
+    // absolute big endian accessors, independent of the byte order the caller set on the buffer
+
+    private static int getShort(ByteBuffer buffer, int index) {
+        return (buffer.get(index) & 0xFF) << 8 | buffer.get(index + 1) & 0xFF;
+    }
+
+    private static int getInt(ByteBuffer buffer, int index) {
+        return getShort(buffer, index) << 16 | getShort(buffer, index + 2);
+    }
+
+    private static void putShort(ByteBuffer buffer, int index, int value) {
+        buffer.put(index, (byte) (value >>> 8));
+        buffer.put(index + 1, (byte) value);
+    }
+
+    private static void putInt(ByteBuffer buffer, int index, int value) {
+        putShort(buffer, index, value >>> 16);
+        putShort(buffer, index + 2, value);
+    }
 }
@@ -1,8 +1,13 @@
 import java.io.File;
 import java.io.UncheckedIOException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -172,4 +177,108 @@ public class FoxHoundIOBasicTest {
         Path saveFile = getTmpPath();
         FoxHoundIO.saveGame(players, nextMove, saveFile);
     }
+
+    // ------------------------- binary format --------------------
+
+    private static FoxHoundPosition initialPosition(int dim) {
+        return FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+    }
+
+    @Test
+    public void testBinaryRoundTripAllDimensions() {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; ++dim) {
+            FoxHoundPosition position = initialPosition(dim);
+            position.move(position.fox(), position.fox() - dim + 1);
+            // the byte order of the buffer must not matter
+            ByteBuffer buffer = ByteBuffer.allocate(FoxHoundIO.binarySize(dim) + 3).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.position(3);
+
+            FoxHoundIO.writeBinary(position, buffer);
+            assertFalse("Record expected to fill the buffer.", buffer.hasRemaining());
+            buffer.position(3);
+            FoxHoundPosition loaded = FoxHoundIO.readBinary(buffer);
+
+            assertEquals("Loaded position not as expected for dimension " + dim + ".", position, loaded);
+            assertEquals("Loaded figure to move not as expected.", FoxHoundUtils.HOUND_FIELD, loaded.turn());
+            assertFalse("Record expected to be consumed.", buffer.hasRemaining());
+        }
+    }
+
+    @Test
+    public void testBinaryCorruptRecord() {
+        ByteBuffer buffer = ByteBuffer.allocate(FoxHoundIO.binarySize(FoxHoundUtils.DEFAULT_DIM));
+        FoxHoundIO.writeBinary(initialPosition(FoxHoundUtils.DEFAULT_DIM), buffer);
+        for (int i = 0; i < buffer.capacity(); ++i) {
+            buffer.put(i, (byte) (buffer.get(i) ^ 0x10));
+            buffer.position(0);
+            try {
+                FoxHoundIO.readBinary(buffer);
+                fail("Flipped bit in byte " + i + " expected to be detected.");
+            } catch (IllegalArgumentException e) {
+                assertEquals("Failed read expected to leave the buffer unchanged.", 0, buffer.position());
+            }
+            buffer.put(i, (byte) (buffer.get(i) ^ 0x10));
+        }
+        buffer.limit(buffer.capacity() - 1);
+        try {
+            FoxHoundIO.readBinary(buffer);
+            fail("Truncated record expected to be detected.");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testBinaryLightSquares() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundPosition foxOnLight = initialPosition(dim);
+        foxOnLight.move(foxOnLight.fox(), foxOnLight.fox() - dim);
+        FoxHoundPosition houndOnLight = initialPosition(dim);
+        houndOnLight.move(FoxHoundPosition.square("B1", dim), FoxHoundPosition.square("B2", dim));
+
+        for (FoxHoundPosition position : new FoxHoundPosition[]{foxOnLight, houndOnLight}) {
+            ByteBuffer buffer = ByteBuffer.allocate(FoxHoundIO.binarySize(dim));
+            FoxHoundIO.writeBinary(position, buffer);
+            buffer.position(0);
+            try {
+                FoxHoundIO.readBinary(buffer);
+                fail("Figure on a light square expected to be rejected.");
+            } catch (IllegalArgumentException e) {
+                assertEquals("Failed read expected to leave the buffer unchanged.", 0, buffer.position());
+            }
+        }
+    }
+
+    @Test
+    public void testBinaryGameFile() throws IOException {
+        Path saveFile = getTmpPath();
+        FoxHoundPosition position = initialPosition(12);
+
+        assertTrue("Save expected to be successful.", FoxHoundIO.saveBinaryGame(position, saveFile));
+        assertTrue("Saved file expected to be binary.", FoxHoundIO.isBinaryGame(saveFile));
+        assertFalse("Text game not expected to be binary.", FoxHoundIO.isBinaryGame(Paths.get("game01.txt")));
+        assertEquals("Loaded position not as expected.", position, FoxHoundIO.loadBinaryGame(saveFile));
+        assertNull("Text game not expected to load.", FoxHoundIO.loadBinaryGame(Paths.get("game01.txt")));
+        assertNull("Missing file not expected to load.", FoxHoundIO.loadBinaryGame(Paths.get("path/to/unlikely/file.fhg")));
+        Files.delete(saveFile);
+    }
+
+    @Test
+    public void testBulkPositions() throws IOException {
+        Path file = getTmpPath();
+        List<FoxHoundPosition> positions = new ArrayList<>();
+        // enough records of mixed dimensions to span several write buffers
+        for (int i = 0; i < 5000; ++i)
+            positions.add(initialPosition(FoxHoundUtils.MIN_DIM + i % (FoxHoundUtils.MAX_DIM - FoxHoundUtils.MIN_DIM + 1)));
+
+        FoxHoundIO.savePositions(positions, file);
+
+        assertEquals("Loaded positions not as expected.", positions, FoxHoundIO.loadPositions(file));
+        Files.delete(file);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWriteBinaryMissingHound() {
+        FoxHoundIO.writeBinary(new FoxHoundPosition(FoxHoundUtils.DEFAULT_DIM, 1), ByteBuffer.allocate(64));
+    }
 }
@@ -0,0 +1,139 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An append-only journal of the moves of fox hound games.
+ * <p>
+ * Every game starts with its start position as a binary game record of
+ * {@link FoxHoundIO}, followed by one big endian int per event: an encoded
+ * move that was played or redone, or {@link #UNDO} for a move taken back.
+ * Events are collected in a buffer and written when it fills, on
+ * {@link #flush} and on {@link #close}; with a sync interval of n the
+ * journal additionally writes and forces every n-th event to the disk, so
+ * a crash loses at most the last n - 1 events. A journal is meant for a
+ * single session and is not thread-safe. {@link FoxHoundReplay} reads it.
+ */
+public class FoxHoundJournal implements AutoCloseable {
+
+    /**
+     * Event of a move taken back.
+     */
+    public static final int UNDO = -1;
+
+    private static final int BUFFER_BYTES = 1 << 13;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final int syncInterval;
+    private int unsynced;
+
+    /**
+     * Opens a journal, appending to the file if it exists.
+     *
+     * @param file         a path to the journal file
+     * @param syncInterval number of events after which they are forced to the disk, 0 to never force
+     * @throws IOException              if the file cannot be opened
+     * @throws IllegalArgumentException if the sync interval is negative
+     * @throws NullPointerException     if the given path is null
+     */
+    public FoxHoundJournal(Path file, int syncInterval) throws IOException {
+        if (file == null)
+            throw new NullPointerException("Error: File name cannot be empty!");
+        if (syncInterval < 0)
+            throw new IllegalArgumentException("Error: Sync interval cannot be negative!");
+        this.syncInterval = syncInterval;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Starts a new game from the given position, e.g. a new or a loaded one.
+     *
+     * @param position the start position, including the figure to move
+     * @throws IOException              if writing the journal fails
+     * @throws IllegalArgumentException if the number of hounds does not match the dimension
+     * @throws NullPointerException     if the position is null
+     */
+    public void startGame(FoxHoundPosition position) throws IOException {
+        if (position == null)
+            throw new NullPointerException("Error: Position cannot be empty!");
+        if (buffer.remaining() < FoxHoundIO.binarySize(position.dimension()))
+            flush();
+        FoxHoundIO.writeBinary(position, buffer);
+        written();
+    }
+
+    /**
+     * Records a played or redone move.
+     *
+     * @param move a move encoded by {@link FoxHoundMoves#encode}
+     * @throws IOException if writing the journal fails
+     */
+    public void move(int move) throws IOException {
+        event(move);
+    }
+
+    /**
+     * Records that the last move was taken back.
+     *
+     * @throws IOException if writing the journal fails
+     */
+    public void undo() throws IOException {
+        event(UNDO);
+    }
+
+    private void event(int event) throws IOException {
+        if (buffer.remaining() < Integer.BYTES)
+            flush();
+        buffer.putInt(event);
+        written();
+    }
+
+    private void written() throws IOException {
+        if (syncInterval > 0 && ++unsynced >= syncInterval)
+            sync();
+    }
+
+    /**
+     * Writes the buffered events to the file.
+     *
+     * @throws IOException if writing the journal fails
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Writes the buffered events and forces them to the disk.
+     *
+     * @throws IOException if writing the journal fails
+     */
+    public void sync() throws IOException {
+        flush();
+        channel.force(false);
+        unsynced = 0;
+    }
+
+    /**
+     * Writes the buffered events and closes the file.
+     *
+     * @throws IOException if writing the journal fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (syncInterval > 0)
+                sync();
+            else
+                flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
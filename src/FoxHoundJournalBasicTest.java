@@ -0,0 +1,103 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FoxHoundJournalBasicTest {
+
+    private Path file;
+
+    @Before
+    public void setup() throws IOException {
+        file = Files.createTempFile("foxHoundJournal", ".fhj");
+    }
+
+    @After
+    public void teardown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private static FoxHoundPosition initialPosition(int dim) {
+        return FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+    }
+
+    private static int move(String origin, String dest, int dim) {
+        return FoxHoundMoves.encode(FoxHoundPosition.square(origin, dim), FoxHoundPosition.square(dest, dim));
+    }
+
+    @Test
+    public void testUndoneMovesLeaveTheLine() throws IOException {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        try (FoxHoundJournal journal = new FoxHoundJournal(file, 0)) {
+            journal.startGame(initialPosition(dim));
+            journal.move(move("E8", "D7", dim));
+            journal.move(move("B1", "C2", dim));
+            journal.undo();
+            journal.move(move("D1", "E2", dim));
+            journal.startGame(initialPosition(4));
+        }
+
+        FoxHoundReplay replay = FoxHoundReplay.load(file);
+
+        assertEquals("Number of games not as expected.", 2, replay.games());
+        assertEquals("Undone move expected to be dropped.", 2, replay.length(0));
+        assertEquals("Second move not as expected.", move("D1", "E2", dim), replay.move(0, 1));
+        assertEquals("Empty game expected.", 0, replay.length(1));
+        assertEquals("Start position not as expected.", initialPosition(4), replay.position(1, 0));
+    }
+
+    @Test
+    public void testAppendAndSync() throws IOException {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        try (FoxHoundJournal journal = new FoxHoundJournal(file, 1)) {
+            journal.startGame(initialPosition(dim));
+            journal.move(move("E8", "D7", dim));
+            // every event is on the disk right away
+            assertEquals("Journal expected to be written.",
+                    FoxHoundIO.binarySize(dim) + Integer.BYTES, Files.size(file));
+        }
+        try (FoxHoundJournal journal = new FoxHoundJournal(file, 0)) {
+            journal.startGame(initialPosition(dim));
+        }
+
+        assertEquals("Reopened journal expected to append.", 2, FoxHoundReplay.load(file).games());
+    }
+
+    @Test
+    public void testTornTailIgnored() throws IOException {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        try (FoxHoundJournal journal = new FoxHoundJournal(file, 0)) {
+            journal.startGame(initialPosition(dim));
+            journal.move(move("E8", "D7", dim));
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer torn = ByteBuffer.allocate(bytes.length + 6);
+        torn.put(bytes).putInt(FoxHoundIO.BINARY_MAGIC).put((byte) 0).put((byte) 0).flip();
+
+        FoxHoundReplay replay = FoxHoundReplay.read(torn);
+
+        assertEquals("Torn game expected to be ignored.", 1, replay.games());
+        assertEquals("Complete move expected to be kept.", 1, replay.length(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalMoveRejected() throws IOException {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        try (FoxHoundJournal journal = new FoxHoundJournal(file, 0)) {
+            journal.startGame(initialPosition(dim));
+            journal.move(move("B1", "C2", dim)); // the fox moves first
+        }
+        FoxHoundReplay.load(file);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeSyncInterval() throws IOException {
+        new FoxHoundJournal(file, -1);
+    }
+}
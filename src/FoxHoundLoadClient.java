@@ -0,0 +1,205 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+
+/**
+ * A load generator for {@link FoxHoundServer}.
+ * <p>
+ * It opens many connections from a single selector thread. Every connection
+ * plays random legal moves, one at a time, and measures the round trip time
+ * from sending a {@code MOVE} command to receiving its reply; a decided game
+ * is replaced by a new one. The {@link #main} method prints the throughput
+ * and the 50th and 99th percentile of the round trip times.
+ */
+public class FoxHoundLoadClient {
+
+    private final InetSocketAddress address;
+    private final int connections;
+    private final int movesPerConnection;
+    private final int dim;
+
+    private long[] latencies = new long[0];
+    private int count;
+    private long elapsedNanos;
+
+    /**
+     * Creates a load generator.
+     *
+     * @param host               host name of the server
+     * @param port               port of the server
+     * @param connections        number of concurrent connections
+     * @param movesPerConnection number of moves every connection plays
+     * @param dim                size of the board of the games
+     * @throws IllegalArgumentException if a count is not positive or the dimension is invalid
+     */
+    public FoxHoundLoadClient(String host, int port, int connections, int movesPerConnection, int dim) {
+        if (connections <= 0 || movesPerConnection <= 0)
+            throw new IllegalArgumentException("Error : Number of connections and moves has to be positive!");
+        FoxHoundPosition.checkDimension(dim);
+        this.address = new InetSocketAddress(host, port);
+        this.connections = connections;
+        this.movesPerConnection = movesPerConnection;
+        this.dim = dim;
+    }
+
+    /**
+     * Connects and plays until every connection played its moves.
+     *
+     * @throws IOException if a connection fails
+     */
+    public void run() throws IOException {
+        latencies = new long[connections * movesPerConnection];
+        count = 0;
+        long start = System.nanoTime();
+        try (Selector selector = Selector.open()) {
+            for (int i = 0; i < connections; ++i) {
+                SocketChannel channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                channel.connect(address);
+                channel.register(selector, SelectionKey.OP_CONNECT, new Player(i));
+            }
+            int finished = 0;
+            while (finished < connections) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    SocketChannel channel = (SocketChannel) key.channel();
+                    Player player = (Player) key.attachment();
+                    if (key.isConnectable()) {
+                        channel.finishConnect();
+                        player.send(channel, "NEW " + dim, false);
+                        key.interestOps(SelectionKey.OP_READ);
+                    } else if (key.isReadable()) {
+                        if (channel.read(player.in) < 0)
+                            throw new IOException("Error: Server closed the connection!");
+                        if (player.receive(channel)) {
+                            ++finished;
+                            channel.close();
+                        }
+                    }
+                }
+            }
+        }
+        elapsedNanos = System.nanoTime() - start;
+        Arrays.sort(latencies, 0, count);
+    }
+
+    /**
+     * @return number of moves whose round trip was measured
+     */
+    public int moves() {
+        return count;
+    }
+
+    /**
+     * @return wall clock time of the run in nanoseconds
+     */
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @param percentile a percentile between 0 and 100
+     * @return round trip time of the given percentile in nanoseconds, 0 if nothing was measured
+     */
+    public long percentile(double percentile) {
+        if (count == 0)
+            return 0;
+        int index = (int) Math.ceil(percentile / 100 * count) - 1;
+        return latencies[Math.min(Math.max(index, 0), count - 1)];
+    }
+
+    // one connection playing random moves against itself
+    private final class Player {
+
+        final ByteBuffer in = ByteBuffer.allocate(FoxHoundServer.MAX_LINE);
+        private final SplittableRandom random;
+        private final int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+        private FoxHoundPosition position;
+        private int played;
+        private long sentAt;
+        private boolean timed;
+
+        Player(int index) {
+            random = new SplittableRandom(index);
+        }
+
+        void send(SocketChannel channel, String line, boolean timed) throws IOException {
+            ByteBuffer out = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.US_ASCII));
+            this.timed = timed;
+            sentAt = System.nanoTime();
+            // replies are short and one command is in flight, the socket buffer always takes it
+            while (out.hasRemaining())
+                channel.write(out);
+        }
+
+        // handles a reply if it is complete, true once all moves are played
+        boolean receive(SocketChannel channel) throws IOException {
+            int end = -1;
+            for (int i = 0; i < in.position(); ++i)
+                if (in.get(i) == '\n') {
+                    end = i;
+                    break;
+                }
+            if (end < 0)
+                return false;
+            String reply = new String(in.array(), 0, end, StandardCharsets.US_ASCII);
+            in.clear();
+            if (!reply.startsWith("OK"))
+                throw new IOException("Error: Unexpected reply " + reply);
+            if (timed) {
+                latencies[count++] = System.nanoTime() - sentAt;
+                ++played;
+            } else {
+                position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+            }
+            if (played == movesPerConnection)
+                return true;
+            if (timed && !reply.endsWith(" PLAY")) {
+                send(channel, "NEW " + dim, false); // the game is decided
+                return false;
+            }
+            int legal = FoxHoundMoves.generate(position, position.turn(), moves);
+            int move = moves[random.nextInt(legal)];
+            int origin = FoxHoundMoves.origin(move), dest = FoxHoundMoves.dest(move);
+            position.move(origin, dest);
+            send(channel, "MOVE " + FoxHoundPosition.coordinate(origin, dim) + " "
+                    + FoxHoundPosition.coordinate(dest, dim), true);
+            return false;
+        }
+    }
+
+    /**
+     * Runs a load test and prints the results.
+     *
+     * @param args host, port and optionally the number of connections, moves per connection and dimension
+     * @throws IOException if a connection fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: FoxHoundLoadClient <host> <port> [connections] [moves] [dimension]");
+            return;
+        }
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int moves = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+        int dim = args.length > 4 ? Integer.parseInt(args[4]) : FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundLoadClient client = new FoxHoundLoadClient(args[0], Integer.parseInt(args[1]), connections, moves, dim);
+
+        client.run();
+
+        System.out.printf("%d connections, %d moves in %.2f s, %.0f moves/s%n", connections, client.moves(),
+                client.elapsedNanos() / 1e9, client.moves() * 1e9 / client.elapsedNanos());
+        System.out.printf("round trip p50 %.1f us, p99 %.1f us, max %.1f us%n", client.percentile(50) / 1e3,
+                client.percentile(99) / 1e3, client.percentile(100) / 1e3);
+    }
+}
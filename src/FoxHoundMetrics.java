@@ -0,0 +1,340 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+/**
+ * A registry of named counters and latency histograms describing where the
+ * program spends its time.
+ * <p>
+ * Counters are {@link LongAdder}s and histograms are
+ * {@link FoxHoundHistogram}s, so recording is a few uncontended adds and
+ * cheap enough to leave on. Callers look a metric up once, keep it in a
+ * field and record into it directly; the registry itself is only used to
+ * create metrics and to read them.
+ * <p>
+ * The registry can be published as a JMX MBean, where every counter is an
+ * attribute of its own name and every histogram adds the attributes
+ * {@code <name>Count}, {@code <name>MeanNanos}, {@code <name>P50Nanos},
+ * {@code <name>P99Nanos} and {@code <name>MaxNanos}, plus the derived
+ * {@value #NODES_PER_SECOND} and {@value #TABLE_HIT_RATE}. It can also be
+ * written to a text file periodically, one metric per line.
+ */
+public class FoxHoundMetrics implements DynamicMBean {
+
+    /**
+     * Histogram of the validation of a move entered by a player.
+     */
+    public static final String MOVE_VALIDATION = "moveValidation";
+    /**
+     * Histogram of the check whether a side has won.
+     */
+    public static final String WIN_DETECTION = "winDetection";
+    /**
+     * Histogram of drawing the board.
+     */
+    public static final String BOARD_RENDERING = "boardRendering";
+    /**
+     * Histogram of saving a game.
+     */
+    public static final String SAVE = "save";
+    /**
+     * Histogram of loading a game.
+     */
+    public static final String LOAD = "load";
+    /**
+     * Histogram of the searches of the computer player.
+     */
+    public static final String SEARCH = "search";
+    /**
+     * Counter of the nodes visited by the searches.
+     */
+    public static final String SEARCH_NODES = "searchNodes";
+    /**
+     * Counter of transposition table probes by the searches.
+     */
+    public static final String TABLE_PROBES = "tableProbes";
+    /**
+     * Counter of transposition table probes that found their position.
+     */
+    public static final String TABLE_HITS = "tableHits";
+    /**
+     * Attribute of the search nodes per second of search time.
+     */
+    public static final String NODES_PER_SECOND = "nodesPerSecond";
+    /**
+     * Attribute of the share of table probes that found their position.
+     */
+    public static final String TABLE_HIT_RATE = "tableHitRate";
+
+    /**
+     * Name the global registry is published under.
+     */
+    public static final String OBJECT_NAME = "FoxHound:type=Metrics";
+
+    private static final FoxHoundMetrics GLOBAL = new FoxHoundMetrics();
+
+    private static final String[] HISTOGRAM_SUFFIXES = {"Count", "MeanNanos", "P50Nanos", "P99Nanos", "MaxNanos"};
+
+    // sorted, so that attributes and dumps list the metrics in a stable order
+    private final Map<String, LongAdder> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, FoxHoundHistogram> histograms = new ConcurrentSkipListMap<>();
+    private ScheduledExecutorService dumper;
+
+    /**
+     * Creates an empty registry. The program records into {@link #global()}.
+     */
+    public FoxHoundMetrics() {
+    }
+
+    /**
+     * @return the registry shared by the whole program
+     */
+    public static FoxHoundMetrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Returns the counter of the given name, creating it on first use.
+     *
+     * @param name name of the counter
+     * @return the counter
+     * @throws IllegalArgumentException if a histogram has the name
+     * @throws NullPointerException     if the name is null
+     */
+    public LongAdder counter(String name) {
+        if (histograms.containsKey(name))
+            throw new IllegalArgumentException("Error : Metric " + name + " is a histogram!");
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Returns the histogram of the given name, creating it on first use.
+     *
+     * @param name name of the histogram
+     * @return the histogram
+     * @throws IllegalArgumentException if a counter has the name
+     * @throws NullPointerException     if the name is null
+     */
+    public FoxHoundHistogram histogram(String name) {
+        if (counters.containsKey(name))
+            throw new IllegalArgumentException("Error : Metric " + name + " is a counter!");
+        return histograms.computeIfAbsent(name, key -> new FoxHoundHistogram());
+    }
+
+    /**
+     * @return search nodes per second of search time, 0 before the first search
+     */
+    public long nodesPerSecond() {
+        FoxHoundHistogram search = histograms.get(SEARCH);
+        LongAdder nodes = counters.get(SEARCH_NODES);
+        long nanos = search == null ? 0 : search.sum();
+        return nanos == 0 || nodes == null ? 0 : (long) (nodes.sum() * 1e9 / nanos);
+    }
+
+    /**
+     * @return share of table probes that found their position, 0 before the first probe
+     */
+    public double tableHitRate() {
+        LongAdder probes = counters.get(TABLE_PROBES), hits = counters.get(TABLE_HITS);
+        long total = probes == null ? 0 : probes.sum();
+        return total == 0 || hits == null ? 0 : (double) hits.sum() / total;
+    }
+
+    /**
+     * Clears all counters and histograms.
+     */
+    public void reset() {
+        counters.values().forEach(LongAdder::reset);
+        histograms.values().forEach(FoxHoundHistogram::reset);
+    }
+
+    /**
+     * Writes every metric as a line {@code name value}, histograms with
+     * count, mean, 50th and 99th percentile and maximum in nanoseconds.
+     *
+     * @return the metrics as text
+     */
+    public String dump() {
+        StringBuilder text = new StringBuilder();
+        counters.forEach((name, counter) -> text.append(name).append(' ').append(counter.sum()).append('\n'));
+        histograms.forEach((name, histogram) -> text.append(name)
+                .append(" count=").append(histogram.count())
+                .append(" mean=").append(Math.round(histogram.mean()))
+                .append(" p50=").append(histogram.percentile(50))
+                .append(" p99=").append(histogram.percentile(99))
+                .append(" max=").append(histogram.max()).append('\n'));
+        text.append(NODES_PER_SECOND).append(' ').append(nodesPerSecond()).append('\n');
+        text.append(TABLE_HIT_RATE).append(' ').append(tableHitRate()).append('\n');
+        return text.toString();
+    }
+
+    /**
+     * Writes {@link #dump()} to the given file every period from a daemon
+     * thread, replacing the earlier content, until {@link #stopDumping()}.
+     * A write that fails is reported on the standard error and retried in
+     * the next period.
+     *
+     * @param file         the file to write
+     * @param periodMillis time between two writes in milliseconds
+     * @throws IllegalArgumentException if the period is not positive
+     * @throws IllegalStateException    if the registry is already being dumped
+     * @throws NullPointerException     if the file is null
+     */
+    public synchronized void startDumping(Path file, long periodMillis) {
+        if (file == null)
+            throw new NullPointerException("Error : Metrics file cannot be empty!");
+        if (periodMillis <= 0)
+            throw new IllegalArgumentException("Error : Period has to be positive!");
+        if (dumper != null)
+            throw new IllegalStateException("Error : Metrics are already being dumped!");
+        dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "foxhound-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> write(file), periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // readers of the file never see a half written dump
+    private void write(Path file) {
+        try {
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(temporary, dump().getBytes(StandardCharsets.US_ASCII));
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Error: Writing the metrics to " + file + " failed!");
+        }
+    }
+
+    /**
+     * Stops the periodic writes started by {@link #startDumping}.
+     */
+    public synchronized void stopDumping() {
+        if (dumper != null)
+            dumper.shutdownNow();
+        dumper = null;
+    }
+
+    /**
+     * Publishes the global registry on the platform MBean server under
+     * {@value #OBJECT_NAME}. Publishing it again has no effect.
+     *
+     * @throws IllegalStateException if the MBean server refuses the registry
+     */
+    public static void registerMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(GLOBAL, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // published before
+        } catch (JMException e) {
+            throw new IllegalStateException("Error : Publishing the metrics failed!", e);
+        }
+    }
+
+    // ------------------------- MBean --------------------
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        if (attribute.equals(NODES_PER_SECOND))
+            return nodesPerSecond();
+        if (attribute.equals(TABLE_HIT_RATE))
+            return tableHitRate();
+        LongAdder counter = counters.get(attribute);
+        if (counter != null)
+            return counter.sum();
+        for (String suffix : HISTOGRAM_SUFFIXES) {
+            if (!attribute.endsWith(suffix))
+                continue;
+            FoxHoundHistogram histogram = histograms.get(attribute.substring(0, attribute.length() - suffix.length()));
+            if (histogram == null)
+                continue;
+            switch (suffix) {
+                case "Count":
+                    return histogram.count();
+                case "MeanNanos":
+                    return Math.round(histogram.mean());
+                case "P50Nanos":
+                    return histogram.percentile(50);
+                case "P99Nanos":
+                    return histogram.percentile(99);
+                default:
+                    return histogram.max();
+            }
+        }
+        throw new AttributeNotFoundException("Error : Unknown metric " + attribute + "!");
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            try {
+                list.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (AttributeNotFoundException e) {
+                // unknown attributes are left out of the list
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Error : Metrics are read only!");
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        if (actionName.equals("reset") && (params == null || params.length == 0)) {
+            reset();
+            return null;
+        }
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        for (String name : counters.keySet())
+            attributes.add(new MBeanAttributeInfo(name, "long", "Counter " + name, true, false, false));
+        for (String name : histograms.keySet())
+            for (String suffix : HISTOGRAM_SUFFIXES)
+                attributes.add(new MBeanAttributeInfo(name + suffix, "long", "Histogram " + name, true, false, false));
+        attributes.add(new MBeanAttributeInfo(NODES_PER_SECOND, "long", "Search nodes per second", true, false, false));
+        attributes.add(new MBeanAttributeInfo(TABLE_HIT_RATE, "double", "Share of table probes that hit",
+                true, false, false));
+        MBeanOperationInfo reset = new MBeanOperationInfo("reset", "Clears all metrics", null, "void",
+                MBeanOperationInfo.ACTION);
+        return new MBeanInfo(getClass().getName(), "Fox hound runtime metrics",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[]{reset}, null);
+    }
+}
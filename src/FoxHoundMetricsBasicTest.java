@@ -0,0 +1,135 @@
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Scanner;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+public class FoxHoundMetricsBasicTest {
+
+    // ------------------------- registry --------------------
+
+    @Test
+    public void testCountersAndHistograms() {
+        FoxHoundMetrics metrics = new FoxHoundMetrics();
+        metrics.counter("moves").add(3);
+        metrics.counter("moves").increment();
+        metrics.histogram("think").record(1000);
+
+        assertSame("Histogram expected to be created once.", metrics.histogram("think"), metrics.histogram("think"));
+        String dump = metrics.dump();
+        assertTrue("Counter expected in the dump.", dump.contains("moves 4\n"));
+        assertTrue("Histogram expected in the dump.", dump.contains("think count=1 mean=1000 p50=1000 p99=1000 max=1000\n"));
+
+        metrics.reset();
+
+        assertTrue("Counter expected to be cleared.", metrics.dump().contains("moves 0\n"));
+    }
+
+    @Test
+    public void testDerivedSearchMetrics() {
+        FoxHoundMetrics metrics = new FoxHoundMetrics();
+
+        assertEquals("No search expected to give no speed.", 0, metrics.nodesPerSecond());
+
+        metrics.histogram(FoxHoundMetrics.SEARCH).record(2_000_000_000L);
+        metrics.counter(FoxHoundMetrics.SEARCH_NODES).add(1_000_000);
+        metrics.counter(FoxHoundMetrics.TABLE_PROBES).add(400);
+        metrics.counter(FoxHoundMetrics.TABLE_HITS).add(100);
+
+        assertEquals("Nodes per second not as expected.", 500_000, metrics.nodesPerSecond());
+        assertEquals("Hit rate not as expected.", 0.25, metrics.tableHitRate(), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNameOfOtherKind() {
+        FoxHoundMetrics metrics = new FoxHoundMetrics();
+        metrics.counter("moves");
+        metrics.histogram("moves");
+    }
+
+    // ------------------------- publishing --------------------
+
+    @Test
+    public void testMBeanShowsSearches() throws Exception {
+        FoxHoundMetrics.registerMBean();
+        FoxHoundMetrics.registerMBean();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(FoxHoundMetrics.OBJECT_NAME);
+
+        // the search metrics appear once the search class is loaded
+        try (FoxHoundParallelSearch search = new FoxHoundParallelSearch(1, 10_000, new FoxHoundTranspositionTable(1))) {
+            long searches = (Long) server.getAttribute(name, FoxHoundMetrics.SEARCH + "Count");
+            long nodes = (Long) server.getAttribute(name, FoxHoundMetrics.SEARCH_NODES);
+            search.setMaxDepth(6);
+            search.bestMove(FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(8), 8),
+                    FoxHoundUtils.FOX_FIELD);
+
+            assertEquals("Search expected to be counted.", searches + 1,
+                    server.getAttribute(name, FoxHoundMetrics.SEARCH + "Count"));
+            assertTrue("Search nodes expected to be counted.",
+                    (Long) server.getAttribute(name, FoxHoundMetrics.SEARCH_NODES) > nodes);
+        }
+        assertTrue("Table probes expected to be counted.",
+                (Long) server.getAttribute(name, FoxHoundMetrics.TABLE_PROBES) > 0);
+        assertTrue("Speed expected to be positive.",
+                (Long) server.getAttribute(name, FoxHoundMetrics.NODES_PER_SECOND) > 0);
+    }
+
+    @Test
+    public void testSessionIsTimed() {
+        FoxHoundHistogram validation = FoxHoundMetrics.global().histogram(FoxHoundMetrics.MOVE_VALIDATION);
+        FoxHoundHistogram rendering = FoxHoundMetrics.global().histogram(FoxHoundMetrics.BOARD_RENDERING);
+        long validations = validation.count(), renderings = rendering.count();
+        PrintStream out = new PrintStream(new ByteArrayOutputStream());
+        // fox runs from C4 to B1 on the 4x4 board
+        String input = "1\nC4 D3\n1\nB1 A2\n1\nD3 C2\n1\nA2 B3\n1\nC2 B1\n";
+
+        new FoxHoundGameSession(4, new Scanner(new ByteArrayInputStream(input.getBytes())), out, out).run();
+
+        assertEquals("Every move expected to be validated.", validations + 5, validation.count());
+        assertEquals("Every board expected to be drawn.", renderings + 6, rendering.count());
+    }
+
+    @Test
+    public void testDumpToFile() throws Exception {
+        FoxHoundMetrics metrics = new FoxHoundMetrics();
+        metrics.counter("moves").add(7);
+        Path file = Files.createTempFile("foxHoundMetrics", ".txt");
+        Files.delete(file);
+
+        metrics.startDumping(file, 10);
+        try {
+            for (int i = 0; i < 500 && !Files.exists(file); ++i)
+                Thread.sleep(10);
+        } finally {
+            metrics.stopDumping();
+        }
+
+        assertTrue("Metrics expected in the file.",
+                new String(Files.readAllBytes(file), StandardCharsets.US_ASCII).contains("moves 7\n"));
+        Files.delete(file);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDumpingTwice() throws Exception {
+        FoxHoundMetrics metrics = new FoxHoundMetrics();
+        Path file = Files.createTempFile("foxHoundMetrics", ".txt");
+        metrics.startDumping(file, 60_000);
+        try {
+            metrics.startDumping(file, 60_000);
+        } finally {
+            metrics.stopDumping();
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * A utility class for the fox hound program.
+ * <p>
+ * It contains the legal move generator. Moves are encoded as a single int
+ * holding the origin and destination square indices, and are written into
+ * a caller supplied buffer so that generating moves never allocates.
+ */
+public class FoxHoundMoves {
+
+    /**
+     * Upper bound on the number of legal moves in any position, i.e. two
+     * forward moves for each of the {@value FoxHoundUtils#MAX_DIM} / 2 hounds.
+     */
+    public static final int MAX_MOVES = FoxHoundUtils.MAX_DIM;
+
+    private static final int SQUARE_BITS = 10;
+    private static final int SQUARE_MASK = (1 << SQUARE_BITS) - 1;
+
+    /**
+     * Encodes a move from origin to dest.
+     *
+     * @param origin square index the figure moves from
+     * @param dest   square index the figure moves to
+     * @return the encoded move
+     */
+    public static int encode(int origin, int dest) {
+        return origin << SQUARE_BITS | dest;
+    }
+
+    /**
+     * @param move an encoded move
+     * @return square index the figure moves from
+     */
+    public static int origin(int move) {
+        return move >>> SQUARE_BITS;
+    }
+
+    /**
+     * @param move an encoded move
+     * @return square index the figure moves to
+     */
+    public static int dest(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    /**
+     * Generates all legal moves of the given side. The fox moves one square
+     * diagonally in any direction, the hounds one square diagonally away from
+     * row 1, and neither may move onto an occupied square.
+     *
+     * @param position the position to generate moves for
+     * @param figure   {@link FoxHoundUtils#FOX_FIELD} for fox moves, anything else for hound moves
+     * @param moves    buffer receiving the encoded moves, at least {@link #MAX_MOVES} long
+     * @return the number of moves written into the buffer
+     * @throws NullPointerException if the position or buffer is null
+     */
+    public static int generate(FoxHoundPosition position, char figure, int[] moves) {
+        FoxHoundTables tables = position.tables();
+        int fox = position.fox();
+        int count = 0;
+        if (figure == FoxHoundUtils.FOX_FIELD) {
+            for (int i = 0, n = tables.foxTargetCount(fox); i < n; ++i) {
+                int dest = tables.foxTarget(fox, i);
+                if (!position.isHound(dest))
+                    moves[count++] = encode(fox, dest);
+            }
+        } else {
+            for (int w = 0, words = position.words(); w < words; ++w) {
+                for (long bits = position.houndWord(w); bits != 0; bits &= bits - 1) {
+                    int hound = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    for (int i = 0, n = tables.houndTargetCount(hound); i < n; ++i) {
+                        int dest = tables.houndTarget(hound, i);
+                        if (dest != fox && !position.isHound(dest))
+                            moves[count++] = encode(hound, dest);
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks if moving from origin to dest is one of the legal moves of the
+     * given side.
+     *
+     * @param position the position to check the move in
+     * @param figure   {@link FoxHoundUtils#FOX_FIELD} for a fox move, anything else for a hound move
+     * @param origin   square index the figure moves from
+     * @param dest     square index the figure moves to
+     * @return a boolean value indicating whether the move is legal or not
+     * @throws NullPointerException if the position is null
+     */
+    public static boolean isLegal(FoxHoundPosition position, char figure, int origin, int dest) {
+        int squares = position.dimension() * position.dimension();
+        if (origin < 0 || origin >= squares || dest < 0 || dest >= squares)
+            return false;
+        if (dest == position.fox() || position.isHound(dest))
+            return false;
+        FoxHoundTables tables = position.tables();
+        if (figure == FoxHoundUtils.FOX_FIELD) {
+            if (origin != position.fox())
+                return false;
+            for (int i = 0, n = tables.foxTargetCount(origin); i < n; ++i)
+                if (tables.foxTarget(origin, i) == dest)
+                    return true;
+        } else {
+            if (!position.isHound(origin))
+                return false;
+            for (int i = 0, n = tables.houndTargetCount(origin); i < n; ++i)
+                if (tables.houndTarget(origin, i) == dest)
+                    return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,93 @@
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class FoxHoundMovesBasicTest {
+
+    private int[] moves;
+
+    @Before
+    public void setup() {
+        moves = new int[FoxHoundMoves.MAX_MOVES];
+    }
+
+    private String[] generateCoordinates(String[] players, int dim, char figure) {
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(players, dim);
+        int count = FoxHoundMoves.generate(position, figure, moves);
+        String[] result = new String[count];
+        for (int i = 0; i < count; ++i)
+            result[i] = FoxHoundPosition.coordinate(FoxHoundMoves.origin(moves[i]), dim)
+                    + " " + FoxHoundPosition.coordinate(FoxHoundMoves.dest(moves[i]), dim);
+        Arrays.sort(result);
+        return result;
+    }
+
+    // ------------------------- encode --------------------
+
+    @Test
+    public void testEncodeRoundTrip() {
+        int last = FoxHoundPosition.MAX_SQUARES - 1;
+        int move = FoxHoundMoves.encode(last, 0);
+
+        assertEquals("Origin not preserved.", last, FoxHoundMoves.origin(move));
+        assertEquals("Destination not preserved.", 0, FoxHoundMoves.dest(move));
+    }
+
+    // ------------------------- generate --------------------
+
+    @Test
+    public void testGenerateDefaultPosition() {
+        String[] players = {"B1","D1","F1","H1","E8"};
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+
+        assertArrayEquals("Fox moves not as expected.",
+                new String[]{"E8 D7", "E8 F7"}, generateCoordinates(players, dim, FoxHoundUtils.FOX_FIELD));
+        assertArrayEquals("Hound moves not as expected.",
+                new String[]{"B1 A2", "B1 C2", "D1 C2", "D1 E2", "F1 E2", "F1 G2", "H1 G2"},
+                generateCoordinates(players, dim, FoxHoundUtils.HOUND_FIELD));
+    }
+
+    @Test
+    public void testGenerateBlockedSquares() {
+        String[] players = {"C4","E4","C6","E6","D5"};
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+
+        assertEquals("Trapped fox expected to have no moves.",
+                0, generateCoordinates(players, dim, FoxHoundUtils.FOX_FIELD).length);
+
+        players = new String[]{"A7","C7","B8","H1","B6"};
+        assertArrayEquals("Hounds expected neither to leave the board nor to move onto the fox.",
+                new String[]{"C7 D8", "H1 G2"}, generateCoordinates(players, dim, FoxHoundUtils.HOUND_FIELD));
+    }
+
+    @Test
+    public void testGenerateLargeBoard() {
+        int dim = FoxHoundUtils.MAX_DIM;
+        String[] players = FoxHoundUtils.initialisePositions(dim);
+
+        assertEquals("Number of hound moves on the largest board not as expected.",
+                dim - 1, generateCoordinates(players, dim, FoxHoundUtils.HOUND_FIELD).length);
+        assertArrayEquals("Fox moves on the largest board not as expected.",
+                new String[]{"M26 L25", "M26 N25"}, generateCoordinates(players, dim, FoxHoundUtils.FOX_FIELD));
+    }
+
+    // ------------------------- isLegal --------------------
+
+    @Test
+    public void testIsLegal() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(new String[]{"B1","D1","F1","H1","E8"}, dim);
+        int b1 = FoxHoundPosition.square("B1", dim);
+        int c2 = FoxHoundPosition.square("C2", dim);
+
+        assertTrue("Hound move expected to be legal.",
+                FoxHoundMoves.isLegal(position, FoxHoundUtils.HOUND_FIELD, b1, c2));
+        assertFalse("Backwards hound move expected to be illegal.",
+                FoxHoundMoves.isLegal(position, FoxHoundUtils.HOUND_FIELD, c2, b1));
+        assertFalse("Hound move expected to be illegal for the fox.",
+                FoxHoundMoves.isLegal(position, FoxHoundUtils.FOX_FIELD, b1, c2));
+    }
+}
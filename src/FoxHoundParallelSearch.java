@@ -0,0 +1,216 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A parallel computer player for the fox hound program.
+ * <p>
+ * It runs a Lazy SMP search: one {@link FoxHoundEngine} per thread searches
+ * the same position, all sharing one transposition table. The calling
+ * thread runs the main engine while helpers run on a {@link ForkJoinPool};
+ * their only communication is through the table, which lets the main
+ * engine skip the subtrees helpers have already finished. When the main
+ * engine returns, the helpers are stopped and the result of the engine that
+ * completed the deepest iteration is played.
+ * <p>
+ * Every search is recorded in {@link FoxHoundMetrics#global()}.
+ * <p>
+ * The {@link #main} method prints nodes per second and time to depth for
+ * increasing thread counts so that the scaling can be checked.
+ */
+public class FoxHoundParallelSearch implements AutoCloseable {
+
+    private static final FoxHoundHistogram SEARCHES = FoxHoundMetrics.global().histogram(FoxHoundMetrics.SEARCH);
+    private static final LongAdder NODES = FoxHoundMetrics.global().counter(FoxHoundMetrics.SEARCH_NODES);
+    private static final LongAdder TABLE_PROBES = FoxHoundMetrics.global().counter(FoxHoundMetrics.TABLE_PROBES);
+    private static final LongAdder TABLE_HITS = FoxHoundMetrics.global().counter(FoxHoundMetrics.TABLE_HITS);
+
+    private final FoxHoundEngine[] engines;
+    private final FoxHoundTranspositionTable table;
+    private final ForkJoinPool pool;
+
+    private long nodes;
+    private int completedDepth;
+    private int bestScore;
+    private long elapsedNanos;
+
+    /**
+     * Creates a parallel search with the given number of threads.
+     *
+     * @param threads        number of search threads including the calling thread
+     * @param moveTimeMillis time budget per move in milliseconds
+     * @param table          transposition table shared by all threads
+     * @throws IllegalArgumentException if the thread count or time budget is not positive
+     * @throws NullPointerException     if the table is null
+     */
+    public FoxHoundParallelSearch(int threads, long moveTimeMillis, FoxHoundTranspositionTable table) {
+        if (threads <= 0)
+            throw new IllegalArgumentException("Error : Number of search threads has to be positive!");
+        if (table == null)
+            throw new NullPointerException("Error : Transposition table cannot be empty!");
+        this.table = table;
+        engines = new FoxHoundEngine[threads];
+        for (int i = 0; i < threads; ++i)
+            engines[i] = new FoxHoundEngine(moveTimeMillis, table);
+        pool = threads > 1 ? new ForkJoinPool(threads - 1) : null;
+    }
+
+    /**
+     * Limits the depth of the iterative deepening of all threads.
+     *
+     * @param maxDepth deepest iteration to search in plies
+     * @throws IllegalArgumentException if the depth is outside of 1 to {@value FoxHoundEngine#MAX_PLY}
+     */
+    public void setMaxDepth(int maxDepth) {
+        for (FoxHoundEngine engine : engines)
+            engine.setMaxDepth(maxDepth);
+    }
+
+    /**
+     * Lets all threads score positions from a solved endgame table.
+     *
+     * @param tablebase an opened endgame table or null to search without one
+     */
+    public void setTablebase(FoxHoundTablebase tablebase) {
+        for (FoxHoundEngine engine : engines)
+            engine.setTablebase(tablebase);
+    }
+
+    /**
+     * @return number of search threads
+     */
+    public int threads() {
+        return engines.length;
+    }
+
+    /**
+     * @return number of nodes visited by all threads during the last search
+     */
+    public long nodes() {
+        return nodes;
+    }
+
+    /**
+     * @return depth of the deepest iteration finished during the last search
+     */
+    public int completedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * @return score of the last search from the point of view of the side to move
+     */
+    public int bestScore() {
+        return bestScore;
+    }
+
+    /**
+     * @return wall clock time of the last search in nanoseconds
+     */
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return nodes per second of all threads during the last search
+     */
+    public long nodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+    }
+
+    /**
+     * Searches the best move for the given side with all threads.
+     *
+     * @param position the position to search, restored before returning
+     * @param figure   {@link FoxHoundUtils#FOX_FIELD} or {@link FoxHoundUtils#HOUND_FIELD}
+     * @return the best move found, encoded as by {@link FoxHoundMoves#encode}, or {@link FoxHoundEngine#NO_MOVE}
+     * @throws IllegalArgumentException if the given figure is invalid
+     * @throws NullPointerException     if the given position is null
+     */
+    public int bestMove(FoxHoundPosition position, char figure) {
+        long start = System.nanoTime();
+        AtomicBoolean stop = new AtomicBoolean();
+        // every engine has to store into the new generation, helpers included
+        table.newSearch();
+        List<ForkJoinTask<Integer>> helpers = new ArrayList<>(engines.length - 1);
+        for (int i = 1; i < engines.length; ++i) {
+            FoxHoundEngine helper = engines[i];
+            FoxHoundPosition copy = new FoxHoundPosition(position);
+            helper.setHelper(i, stop);
+            helpers.add(pool.submit(() -> helper.bestMove(copy, figure)));
+        }
+        engines[0].setHelper(0, stop);
+        int bestMove = engines[0].bestMove(position, figure);
+        stop.set(true);
+
+        FoxHoundEngine best = engines[0];
+        nodes = best.nodes();
+        long probes = best.tableProbes(), hits = best.tableHits();
+        for (int i = 1; i < engines.length; ++i) {
+            int move = helpers.get(i - 1).join();
+            nodes += engines[i].nodes();
+            probes += engines[i].tableProbes();
+            hits += engines[i].tableHits();
+            if (move != FoxHoundEngine.NO_MOVE && engines[i].completedDepth() > best.completedDepth()) {
+                best = engines[i];
+                bestMove = move;
+            }
+        }
+        completedDepth = best.completedDepth();
+        bestScore = best.bestScore();
+        elapsedNanos = System.nanoTime() - start;
+        SEARCHES.record(elapsedNanos);
+        NODES.add(nodes);
+        TABLE_PROBES.add(probes);
+        TABLE_HITS.add(hits);
+        return bestMove;
+    }
+
+    /**
+     * Shuts down the helper threads.
+     */
+    @Override
+    public void close() {
+        if (pool != null)
+            pool.shutdownNow();
+    }
+
+    /**
+     * Prints nodes per second and time to depth of a fixed depth search
+     * from the initial position for 1, 2, 4, ... threads, always finishing
+     * with the largest thread count.
+     *
+     * @param args optional dimension, search depth, largest thread count and table size in MB
+     */
+    public static void main(String[] args) {
+        int dim = args.length > 0 ? Integer.parseInt(args[0]) : FoxHoundUtils.DEFAULT_DIM;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 18;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int sizeMb = args.length > 3 ? Integer.parseInt(args[3]) : 256;
+
+        FoxHoundTranspositionTable table = new FoxHoundTranspositionTable(sizeMb);
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+        System.out.println("dimension " + dim + ", depth " + depth + ", table " + sizeMb + " MB");
+        System.out.printf("%8s %12s %14s %14s %9s%n", "threads", "time (ms)", "nodes", "nodes/s", "speedup");
+        try (FoxHoundParallelSearch warmUp = new FoxHoundParallelSearch(1, Long.MAX_VALUE / 2_000_000, table)) {
+            warmUp.setMaxDepth(depth);
+            warmUp.bestMove(position, FoxHoundUtils.HOUND_FIELD); // let the JIT compile the search first
+        }
+        double baseline = 0;
+        for (int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(threads * 2, maxThreads) : threads + 1) {
+            table.clear();
+            try (FoxHoundParallelSearch search = new FoxHoundParallelSearch(threads, Long.MAX_VALUE / 2_000_000, table)) {
+                search.setMaxDepth(depth);
+                search.bestMove(position, FoxHoundUtils.HOUND_FIELD);
+                double millis = search.elapsedNanos() / 1e6;
+                if (threads == 1)
+                    baseline = millis;
+                System.out.printf("%8d %12.1f %14d %14d %9.2f%n", threads, millis,
+                        search.nodes(), search.nodesPerSecond(), baseline / millis);
+            }
+        }
+    }
+}
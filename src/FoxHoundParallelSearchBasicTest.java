@@ -0,0 +1,70 @@
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FoxHoundParallelSearchBasicTest {
+
+    private FoxHoundParallelSearch search;
+
+    @Before
+    public void setup() {
+        search = new FoxHoundParallelSearch(3, FoxHoundEngine.DEFAULT_MOVE_TIME, new FoxHoundTranspositionTable(4));
+    }
+
+    @After
+    public void teardown() {
+        search.close();
+    }
+
+    // ------------------------- bestMove --------------------
+
+    @Test
+    public void testBestMoveFindsTrap() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(new String[]{"C4","E4","C6","F5","D5"}, dim);
+        search.setMaxDepth(6);
+
+        int move = search.bestMove(position, FoxHoundUtils.HOUND_FIELD);
+        position.move(FoxHoundMoves.origin(move), FoxHoundMoves.dest(move));
+
+        assertTrue("Hounds expected to trap the fox.", position.isFoxTrapped());
+        assertEquals("Win expected to be reported.", FoxHoundEngine.WIN_SCORE - 1, search.bestScore());
+    }
+
+    @Test
+    public void testBestMoveRestoresPositionAndCountsAllThreads() {
+        int dim = 10;
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+        FoxHoundPosition expected = new FoxHoundPosition(position);
+        search.setMaxDepth(10);
+
+        int move = search.bestMove(position, FoxHoundUtils.FOX_FIELD);
+
+        assertEquals("Position expected to be restored after the search.", expected, position);
+        assertTrue("Returned move expected to be legal.", FoxHoundMoves.isLegal(position, FoxHoundUtils.FOX_FIELD,
+                FoxHoundMoves.origin(move), FoxHoundMoves.dest(move)));
+        assertTrue("Search expected to finish the requested depth.", search.completedDepth() >= 10);
+        assertTrue("Nodes expected to be counted.", search.nodes() > 0);
+    }
+
+    @Test
+    public void testBestMoveRespectsDeadline() {
+        int dim = FoxHoundUtils.MAX_DIM;
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+        search.close();
+        search = new FoxHoundParallelSearch(3, 100, new FoxHoundTranspositionTable(4));
+
+        search.bestMove(position, FoxHoundUtils.HOUND_FIELD);
+
+        // generous bound, a loaded machine may be slow to stop the threads
+        assertTrue("Search expected to stop close to its deadline.", search.elapsedNanos() < 2_000_000_000L);
+        assertTrue("Deadline expected to cut the search off.", search.completedDepth() < FoxHoundEngine.MAX_PLY);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidThreadCount() {
+        new FoxHoundParallelSearch(0, FoxHoundEngine.DEFAULT_MOVE_TIME, new FoxHoundTranspositionTable(1));
+    }
+}
@@ -0,0 +1,213 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts all move sequences of a given length, a check of the move
+ * generator and a measure of its speed.
+ * <p>
+ * Sequences end early where the game is decided: a fox on row 1 has won
+ * and a side without moves has lost, so neither position is expanded.
+ * {@link #divide} reports the count of every root move separately and
+ * shares the work between threads. The {@link #main} method prints these
+ * counts in a format that can be compared with an earlier run.
+ */
+public class FoxHoundPerft {
+
+    private final int[][] moves;
+
+    private FoxHoundPerft(int depth) {
+        moves = new int[Math.max(depth, 1)][FoxHoundMoves.MAX_MOVES];
+    }
+
+    /**
+     * Counts the move sequences from a position.
+     *
+     * @param position the start position, including the figure to move
+     * @param depth    number of moves of every sequence
+     * @return number of sequences
+     * @throws IllegalArgumentException if the depth is negative
+     * @throws NullPointerException     if the position is null
+     */
+    public static long perft(FoxHoundPosition position, int depth) {
+        if (position == null)
+            throw new NullPointerException("Error: Position cannot be empty!");
+        if (depth < 0)
+            throw new IllegalArgumentException("Error: Depth cannot be negative!");
+        return new FoxHoundPerft(depth).count(new FoxHoundPosition(position), depth, 0);
+    }
+
+    private long count(FoxHoundPosition position, int depth, int ply) {
+        if (depth == 0)
+            return 1;
+        if (position.isFoxHome())
+            return 0;
+        int[] buffer = moves[ply];
+        int n = FoxHoundMoves.generate(position, position.turn(), buffer);
+        if (depth == 1)
+            return n; // every move ends a sequence, no need to play it
+        long nodes = 0;
+        for (int i = 0; i < n; ++i) {
+            position.make(buffer[i]);
+            nodes += count(position, depth - 1, ply + 1);
+            position.unmake(buffer[i]);
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts the move sequences from a position per root move. Every pair
+     * of root move and reply is counted as a task of its own, so the
+     * threads are kept busy even if there are only two root moves.
+     *
+     * @param position the start position, including the figure to move
+     * @param depth    number of moves of every sequence, at least 1
+     * @param threads  number of threads counting
+     * @param roots    buffer receiving the root moves, at least {@link FoxHoundMoves#MAX_MOVES} long
+     * @return number of sequences starting with each root move, in the order of the buffer
+     * @throws IllegalArgumentException if the depth or thread count is not positive
+     * @throws InterruptedException     if interrupted while waiting for the threads
+     * @throws NullPointerException     if the position or buffer is null
+     */
+    public static long[] divide(FoxHoundPosition position, int depth, int threads, int[] roots)
+            throws InterruptedException {
+        if (position == null || roots == null)
+            throw new NullPointerException("Error: Position and move buffer cannot be empty!");
+        if (depth <= 0 || threads <= 0)
+            throw new IllegalArgumentException("Error: Depth and number of threads have to be positive!");
+        int n = position.isFoxHome() ? 0 : FoxHoundMoves.generate(position, position.turn(), roots);
+        AtomicLongArray counts = new AtomicLongArray(n);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            int[] replies = new int[FoxHoundMoves.MAX_MOVES];
+            for (int i = 0; i < n; ++i) {
+                FoxHoundPosition child = new FoxHoundPosition(position);
+                child.make(roots[i]);
+                int root = i;
+                if (depth < 3 || child.isFoxHome()) {
+                    counts.set(root, perft(child, depth - 1));
+                    continue;
+                }
+                int m = FoxHoundMoves.generate(child, child.turn(), replies);
+                for (int j = 0; j < m; ++j) {
+                    FoxHoundPosition grandchild = new FoxHoundPosition(child);
+                    grandchild.make(replies[j]);
+                    tasks.add(pool.submit(() -> counts.addAndGet(root, perft(grandchild, depth - 2))));
+                }
+            }
+            for (Future<?> task : tasks)
+                task.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        long[] result = new long[n];
+        for (int i = 0; i < n; ++i)
+            result[i] = counts.get(i);
+        return result;
+    }
+
+    // the position of a game file, binary or text, or null if it cannot be loaded
+    private static FoxHoundPosition load(Path file) {
+        if (FoxHoundIO.isBinaryGame(file))
+            return FoxHoundIO.loadBinaryGame(file);
+        String[] players = FoxHoundUtils.initialisePositions(FoxHoundUtils.DEFAULT_DIM);
+        char figure = FoxHoundIO.loadGame(players, file);
+        if (figure == '#')
+            return null;
+        FoxHoundPosition position;
+        try {
+            position = FoxHoundPosition.fromPlayers(players, FoxHoundUtils.DEFAULT_DIM);
+        } catch (IllegalArgumentException e) {
+            return null; // two figures on one square
+        }
+        position.setTurn(figure);
+        return position;
+    }
+
+    /**
+     * Counts the move sequences per root move and prints them, one line
+     * {@code origin dest count} per root move and a line {@code total count}.
+     * Given the output of an earlier run as reference, every differing line
+     * is reported and the program exits with status 1.
+     *
+     * @param args depth and optionally a dimension or game file, number of threads and reference file
+     * @throws IOException          if the reference cannot be read
+     * @throws InterruptedException if interrupted while counting
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: FoxHoundPerft <depth> [dimension | game file] [threads] [reference]");
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        FoxHoundPosition position;
+        if (args.length > 1 && !args[1].matches("\\d+")) {
+            position = load(Paths.get(args[1]));
+            if (position == null) {
+                System.err.println("Error: Loading " + args[1] + " failed!");
+                System.exit(2);
+            }
+        } else {
+            int dim = args.length > 1 ? Integer.parseInt(args[1]) : FoxHoundUtils.DEFAULT_DIM;
+            position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+        }
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        int[] roots = new int[FoxHoundMoves.MAX_MOVES];
+        long start = System.nanoTime();
+        long[] counts = divide(position, depth, threads, roots);
+        long elapsed = System.nanoTime() - start;
+
+        Map<String, String> lines = new HashMap<>();
+        List<String> order = new ArrayList<>();
+        long total = 0;
+        int dim = position.dimension();
+        for (int i = 0; i < counts.length; ++i) {
+            String move = FoxHoundPosition.coordinate(FoxHoundMoves.origin(roots[i]), dim) + " "
+                    + FoxHoundPosition.coordinate(FoxHoundMoves.dest(roots[i]), dim);
+            lines.put(move, Long.toString(counts[i]));
+            order.add(move);
+            total += counts[i];
+        }
+        lines.put("total", Long.toString(total));
+        order.add("total");
+        for (String key : order)
+            System.out.println(key + " " + lines.get(key));
+        System.err.printf("%d nodes in %.3f s, %.0f nodes/s%n", total, elapsed / 1e9, total * 1e9 / elapsed);
+
+        if (args.length > 3) {
+            int differences = 0;
+            Map<String, String> reference = new HashMap<>();
+            for (String line : Files.readAllLines(Paths.get(args[3]))) {
+                int split = line.lastIndexOf(' ');
+                if (split > 0)
+                    reference.put(line.substring(0, split), line.substring(split + 1));
+            }
+            for (String key : order)
+                if (!lines.get(key).equals(reference.get(key))) {
+                    System.out.println("DIFF " + key + " " + lines.get(key) + " reference " + reference.get(key));
+                    ++differences;
+                }
+            for (String key : reference.keySet())
+                if (!lines.containsKey(key)) {
+                    System.out.println("DIFF " + key + " missing, reference " + reference.get(key));
+                    ++differences;
+                }
+            if (differences > 0)
+                System.exit(1);
+        }
+    }
+}
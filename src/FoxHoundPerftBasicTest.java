@@ -0,0 +1,88 @@
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.junit.Test;
+
+public class FoxHoundPerftBasicTest {
+
+    private static FoxHoundPosition initialPosition(int dim) {
+        return FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+    }
+
+    // counts with the original string based rules, trying every pair of squares;
+    // those rules only follow the game on boards below 10 and for hound moves
+    // one row forward, see FoxHoundUtilsFuzzBasicTest
+    private static long naive(String[] players, int dim, char figure, int depth) {
+        if (depth == 0)
+            return 1;
+        if (FoxHoundUtilsFuzzBasicTest.Legacy.isFoxWin(players[players.length - 1]))
+            return 0;
+        char next = figure == FoxHoundUtils.FOX_FIELD ? FoxHoundUtils.HOUND_FIELD : FoxHoundUtils.FOX_FIELD;
+        long nodes = 0;
+        for (int i = 0; i < players.length; ++i) {
+            String origin = players[i];
+            int row = FoxHoundPosition.square(origin, dim) / dim;
+            for (int dest = 0; dest < dim * dim; ++dest) {
+                if (figure == FoxHoundUtils.HOUND_FIELD && dest / dim != row + 1)
+                    continue;
+                String target = FoxHoundPosition.coordinate(dest, dim);
+                if (!FoxHoundUtilsFuzzBasicTest.Legacy.isValidMove(dim, players, figure, origin, target))
+                    continue;
+                // the original rules loop forever on hounds out of board order
+                String[] moved = players.clone();
+                moved[i] = target;
+                Arrays.sort(moved, 0, moved.length - 1, Comparator.comparingInt(s -> FoxHoundPosition.square(s, dim)));
+                nodes += naive(moved, dim, next, depth - 1);
+            }
+        }
+        return nodes;
+    }
+
+    @Test
+    public void testMatchesOriginalRules() {
+        for (int dim : new int[]{4, 5, 8, 9}) {
+            for (int depth = 0; depth <= 5; ++depth)
+                assertEquals("Count not as expected for dimension " + dim + " and depth " + depth + ".",
+                        naive(FoxHoundUtils.initialisePositions(dim), dim, FoxHoundUtils.FOX_FIELD, depth),
+                        FoxHoundPerft.perft(initialPosition(dim), depth));
+        }
+    }
+
+    @Test
+    public void testDefaultBoardCounts() {
+        long[] expected = {1, 2, 14, 56, 344, 1032, 6264, 23387, 141427};
+        for (int depth = 0; depth < expected.length; ++depth)
+            assertEquals("Count not as expected for depth " + depth + ".", expected[depth],
+                    FoxHoundPerft.perft(initialPosition(FoxHoundUtils.DEFAULT_DIM), depth));
+    }
+
+    @Test
+    public void testDivideSumsUp() throws InterruptedException {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= 12; ++dim) {
+            FoxHoundPosition position = initialPosition(dim);
+            int[] roots = new int[FoxHoundMoves.MAX_MOVES];
+            long[] counts = FoxHoundPerft.divide(position, 6, 4, roots);
+            long total = 0;
+            for (int i = 0; i < counts.length; ++i) {
+                FoxHoundPosition child = new FoxHoundPosition(position);
+                child.make(roots[i]);
+                assertEquals("Count of a root move not as expected.", FoxHoundPerft.perft(child, 5), counts[i]);
+                total += counts[i];
+            }
+            assertEquals("Total not as expected for dimension " + dim + ".", FoxHoundPerft.perft(position, 6), total);
+        }
+    }
+
+    @Test
+    public void testDecidedGame() throws InterruptedException {
+        // the fox already reached row 1
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(new String[]{"B3", "D3", "B1"}, 4);
+        position.setTurn(FoxHoundUtils.HOUND_FIELD);
+
+        assertEquals("Decided game expected to have no sequences.", 0, FoxHoundPerft.perft(position, 3));
+        assertEquals("Decided game expected to have no root moves.", 0,
+                FoxHoundPerft.divide(position, 3, 2, new int[FoxHoundMoves.MAX_MOVES]).length);
+    }
+}
@@ -0,0 +1,555 @@
+import java.util.Arrays;
+
+/**
+ * A compact bitboard representation of a fox hound position.
+ * <p>
+ * Squares are numbered row by row, i.e. square {@code row * dim + column}
+ * where row 0 is board row 1 and column 0 is column A. The hounds are kept
+ * as an occupancy bit set spread over as many long words as the board needs
+ * (at most {@value #MAX_WORDS} for a {@value FoxHoundUtils#MAX_DIM} board)
+ * and the fox as a single square index. Occupancy tests, diagonal shifts and
+ * move application are all plain bit operations.
+ * <p>
+ * The position also tracks the side to move, its {@link FoxHoundZobrist}
+ * key and the key of its mirror image, all updated incrementally by every
+ * move. On boards where mirroring keeps the square colour the smaller of
+ * the two keys identifies the position and its mirror image alike, so
+ * caches store one entry for both.
+ * <p>
+ * Adapters to and from the legacy {@code String[]} players array are
+ * provided so the existing utility functions keep their signatures.
+ */
+public class FoxHoundPosition {
+
+    /**
+     * Largest number of squares on any supported board.
+     */
+    public static final int MAX_SQUARES = FoxHoundUtils.MAX_DIM * FoxHoundUtils.MAX_DIM;
+    /**
+     * Largest number of long words a bitboard can occupy.
+     */
+    public static final int MAX_WORDS = (MAX_SQUARES + 63) >>> 6;
+
+    /**
+     * Diagonal direction towards row 1 and column A.
+     */
+    public static final int UP_LEFT = 0;
+    /**
+     * Diagonal direction towards row 1 and the last column.
+     */
+    public static final int UP_RIGHT = 1;
+    /**
+     * Diagonal direction away from row 1 towards column A.
+     */
+    public static final int DOWN_LEFT = 2;
+    /**
+     * Diagonal direction away from row 1 towards the last column.
+     */
+    public static final int DOWN_RIGHT = 3;
+
+    // per dimension masks of all squares, all squares except column A
+    // and all squares except the last column
+    private static final long[][] BOARD_MASK = new long[FoxHoundUtils.MAX_DIM + 1][];
+    private static final long[][] NOT_FIRST_COLUMN = new long[FoxHoundUtils.MAX_DIM + 1][];
+    private static final long[][] NOT_LAST_COLUMN = new long[FoxHoundUtils.MAX_DIM + 1][];
+
+    static {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; ++dim) {
+            int words = wordCount(dim);
+            BOARD_MASK[dim] = new long[words];
+            NOT_FIRST_COLUMN[dim] = new long[words];
+            NOT_LAST_COLUMN[dim] = new long[words];
+            for (int sq = 0; sq < dim * dim; ++sq) {
+                long bit = 1L << sq;
+                BOARD_MASK[dim][sq >>> 6] |= bit;
+                if (sq % dim != 0)
+                    NOT_FIRST_COLUMN[dim][sq >>> 6] |= bit;
+                if (sq % dim != dim - 1)
+                    NOT_LAST_COLUMN[dim][sq >>> 6] |= bit;
+            }
+        }
+    }
+
+    private final int dim;
+    private final FoxHoundTables tables;
+    private final int words;
+    private final long[] hounds;
+    private int fox;
+    private char turn = FoxHoundUtils.FOX_FIELD;
+    private long key;
+    private long mirrorKey;
+
+    /**
+     * Creates a position with no hounds, the fox on the given square and
+     * the fox to move.
+     *
+     * @param dim size of the board
+     * @param fox square index of the fox
+     * @throws IllegalArgumentException if the given dimension or square is invalid
+     */
+    public FoxHoundPosition(int dim, int fox) {
+        checkDimension(dim);
+        if (fox < 0 || fox >= dim * dim)
+            throw new IllegalArgumentException("Error : Fox square is outside of the board!");
+        this.dim = dim;
+        this.tables = FoxHoundTables.of(dim);
+        this.words = wordCount(dim);
+        this.hounds = new long[words];
+        this.fox = fox;
+        this.key = FoxHoundZobrist.dimension(dim) ^ FoxHoundZobrist.fox(fox);
+        this.mirrorKey = FoxHoundZobrist.dimension(dim) ^ FoxHoundZobrist.fox(tables.mirror(fox));
+    }
+
+    /**
+     * Creates a copy of the given position.
+     *
+     * @param other position to copy
+     * @throws NullPointerException if the given position is null
+     */
+    public FoxHoundPosition(FoxHoundPosition other) {
+        this.dim = other.dim;
+        this.tables = other.tables;
+        this.words = other.words;
+        this.hounds = other.hounds.clone();
+        this.fox = other.fox;
+        this.turn = other.turn;
+        this.key = other.key;
+        this.mirrorKey = other.mirrorKey;
+    }
+
+    /**
+     * Number of long words a bitboard needs for the given dimension.
+     *
+     * @param dim size of the board
+     * @return number of long words covering all squares
+     */
+    public static int wordCount(int dim) {
+        return (dim * dim + 63) >>> 6;
+    }
+
+    /**
+     * Converts a board coordinate such as "B1" or "E10" into a square index.
+     *
+     * @param coordinate a string representing a board coordinate
+     * @param dim        size of the board
+     * @return the square index or -1 if the coordinate is not on the board
+     * @throws NullPointerException if the coordinate is null
+     */
+    public static int square(String coordinate, int dim) {
+        int length = coordinate.length();
+        if (length < 2 || length > 3)
+            return -1;
+        int column = coordinate.charAt(0) - 'A';
+        if (column < 0 || column >= dim)
+            return -1;
+        int row = 0;
+        for (int i = 1; i < length; ++i) {
+            int digit = coordinate.charAt(i) - '0';
+            if (digit < 0 || digit > 9)
+                return -1;
+            row = row * 10 + digit;
+        }
+        if (row < 1 || row > dim)
+            return -1;
+        return (row - 1) * dim + column;
+    }
+
+    /**
+     * Converts a square index into its board coordinate.
+     *
+     * @param square a square index
+     * @param dim    size of the board
+     * @return a string representing the board coordinate, e.g. "B1"
+     * @throws IllegalArgumentException if the square is not on the board
+     */
+    public static String coordinate(int square, int dim) {
+        if (square < 0 || square >= dim * dim)
+            throw new IllegalArgumentException("Error : Square is outside of the board!");
+        return (char) ('A' + square % dim) + Integer.toString(square / dim + 1);
+    }
+
+    /**
+     * Builds a position from the legacy players array.
+     *
+     * @param players an array containing the positions of hounds followed by the fox
+     * @param dim     size of the board
+     * @return the corresponding bitboard position
+     * @throws IllegalArgumentException if the dimension, array length or a coordinate is invalid,
+     *                                  or two figures share a square
+     * @throws NullPointerException     if player array is null
+     */
+    public static FoxHoundPosition fromPlayers(String[] players, int dim) {
+        checkDimension(dim);
+        if (players == null)
+            throw new NullPointerException("Error : Array containing positions of fox and hounds cannot be empty!");
+        if (players.length != dim / 2 + 1)
+            throw new IllegalArgumentException("Error : Length of players array does not match the dimension!");
+        FoxHoundPosition position = new FoxHoundPosition(dim, checkedSquare(players[dim / 2], dim));
+        for (int i = 0; i < dim / 2; ++i) {
+            int square = checkedSquare(players[i], dim);
+            if (position.isOccupied(square))
+                throw new IllegalArgumentException("Error : More than one figure on " + players[i] + "!");
+            position.addHound(square);
+        }
+        return position;
+    }
+
+    private static int checkedSquare(String coordinate, int dim) {
+        int square = square(coordinate, dim);
+        if (square < 0)
+            throw new IllegalArgumentException("Error : Invalid coordinate " + coordinate + "!");
+        return square;
+    }
+
+    /**
+     * Converts this position into the legacy players array, hounds in
+     * ascending square order followed by the fox.
+     *
+     * @return an array containing the positions of hounds and fox
+     */
+    public String[] toPlayers() {
+        String[] players = new String[houndCount() + 1];
+        int i = 0;
+        for (int w = 0; w < words; ++w)
+            for (long bits = hounds[w]; bits != 0; bits &= bits - 1)
+                players[i++] = coordinate((w << 6) + Long.numberOfTrailingZeros(bits), dim);
+        players[i] = coordinate(fox, dim);
+        return players;
+    }
+
+    /**
+     * @return size of the board
+     */
+    public int dimension() {
+        return dim;
+    }
+
+    /**
+     * @return the move tables of the board size
+     */
+    public FoxHoundTables tables() {
+        return tables;
+    }
+
+    /**
+     * @return number of long words used by the bitboards of this position
+     */
+    public int words() {
+        return words;
+    }
+
+    /**
+     * @return square index of the fox
+     */
+    public int fox() {
+        return fox;
+    }
+
+    /**
+     * @return {@link FoxHoundUtils#FOX_FIELD} or {@link FoxHoundUtils#HOUND_FIELD}, the side to move
+     */
+    public char turn() {
+        return turn;
+    }
+
+    /**
+     * Sets the side to move.
+     *
+     * @param figure {@link FoxHoundUtils#FOX_FIELD} or {@link FoxHoundUtils#HOUND_FIELD}
+     * @throws IllegalArgumentException if the given figure is invalid
+     */
+    public void setTurn(char figure) {
+        if (figure != FoxHoundUtils.FOX_FIELD && figure != FoxHoundUtils.HOUND_FIELD)
+            throw new IllegalArgumentException("Error : Next piece to move can either be 'F' or 'H'!");
+        if (figure != turn) {
+            key ^= FoxHoundZobrist.side();
+            mirrorKey ^= FoxHoundZobrist.side();
+        }
+        turn = figure;
+    }
+
+    /**
+     * @return the Zobrist key of this position including the side to move
+     */
+    public long key() {
+        return key;
+    }
+
+    /**
+     * @return the Zobrist key of the mirror image of this position
+     */
+    public long mirrorKey() {
+        return mirrorKey;
+    }
+
+    /**
+     * Key shared by this position and its mirror image if the board is
+     * {@link FoxHoundTables#isSymmetric() symmetric}, otherwise the key.
+     *
+     * @return the smaller of {@link #key()} and {@link #mirrorKey()} on symmetric boards
+     */
+    public long canonicalKey() {
+        return tables.isSymmetric() ? Math.min(key, mirrorKey) : key;
+    }
+
+    /**
+     * @return true if {@link #canonicalKey()} is the key of this position
+     * rather than the key of its mirror image
+     */
+    public boolean isCanonical() {
+        return !tables.isSymmetric() || key <= mirrorKey;
+    }
+
+    /**
+     * @return a new position mirrored across the middle column, with the same side to move
+     */
+    public FoxHoundPosition mirror() {
+        FoxHoundPosition mirrored = new FoxHoundPosition(dim, tables.mirror(fox));
+        for (int w = 0; w < words; ++w)
+            for (long bits = hounds[w]; bits != 0; bits &= bits - 1)
+                mirrored.addHound(tables.mirror((w << 6) + Long.numberOfTrailingZeros(bits)));
+        mirrored.setTurn(turn);
+        return mirrored;
+    }
+
+    /**
+     * Maps a position and its mirror image to the same representative.
+     *
+     * @return this position if it is canonical, otherwise its mirror image
+     */
+    public FoxHoundPosition canonical() {
+        return isCanonical() ? this : mirror();
+    }
+
+    /**
+     * @return number of hounds on the board
+     */
+    public int houndCount() {
+        int count = 0;
+        for (int w = 0; w < words; ++w)
+            count += Long.bitCount(hounds[w]);
+        return count;
+    }
+
+    /**
+     * @param w index of a bitboard word
+     * @return the hound occupancy bits of that word
+     */
+    public long houndWord(int w) {
+        return hounds[w];
+    }
+
+    /**
+     * @param square a square index on the board
+     * @return true if a hound stands on the square
+     */
+    public boolean isHound(int square) {
+        return (hounds[square >>> 6] & (1L << square)) != 0;
+    }
+
+    /**
+     * @param square a square index on the board
+     * @return true if the fox or a hound stands on the square
+     */
+    public boolean isOccupied(int square) {
+        return square == fox || isHound(square);
+    }
+
+    /**
+     * Writes the occupancy of all figures into the given bitboard.
+     *
+     * @param dst bitboard with at least {@link #words()} words
+     */
+    public void occupied(long[] dst) {
+        System.arraycopy(hounds, 0, dst, 0, words);
+        dst[fox >>> 6] |= 1L << fox;
+    }
+
+    /**
+     * Writes all empty squares of the board into the given bitboard.
+     *
+     * @param dst bitboard with at least {@link #words()} words
+     */
+    public void empty(long[] dst) {
+        long[] board = BOARD_MASK[dim];
+        for (int w = 0; w < words; ++w)
+            dst[w] = board[w] & ~hounds[w];
+        dst[fox >>> 6] &= ~(1L << fox);
+    }
+
+    /**
+     * @return true if the fox stands on row 1, i.e. the fox has won
+     */
+    public boolean isFoxHome() {
+        return fox < dim;
+    }
+
+    /**
+     * Checks if none of the at most four diagonal neighbours of the fox is
+     * free, i.e. the hounds have won.
+     *
+     * @return true if the fox cannot move
+     */
+    public boolean isFoxTrapped() {
+        for (int i = 0, n = tables.foxTargetCount(fox); i < n; ++i)
+            if (!isHound(tables.foxTarget(fox, i)))
+                return false;
+        return true;
+    }
+
+    /**
+     * Places a hound on the given square.
+     *
+     * @param square a square index on the board
+     */
+    public void addHound(int square) {
+        if (!isHound(square)) {
+            hounds[square >>> 6] |= 1L << square;
+            key ^= FoxHoundZobrist.hound(square);
+            mirrorKey ^= FoxHoundZobrist.hound(tables.mirror(square));
+        }
+    }
+
+    /**
+     * Removes the hound from the given square.
+     *
+     * @param square a square index on the board
+     */
+    public void removeHound(int square) {
+        if (isHound(square)) {
+            hounds[square >>> 6] &= ~(1L << square);
+            key ^= FoxHoundZobrist.hound(square);
+            mirrorKey ^= FoxHoundZobrist.hound(tables.mirror(square));
+        }
+    }
+
+    /**
+     * Moves the figure standing on origin to dest without any legality check
+     * and passes the turn to the other side. Applying the move (dest, origin)
+     * afterwards restores the position.
+     *
+     * @param origin square index of the figure to move
+     * @param dest   square index the figure is moved to
+     */
+    public void move(int origin, int dest) {
+        if (origin == fox) {
+            fox = dest;
+            key ^= FoxHoundZobrist.fox(origin) ^ FoxHoundZobrist.fox(dest) ^ FoxHoundZobrist.side();
+            mirrorKey ^= FoxHoundZobrist.fox(tables.mirror(origin)) ^ FoxHoundZobrist.fox(tables.mirror(dest))
+                    ^ FoxHoundZobrist.side();
+        } else {
+            hounds[origin >>> 6] &= ~(1L << origin);
+            hounds[dest >>> 6] |= 1L << dest;
+            key ^= FoxHoundZobrist.hound(origin) ^ FoxHoundZobrist.hound(dest) ^ FoxHoundZobrist.side();
+            mirrorKey ^= FoxHoundZobrist.hound(tables.mirror(origin)) ^ FoxHoundZobrist.hound(tables.mirror(dest))
+                    ^ FoxHoundZobrist.side();
+        }
+        turn = turn == FoxHoundUtils.FOX_FIELD ? FoxHoundUtils.HOUND_FIELD : FoxHoundUtils.FOX_FIELD;
+    }
+
+    /**
+     * Plays an encoded move, see {@link #move(int, int)}.
+     *
+     * @param move a move encoded by {@link FoxHoundMoves#encode}
+     */
+    public void make(int move) {
+        move(FoxHoundMoves.origin(move), FoxHoundMoves.dest(move));
+    }
+
+    /**
+     * Takes back an encoded move that was the last one played.
+     *
+     * @param move a move encoded by {@link FoxHoundMoves#encode}
+     */
+    public void unmake(int move) {
+        move(FoxHoundMoves.dest(move), FoxHoundMoves.origin(move));
+    }
+
+    /**
+     * Shifts every square of a bitboard one step in the given diagonal
+     * direction. Squares that would leave the board are dropped.
+     *
+     * @param dim       size of the board
+     * @param src       source bitboard
+     * @param dst       destination bitboard, may not be the source
+     * @param direction one of {@link #UP_LEFT}, {@link #UP_RIGHT},
+     *                  {@link #DOWN_LEFT} and {@link #DOWN_RIGHT}
+     */
+    public static void shift(int dim, long[] src, long[] dst, int direction) {
+        int words = wordCount(dim);
+        long[] columns = (direction == UP_LEFT || direction == DOWN_LEFT)
+                ? NOT_FIRST_COLUMN[dim] : NOT_LAST_COLUMN[dim];
+        switch (direction) {
+            case UP_LEFT:
+                shiftDown(src, columns, dst, words, dim + 1);
+                break;
+            case UP_RIGHT:
+                shiftDown(src, columns, dst, words, dim - 1);
+                break;
+            case DOWN_LEFT:
+                shiftUp(src, columns, dst, words, dim - 1);
+                break;
+            default:
+                shiftUp(src, columns, dst, words, dim + 1);
+        }
+        long[] board = BOARD_MASK[dim];
+        for (int w = 0; w < words; ++w)
+            dst[w] &= board[w];
+    }
+
+    // dst = (src & mask) >>> n over all words
+    private static void shiftDown(long[] src, long[] mask, long[] dst, int words, int n) {
+        int q = n >>> 6, r = n & 63;
+        for (int w = 0; w < words; ++w) {
+            int s = w + q;
+            long lo = s < words ? src[s] & mask[s] : 0;
+            long hi = s + 1 < words ? src[s + 1] & mask[s + 1] : 0;
+            dst[w] = r == 0 ? lo : (lo >>> r) | (hi << (64 - r));
+        }
+    }
+
+    // dst = (src & mask) << n over all words
+    private static void shiftUp(long[] src, long[] mask, long[] dst, int words, int n) {
+        int q = n >>> 6, r = n & 63;
+        for (int w = words - 1; w >= 0; --w) {
+            int s = w - q;
+            long hi = s >= 0 ? src[s] & mask[s] : 0;
+            long lo = s - 1 >= 0 ? src[s - 1] & mask[s - 1] : 0;
+            dst[w] = r == 0 ? hi : (hi << r) | (lo >>> (64 - r));
+        }
+    }
+
+    /**
+     * Checks the given dimension against the supported range.
+     *
+     * @param dim size of the board
+     * @throws IllegalArgumentException if the given dimension is invalid
+     */
+    static void checkDimension(int dim) {
+        if (dim < 0)
+            throw new IllegalArgumentException("Error : Dimensions cannot be a negative number!");
+        if (dim < FoxHoundUtils.MIN_DIM || dim > FoxHoundUtils.MAX_DIM)
+            throw new IllegalArgumentException("Error : Dimension should be between 4 and 26(inclusive)!");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof FoxHoundPosition))
+            return false;
+        FoxHoundPosition other = (FoxHoundPosition) o;
+        return key == other.key && dim == other.dim && fox == other.fox && turn == other.turn
+                && Arrays.equals(hounds, other.hounds);
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (key ^ (key >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return String.join(" ", toPlayers());
+    }
+}
@@ -0,0 +1,177 @@
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class FoxHoundPositionBasicTest {
+
+    private String[] defaultPlayers;
+
+    @Before
+    public void setup() {
+        defaultPlayers = new String[]{"B1","D1","F1","H1","E8"};
+    }
+
+    // ------------------------- square / coordinate --------------------
+
+    @Test
+    public void testSquareCoordinateRoundTrip() {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; ++dim)
+            for (int sq = 0; sq < dim * dim; ++sq)
+                assertEquals("Square not preserved on dimension " + dim + ".",
+                        sq, FoxHoundPosition.square(FoxHoundPosition.coordinate(sq, dim), dim));
+    }
+
+    @Test
+    public void testSquareOffBoard() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+
+        assertEquals("Column outside of the board expected to be rejected.", -1, FoxHoundPosition.square("I1", dim));
+        assertEquals("Row outside of the board expected to be rejected.", -1, FoxHoundPosition.square("A9", dim));
+        assertEquals("Row zero expected to be rejected.", -1, FoxHoundPosition.square("A0", dim));
+        assertEquals("Malformed coordinate expected to be rejected.", -1, FoxHoundPosition.square("1A", dim));
+        assertEquals("Two digit row expected to be parsed.", 9 * 26 + 4, FoxHoundPosition.square("E10", 26));
+    }
+
+    // ------------------------- fromPlayers / toPlayers --------------------
+
+    @Test
+    public void testPlayersRoundTrip() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(defaultPlayers, dim);
+
+        assertEquals("Fox square not as expected.", FoxHoundPosition.square("E8", dim), position.fox());
+        assertEquals("Number of hounds not as expected.", 4, position.houndCount());
+        assertTrue("Hound expected on B1.", position.isHound(FoxHoundPosition.square("B1", dim)));
+        assertFalse("No hound expected on C1.", position.isHound(FoxHoundPosition.square("C1", dim)));
+        assertArrayEquals("Players array not preserved.", defaultPlayers, position.toPlayers());
+
+        for (int d = FoxHoundUtils.MIN_DIM; d <= FoxHoundUtils.MAX_DIM; ++d) {
+            String[] players = FoxHoundUtils.initialisePositions(d);
+            assertArrayEquals("Initial positions not preserved on dimension " + d + ".",
+                    players, FoxHoundPosition.fromPlayers(players, d).toPlayers());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromPlayersInvalidCoordinate() {
+        String[] players = {"B1","D1","F1","X1","E8"};
+        FoxHoundPosition.fromPlayers(players, FoxHoundUtils.DEFAULT_DIM);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromPlayersDuplicateHound() {
+        String[] players = {"B1","D1","D1","H1","E8"};
+        FoxHoundPosition.fromPlayers(players, FoxHoundUtils.DEFAULT_DIM);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromPlayersFoxOnHound() {
+        String[] players = {"B1","D1","F1","H1","H1"};
+        FoxHoundPosition.fromPlayers(players, FoxHoundUtils.DEFAULT_DIM);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromPlayersWrongLength() {
+        FoxHoundPosition.fromPlayers(defaultPlayers, 10);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testFromPlayersNull() {
+        FoxHoundPosition.fromPlayers(null, FoxHoundUtils.DEFAULT_DIM);
+    }
+
+    // ------------------------- move / shift --------------------
+
+    @Test
+    public void testMoveAndUndo() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(defaultPlayers, dim);
+        FoxHoundPosition copy = new FoxHoundPosition(position);
+        int origin = FoxHoundPosition.square("D1", dim);
+        int dest = FoxHoundPosition.square("E2", dim);
+
+        position.move(origin, dest);
+
+        assertFalse("Hound expected to have left D1.", position.isHound(origin));
+        assertTrue("Hound expected to have arrived on E2.", position.isHound(dest));
+        assertNotEquals("Moved position expected to differ.", copy, position);
+
+        position.move(dest, origin);
+
+        assertEquals("Undoing the move expected to restore the position.", copy, position);
+    }
+
+    @Test
+    public void testMakeAndUnmake() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(defaultPlayers, dim);
+        FoxHoundPosition copy = new FoxHoundPosition(position);
+        int fox = FoxHoundMoves.encode(FoxHoundPosition.square("E8", dim), FoxHoundPosition.square("D7", dim));
+        int hound = FoxHoundMoves.encode(FoxHoundPosition.square("B1", dim), FoxHoundPosition.square("C2", dim));
+
+        position.make(fox);
+        position.make(hound);
+
+        assertEquals("Fox expected on D7.", FoxHoundPosition.square("D7", dim), position.fox());
+        assertEquals("Fox expected to move next.", FoxHoundUtils.FOX_FIELD, position.turn());
+
+        position.unmake(hound);
+        position.unmake(fox);
+
+        assertEquals("Unmaking the moves expected to restore the position.", copy, position);
+        assertEquals("Unmaking the moves expected to restore the key.", copy.key(), position.key());
+    }
+
+    @Test
+    public void testMirrorKeys() {
+        Random random = new Random(5);
+        int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= 11; ++dim) {
+            FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+            for (int count; (count = FoxHoundMoves.generate(position, position.turn(), moves)) > 0
+                    && !position.isFoxHome(); ) {
+                FoxHoundPosition mirror = position.mirror();
+
+                assertEquals("Mirror key not as expected.", FoxHoundZobrist.compute(mirror), position.mirrorKey());
+                assertEquals("Mirror of the mirror expected to be the position.", position, mirror.mirror());
+                if (dim % 2 == 1) {
+                    assertEquals("Mirror image expected to share the key.", position.canonicalKey(), mirror.canonicalKey());
+                    assertEquals("Canonical form expected to be shared.", position.canonical(), mirror.canonical());
+                } else {
+                    assertEquals("Even board expected to use the plain key.", position.key(), position.canonicalKey());
+                    assertSame("Even board expected to be canonical.", position, position.canonical());
+                }
+                position.make(moves[random.nextInt(count)]);
+            }
+        }
+    }
+
+    @Test
+    public void testShiftMatchesCoordinates() {
+        int[][] deltas = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; ++dim) {
+            long[] src = new long[FoxHoundPosition.wordCount(dim)];
+            long[] dst = new long[src.length];
+            for (int sq = 0; sq < dim * dim; ++sq) {
+                src[sq >>> 6] = 1L << sq;
+                for (int dir = 0; dir < deltas.length; ++dir) {
+                    FoxHoundPosition.shift(dim, src, dst, dir);
+                    int row = sq / dim + deltas[dir][0], column = sq % dim + deltas[dir][1];
+                    boolean onBoard = row >= 0 && row < dim && column >= 0 && column < dim;
+                    int bits = 0;
+                    for (long word : dst)
+                        bits += Long.bitCount(word);
+                    assertEquals("Shift result size not as expected.", onBoard ? 1 : 0, bits);
+                    if (onBoard) {
+                        int target = row * dim + column;
+                        assertTrue("Shift target not as expected.", (dst[target >>> 6] & (1L << target)) != 0);
+                    }
+                }
+                src[sq >>> 6] = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Decides games before the rules do, by flood filling bitboards.
+ * <p>
+ * Hounds only move away from row 1, so every square a hound can still reach
+ * lies in a cone starting at the hound and widening by one column per row.
+ * Row by row, with a bit per column, the union of these cones is the hounds
+ * of the row plus the cones of the row before shifted by a column either
+ * way. A fox that can walk to row 1 over squares outside all cones cannot
+ * be stopped any more: no hound can ever block its path, and as the next
+ * square of the path is always free the fox can never be trapped on the
+ * way. This covers a fox that has passed all hounds as well as gaps in the
+ * hound line that no hound can close any more. The squares the fox can walk
+ * to are filled by sweeping towards row 1 and back until nothing is added.
+ * <p>
+ * The opposite, a fox sealed off from row 1, does not decide a game: the
+ * hounds seal off the fox from the start, and as they have to move every
+ * turn a wall can be forced open. Such games are left to the rules.
+ * <p>
+ * An instance keeps scratch rows and must not be shared between threads.
+ */
+public class FoxHoundReachability {
+
+    private final int[] cone = new int[FoxHoundUtils.MAX_DIM];
+    private final int[] region = new int[FoxHoundUtils.MAX_DIM];
+
+    /**
+     * Writes per row the columns of every square a hound stands on or can
+     * still move to, ignoring that figures may block each other.
+     *
+     * @param position a position
+     * @param dst      one entry per row of the board, bit {@code c} stands for column {@code c}
+     */
+    public void houndReach(FoxHoundPosition position, int[] dst) {
+        int dim = position.dimension(), columns = (1 << dim) - 1;
+        for (int r = 0, previous = 0; r < dim; ++r) {
+            previous = houndRow(position, r) | (((previous << 1) | (previous >>> 1)) & columns);
+            dst[r] = previous;
+        }
+    }
+
+    // columns of the hounds in the given row
+    private static int houndRow(FoxHoundPosition position, int row) {
+        int dim = position.dimension(), start = row * dim, w = start >>> 6, offset = start & 63;
+        long bits = position.houndWord(w) >>> offset;
+        if (offset + dim > 64)
+            bits |= position.houndWord(w + 1) << (64 - offset);
+        return (int) bits & ((1 << dim) - 1);
+    }
+
+    /**
+     * Checks if the fox stands on row 1 or can walk there over squares that
+     * no hound can reach any more, i.e. the fox wins with correct play
+     * whatever the hounds do.
+     *
+     * @param position a position
+     * @return true if the fox can no longer be stopped
+     */
+    public boolean isFoxEscaped(FoxHoundPosition position) {
+        if (position.isFoxHome())
+            return true;
+        int dim = position.dimension(), columns = (1 << dim) - 1, fox = position.fox();
+        int row = position.tables().row(fox);
+        houndReach(position, cone);
+        for (int r = 0; r < dim; ++r)
+            region[r] = 0;
+        region[row] = 1 << (fox - row * dim);
+        // the region is connected, so its rows are those from low to high
+        int low = row, high = row;
+        while (true) {
+            boolean grew = false;
+            for (int r = high - 1; r >= 0; --r) {
+                int next = region[r + 1];
+                int added = ((next << 1) | (next >>> 1)) & columns & ~cone[r] & ~region[r];
+                if (added != 0) {
+                    region[r] |= added;
+                    low = Math.min(low, r);
+                    grew = true;
+                } else if (r < low) {
+                    break;
+                }
+            }
+            if (low == 0)
+                return true;
+            for (int r = low + 1; r < dim; ++r) {
+                int next = region[r - 1];
+                int added = ((next << 1) | (next >>> 1)) & columns & ~cone[r] & ~region[r];
+                if (added != 0) {
+                    region[r] |= added;
+                    high = Math.max(high, r);
+                    grew = true;
+                } else if (r > high) {
+                    break;
+                }
+            }
+            if (!grew)
+                return false;
+        }
+    }
+}
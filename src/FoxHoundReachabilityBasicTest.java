@@ -0,0 +1,111 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FoxHoundReachabilityBasicTest {
+
+    private static FoxHoundPosition position(String... players) {
+        return FoxHoundPosition.fromPlayers(players, FoxHoundUtils.DEFAULT_DIM);
+    }
+
+    // ------------------------- hound reach --------------------
+
+    @Test
+    public void testHoundReachMatchesCones() {
+        Random random = new Random(5);
+        int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+        int[] reach = new int[FoxHoundUtils.MAX_DIM];
+        FoxHoundReachability reachability = new FoxHoundReachability();
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; ++dim) {
+            FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+            for (int count; (count = FoxHoundMoves.generate(position, position.turn(), moves)) > 0
+                    && !position.isFoxHome(); ) {
+                reachability.houndReach(position, reach);
+                String[] players = position.toPlayers();
+                int[] hounds = new int[players.length - 1];
+                for (int i = 0; i < hounds.length; ++i)
+                    hounds[i] = FoxHoundPosition.square(players[i], dim);
+                for (int sq = 0; sq < dim * dim; ++sq) {
+                    int row = sq / dim, column = sq % dim;
+                    boolean expected = false;
+                    for (int hound : hounds)
+                        expected |= row >= hound / dim
+                                && Math.abs(column - hound % dim) <= row - hound / dim
+                                && (row + column + hound / dim + hound % dim) % 2 == 0;
+                    if (expected != ((reach[row] & (1 << column)) != 0))
+                        fail("Reach of " + FoxHoundPosition.coordinate(sq, dim) + " not as expected for "
+                                + position + ".");
+                }
+                int move = moves[random.nextInt(count)];
+                position.move(FoxHoundMoves.origin(move), FoxHoundMoves.dest(move));
+            }
+        }
+    }
+
+    // ------------------------- escaped fox --------------------
+
+    @Test
+    public void testPassedFoxEscapes() {
+        FoxHoundReachability reachability = new FoxHoundReachability();
+
+        assertTrue("Fox in front of all hounds expected to escape.",
+                reachability.isFoxEscaped(position("B5", "D5", "F5", "H5", "E4")));
+        assertFalse("Fox behind the hounds expected not to escape.",
+                reachability.isFoxEscaped(position("B5", "D5", "F5", "H5", "E6")));
+        assertTrue("Fox on row 1 expected to escape.",
+                reachability.isFoxEscaped(position("B5", "D5", "F5", "H5", "A1")));
+    }
+
+    @Test
+    public void testGapNoHoundCanClose() {
+        FoxHoundReachability reachability = new FoxHoundReachability();
+
+        // G4 cannot move back to G2
+        assertTrue("Fox next to the gap expected to escape.",
+                reachability.isFoxEscaped(position("A2", "C2", "E2", "G4", "F3")));
+        assertFalse("Fox the hounds can still cut off expected not to escape.",
+                reachability.isFoxEscaped(position("A2", "C2", "E2", "G4", "D5")));
+    }
+
+    @Test
+    public void testInitialPositionsUndecided() {
+        FoxHoundReachability reachability = new FoxHoundReachability();
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; ++dim)
+            assertFalse("Initial position expected to be undecided.", reachability.isFoxEscaped(
+                    FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim)));
+    }
+
+    @Test
+    public void testEscapedFoxWinsTable() throws IOException {
+        int dim = 6;
+        Path file = Files.createTempFile("foxHoundReachability", ".tb");
+        new FoxHoundTablebaseGenerator(dim, file, 1).generate();
+        FoxHoundTablebase tablebase = FoxHoundTablebase.open(file);
+        FoxHoundReachability reachability = new FoxHoundReachability();
+        Random random = new Random(3);
+        int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+        int escaped = 0;
+
+        for (int game = 0; game < 500; ++game) {
+            FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+            for (int count; (count = FoxHoundMoves.generate(position, position.turn(), moves)) > 0
+                    && !position.isFoxHome() && !position.isFoxTrapped(); ) {
+                if (reachability.isFoxEscaped(position)) {
+                    ++escaped;
+                    byte value = tablebase.probe(position, position.turn());
+                    assertEquals("Escaped fox expected to win " + position + ".",
+                            position.turn() == FoxHoundUtils.FOX_FIELD, FoxHoundTablebase.isWin(value));
+                }
+                int move = moves[random.nextInt(count)];
+                position.move(FoxHoundMoves.origin(move), FoxHoundMoves.dest(move));
+            }
+        }
+        assertTrue("Random games expected to reach escaped foxes.", escaped > 0);
+        Files.delete(file);
+    }
+}
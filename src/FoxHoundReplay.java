@@ -0,0 +1,213 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Replays the games of a {@link FoxHoundJournal}.
+ * <p>
+ * Reading a journal resolves undone moves into the line that was finally
+ * played and checks every move of it for legality. Every
+ * {@value #CHECKPOINT_INTERVAL} moves a copy of the position is kept, so
+ * the position after any move is rebuilt from the closest checkpoint with
+ * at most {@value #CHECKPOINT_INTERVAL} - 1 moves. An incomplete event at
+ * the end of the journal, as left by a crash, is ignored.
+ */
+public class FoxHoundReplay {
+
+    /**
+     * Number of moves between two kept positions.
+     */
+    public static final int CHECKPOINT_INTERVAL = 16;
+
+    private static final int MOVE_LIMIT = 1 << 20;
+
+    private final List<Game> games = new ArrayList<>();
+    private long moves;
+
+    // the line of one game and its checkpoints
+    private static final class Game {
+        final int[] moves;
+        final FoxHoundPosition[] checkpoints;
+
+        Game(int[] moves, FoxHoundPosition[] checkpoints) {
+            this.moves = moves;
+            this.checkpoints = checkpoints;
+        }
+    }
+
+    private FoxHoundReplay() {
+    }
+
+    /**
+     * Reads a journal file.
+     *
+     * @param journal a path to the journal file
+     * @return the replayed games
+     * @throws IOException              if the file cannot be read or is larger than 2 GB
+     * @throws IllegalArgumentException if the journal is corrupt or holds an illegal move
+     * @throws NullPointerException     if the given path is null
+     */
+    public static FoxHoundReplay load(Path journal) throws IOException {
+        if (journal == null)
+            throw new NullPointerException("Error: File name cannot be empty!");
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("Error: Journal is too large to be loaded at once!");
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer);
+        }
+    }
+
+    /**
+     * Reads a journal from the position of the buffer to its limit.
+     *
+     * @param journal buffer holding the journal
+     * @return the replayed games
+     * @throws IllegalArgumentException if the journal is corrupt or holds an illegal move
+     * @throws NullPointerException     if the buffer is null
+     */
+    public static FoxHoundReplay read(ByteBuffer journal) {
+        if (journal == null)
+            throw new NullPointerException("Error: Buffer cannot be empty!");
+        FoxHoundReplay replay = new FoxHoundReplay();
+        int[] line = new int[64];
+        int length = 0;
+        FoxHoundPosition start = null;
+        while (journal.remaining() >= Integer.BYTES) {
+            int event = journal.getInt(journal.position());
+            if (event == FoxHoundIO.BINARY_MAGIC) {
+                if (journal.remaining() < FoxHoundIO.binarySize(FoxHoundUtils.MIN_DIM))
+                    break; // torn start of a game
+                int dim = journal.get(journal.position() + 5);
+                if (dim >= FoxHoundUtils.MIN_DIM && dim <= FoxHoundUtils.MAX_DIM
+                        && journal.remaining() < FoxHoundIO.binarySize(dim))
+                    break;
+                if (start != null)
+                    replay.add(start, line, length);
+                start = FoxHoundIO.readBinary(journal);
+                length = 0;
+                continue;
+            }
+            if (start == null)
+                throw new IllegalArgumentException("Error: Journal does not start with a game!");
+            journal.getInt();
+            if (event == FoxHoundJournal.UNDO) {
+                if (length == 0)
+                    throw new IllegalArgumentException("Error: Journal takes back a move that was not played!");
+                --length;
+            } else {
+                if (event < 0 || event >= MOVE_LIMIT)
+                    throw new IllegalArgumentException("Error: Invalid journal event " + event + "!");
+                if (length == line.length)
+                    line = Arrays.copyOf(line, 2 * length);
+                line[length++] = event;
+            }
+        }
+        if (start != null)
+            replay.add(start, line, length);
+        return replay;
+    }
+
+    // checks the line of a game and keeps its checkpoints
+    private void add(FoxHoundPosition start, int[] line, int length) {
+        FoxHoundPosition position = new FoxHoundPosition(start);
+        FoxHoundPosition[] checkpoints = new FoxHoundPosition[length / CHECKPOINT_INTERVAL + 1];
+        for (int ply = 0; ply < length; ++ply) {
+            if (ply % CHECKPOINT_INTERVAL == 0)
+                checkpoints[ply / CHECKPOINT_INTERVAL] = ply == 0 ? start : new FoxHoundPosition(position);
+            int move = line[ply];
+            if (position.isFoxHome() || position.isFoxTrapped() || !FoxHoundMoves.isLegal(position, position.turn(),
+                    FoxHoundMoves.origin(move), FoxHoundMoves.dest(move)))
+                throw new IllegalArgumentException("Error: Illegal move " + (ply + 1) + " in game " + (games.size() + 1) + "!");
+            position.make(move);
+        }
+        if (length % CHECKPOINT_INTERVAL == 0)
+            checkpoints[length / CHECKPOINT_INTERVAL] = length == 0 ? start : position;
+        games.add(new Game(Arrays.copyOf(line, length), checkpoints));
+        moves += length;
+    }
+
+    /**
+     * @return number of games in the journal
+     */
+    public int games() {
+        return games.size();
+    }
+
+    /**
+     * @return number of moves of all games
+     */
+    public long moves() {
+        return moves;
+    }
+
+    /**
+     * @param game index of a game, starting at 0
+     * @return number of moves of the game
+     * @throws IndexOutOfBoundsException if there is no such game
+     */
+    public int length(int game) {
+        return games.get(game).moves.length;
+    }
+
+    /**
+     * @param game index of a game, starting at 0
+     * @param ply  index of a move of the game, starting at 0
+     * @return the encoded move
+     * @throws IndexOutOfBoundsException if there is no such game or move
+     */
+    public int move(int game, int ply) {
+        return games.get(game).moves[ply];
+    }
+
+    /**
+     * Rebuilds a position of a game.
+     *
+     * @param game index of a game, starting at 0
+     * @param ply  number of moves played, between 0 and {@link #length(int)}
+     * @return a new position after the given number of moves
+     * @throws IndexOutOfBoundsException if there is no such game or move
+     */
+    public FoxHoundPosition position(int game, int ply) {
+        Game g = games.get(game);
+        if (ply < 0 || ply > g.moves.length)
+            throw new IndexOutOfBoundsException("Error : Game " + game + " has no move " + ply + "!");
+        int checkpoint = ply / CHECKPOINT_INTERVAL;
+        FoxHoundPosition position = new FoxHoundPosition(g.checkpoints[checkpoint]);
+        for (int i = checkpoint * CHECKPOINT_INTERVAL; i < ply; ++i)
+            position.make(g.moves[i]);
+        return position;
+    }
+
+    /**
+     * Checks a journal and prints a summary, or the board of one of its
+     * positions.
+     *
+     * @param args journal file and optionally the index of a game and number of moves
+     * @throws IOException if the journal cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1 && args.length != 3) {
+            System.err.println("Usage: FoxHoundReplay <journal> [game ply]");
+            return;
+        }
+        long start = System.nanoTime();
+        FoxHoundReplay replay = load(Paths.get(args[0]));
+        long elapsed = System.nanoTime() - start;
+        if (args.length == 1) {
+            System.out.printf("%d games, %d moves checked in %.1f ms, %.0f games/s%n", replay.games(),
+                    replay.moves(), elapsed / 1e6, replay.games() * 1e9 / elapsed);
+            return;
+        }
+        FoxHoundPosition position = replay.position(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+        FoxHoundUI.displayBoard(position.toPlayers(), position.dimension());
+        System.out.println(position.turn() == FoxHoundUtils.FOX_FIELD ? "Fox to move" : "Hounds to move");
+    }
+}
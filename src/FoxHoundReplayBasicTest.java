@@ -0,0 +1,69 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+public class FoxHoundReplayBasicTest {
+
+    @Test
+    public void testEveryPositionOfRandomGames() throws IOException {
+        Path file = Files.createTempFile("foxHoundReplay", ".fhj");
+        SplittableRandom random = new SplittableRandom(7);
+        int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+        // positions after every move, written while the games are played
+        List<List<FoxHoundPosition>> expected = new ArrayList<>();
+        try (FoxHoundJournal journal = new FoxHoundJournal(file, 0)) {
+            for (int game = 0; game < 200; ++game) {
+                int dim = FoxHoundUtils.MIN_DIM + 2 * (game % 5);
+                FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+                List<FoxHoundPosition> line = new ArrayList<>();
+                line.add(new FoxHoundPosition(position));
+                journal.startGame(position);
+                while (!position.isFoxHome() && !position.isFoxTrapped()) {
+                    int count = FoxHoundMoves.generate(position, position.turn(), moves);
+                    if (count == 0)
+                        break;
+                    int move = moves[random.nextInt(count)];
+                    position.make(move);
+                    journal.move(move);
+                    line.add(new FoxHoundPosition(position));
+                }
+                expected.add(line);
+            }
+        }
+
+        FoxHoundReplay replay = FoxHoundReplay.load(file);
+
+        assertEquals("Number of games not as expected.", expected.size(), replay.games());
+        for (int game = 0; game < expected.size(); ++game) {
+            List<FoxHoundPosition> line = expected.get(game);
+            assertEquals("Length of game " + game + " not as expected.", line.size() - 1, replay.length(game));
+            for (int ply = 0; ply < line.size(); ++ply) {
+                FoxHoundPosition position = replay.position(game, ply);
+                assertEquals("Position " + ply + " of game " + game + " not as expected.", line.get(ply), position);
+                assertEquals("Figure to move not as expected.", line.get(ply).turn(), position.turn());
+            }
+        }
+        Files.delete(file);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testJournalWithoutGame() {
+        FoxHoundReplay.read(ByteBuffer.allocate(4));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testPositionAfterLastMove() {
+        ByteBuffer journal = ByteBuffer.allocate(64);
+        FoxHoundIO.writeBinary(FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(4), 4), journal);
+        journal.flip();
+        FoxHoundReplay.read(journal).position(0, 1);
+    }
+}
@@ -0,0 +1,396 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A non-blocking fox hound server speaking a line based text protocol.
+ * <p>
+ * One thread accepts connections and hands them to a few worker threads,
+ * each multiplexing its connections on a {@link Selector}. Every connection
+ * plays its own game and has fixed size input and output buffers: a line
+ * longer than {@value #MAX_LINE} bytes closes the connection, and while the
+ * output buffer cannot take another response the connection is not read,
+ * so a client that does not read its responses is slowed down instead of
+ * filling the server memory.
+ * <p>
+ * Commands mirror the main menu, one per line. Every reply is a single line
+ * starting with {@code OK} or {@code ERR}, where a game state is written as
+ * the dimension, the figure to move and the positions of all figures as in
+ * a save file, e.g. {@code 8 F B1 D1 F1 H1 E8}. A game counts as won by the
+ * fox as soon as it can no longer be stopped, see {@link FoxHoundReachability}.
+ * Move validation and win checks are timed in {@link FoxHoundMetrics#global()}.
+ * <pre>
+ * NEW [dim]            OK state                       start a new game
+ * MOVE origin dest     OK state PLAY|FOX_WINS|HOUNDS_WIN
+ * SAVE                 OK state                       the state to load later
+ * LOAD state           OK state                       continue a saved game
+ * EXIT                 OK BYE                         close the connection
+ * </pre>
+ */
+public class FoxHoundServer implements AutoCloseable {
+
+    private static final FoxHoundHistogram VALIDATION =
+            FoxHoundMetrics.global().histogram(FoxHoundMetrics.MOVE_VALIDATION);
+    private static final FoxHoundHistogram WIN_DETECTION =
+            FoxHoundMetrics.global().histogram(FoxHoundMetrics.WIN_DETECTION);
+
+    /**
+     * Longest accepted command line in bytes including the line break.
+     */
+    public static final int MAX_LINE = 256;
+
+    // a reply holds at most 14 coordinates, 256 bytes leave ample room
+    private static final int MAX_REPLY = 256;
+    private static final int OUTPUT_BUFFER = 16 * MAX_REPLY;
+
+    private final ServerSocketChannel server;
+    private final Worker[] workers;
+    private final Thread acceptor;
+    private final AtomicInteger connections = new AtomicInteger();
+
+    /**
+     * Starts a server.
+     *
+     * @param port    port to listen on, 0 for any free port
+     * @param threads number of worker threads
+     * @throws IOException              if the port cannot be bound
+     * @throws IllegalArgumentException if the thread count is not positive
+     */
+    public FoxHoundServer(int port, int threads) throws IOException {
+        if (threads <= 0)
+            throw new IllegalArgumentException("Error : Number of threads has to be positive!");
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(port), 1024);
+        workers = new Worker[threads];
+        for (int i = 0; i < threads; ++i) {
+            workers[i] = new Worker();
+            Thread thread = new Thread(workers[i], "foxhound-worker-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        acceptor = new Thread(this::accept, "foxhound-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * @return port the server listens on
+     */
+    public int port() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * @return number of open connections
+     */
+    public int connections() {
+        return connections.get();
+    }
+
+    private void accept() {
+        int next = 0;
+        while (server.isOpen()) {
+            try {
+                SocketChannel channel = server.accept();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                connections.incrementAndGet();
+                workers[next].register(channel);
+                next = (next + 1) % workers.length;
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                System.err.println("Error: Accepting a connection failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stops accepting connections and closes all open ones.
+     *
+     * @throws IOException if the listening socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        server.close();
+        for (Worker worker : workers)
+            worker.close();
+    }
+
+    // a selector thread serving a share of the connections
+    private final class Worker implements Runnable {
+
+        private final Selector selector;
+        private final Queue<SocketChannel> pending = new ConcurrentLinkedQueue<>();
+        private final FoxHoundReachability reachability = new FoxHoundReachability();
+        private volatile boolean running = true;
+
+        Worker() throws IOException {
+            selector = Selector.open();
+        }
+
+        void register(SocketChannel channel) {
+            pending.add(channel);
+            selector.wakeup();
+        }
+
+        void close() {
+            running = false;
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    for (SocketChannel channel; (channel = pending.poll()) != null; )
+                        channel.register(selector, SelectionKey.OP_READ, new Connection(reachability));
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        try {
+                            serve(key);
+                        } catch (IOException e) {
+                            disconnect(key);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error: Worker failed: " + e.getMessage());
+            } finally {
+                for (SelectionKey key : selector.keys())
+                    disconnect(key);
+                try {
+                    selector.close();
+                } catch (IOException ignored) {
+                    // nothing left to clean up
+                }
+            }
+        }
+
+        private void serve(SelectionKey key) throws IOException {
+            SocketChannel channel = (SocketChannel) key.channel();
+            Connection connection = (Connection) key.attachment();
+            if (key.isValid() && key.isReadable() && channel.read(connection.in) < 0) {
+                disconnect(key);
+                return;
+            }
+            boolean open = connection.process();
+            connection.out.flip();
+            channel.write(connection.out);
+            connection.out.compact();
+            if (!open && connection.out.position() == 0) {
+                disconnect(key);
+                return;
+            }
+            // read only while another reply fits, write only while something is left
+            int ops = 0;
+            if (open && connection.out.remaining() >= MAX_REPLY)
+                ops |= SelectionKey.OP_READ;
+            if (connection.out.position() > 0)
+                ops |= SelectionKey.OP_WRITE;
+            key.interestOps(ops);
+        }
+
+        private void disconnect(SelectionKey key) {
+            key.cancel();
+            if (!key.channel().isOpen())
+                return;
+            try {
+                key.channel().close();
+            } catch (IOException ignored) {
+                // already gone
+            }
+            connections.decrementAndGet();
+        }
+    }
+
+    // the game of one client and its buffers
+    private static final class Connection {
+
+        final ByteBuffer in = ByteBuffer.allocate(MAX_LINE);
+        final ByteBuffer out = ByteBuffer.allocate(OUTPUT_BUFFER);
+        private final StringBuilder reply = new StringBuilder(MAX_REPLY);
+        private final int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+        // shared by all connections of a worker
+        private final FoxHoundReachability reachability;
+        private boolean closing;
+
+        private int dim;
+        private String[] players;
+        private FoxHoundPosition position;
+        private char turn;
+        // a move reported a winner
+        private boolean decided;
+
+        Connection(FoxHoundReachability reachability) {
+            this.reachability = reachability;
+            newGame(FoxHoundUtils.DEFAULT_DIM);
+        }
+
+        private void newGame(int dim) {
+            this.dim = dim;
+            players = FoxHoundUtils.initialisePositions(dim);
+            position = FoxHoundPosition.fromPlayers(players, dim);
+            turn = FoxHoundUtils.FOX_FIELD;
+            decided = false;
+        }
+
+        // handles the complete lines that were read, false once the connection should close
+        boolean process() {
+            while (!closing && out.remaining() >= MAX_REPLY) {
+                int end = -1;
+                for (int i = 0; i < in.position(); ++i)
+                    if (in.get(i) == '\n') {
+                        end = i;
+                        break;
+                    }
+                if (end < 0) {
+                    if (!in.hasRemaining()) {
+                        write("ERR line too long");
+                        closing = true;
+                    }
+                    break;
+                }
+                String line = new String(in.array(), 0, end, StandardCharsets.US_ASCII).trim();
+                in.flip();
+                in.position(end + 1);
+                in.compact();
+                handle(line);
+            }
+            return !closing;
+        }
+
+        private void handle(String line) {
+            String[] words = line.split(" +");
+            switch (words[0].toUpperCase()) {
+                case "NEW":
+                    try {
+                        newGame(words.length > 1 ? Integer.parseInt(words[1]) : FoxHoundUtils.DEFAULT_DIM);
+                        write(state("OK"));
+                    } catch (IllegalArgumentException e) {
+                        write("ERR invalid dimension");
+                    }
+                    break;
+                case "MOVE":
+                    move(words);
+                    break;
+                case "SAVE":
+                    write(state("OK"));
+                    break;
+                case "LOAD":
+                    load(words);
+                    break;
+                case "EXIT":
+                    write("OK BYE");
+                    closing = true;
+                    break;
+                default:
+                    write("ERR unknown command");
+            }
+        }
+
+        private void move(String[] words) {
+            if (words.length != 3) {
+                write("ERR usage MOVE origin destination");
+                return;
+            }
+            if (decided || position.isFoxTrapped() || position.isFoxHome()
+                    || FoxHoundMoves.generate(position, turn, moves) == 0) {
+                write("ERR game over");
+                return;
+            }
+            boolean valid;
+            long start = System.nanoTime();
+            try {
+                valid = FoxHoundUtils.isValidMove(dim, players, turn, words[1], words[2]);
+            } catch (RuntimeException e) {
+                valid = false; // coordinates the validation cannot parse
+            }
+            VALIDATION.recordSince(start);
+            if (!valid) {
+                write("ERR invalid move");
+                return;
+            }
+            position.move(FoxHoundPosition.square(words[1], dim), FoxHoundPosition.square(words[2], dim));
+            players = position.toPlayers();
+            turn = position.turn();
+            // same rules as the engine: hounds that cannot move any more have lost
+            start = System.nanoTime();
+            String result = position.isFoxTrapped() ? "HOUNDS_WIN"
+                    : reachability.isFoxEscaped(position) || FoxHoundMoves.generate(position, turn, moves) == 0
+                    ? "FOX_WINS" : "PLAY";
+            WIN_DETECTION.recordSince(start);
+            decided = !result.equals("PLAY");
+            write(state("OK") + " " + result);
+        }
+
+        private void load(String[] words) {
+            try {
+                int dim = Integer.parseInt(words[1]);
+                FoxHoundPosition.checkDimension(dim);
+                char figure = words[2].length() == 1 ? words[2].charAt(0) : '#';
+                String[] loaded = new String[words.length - 3];
+                System.arraycopy(words, 3, loaded, 0, loaded.length);
+                // rejects a fox on a hound and two hounds on one square
+                FoxHoundPosition position = FoxHoundPosition.fromPlayers(loaded, dim);
+                for (String player : loaded)
+                    if (!position.tables().isDark(FoxHoundPosition.square(player, dim))) {
+                        write("ERR invalid game");
+                        return;
+                    }
+                position.setTurn(figure);
+                this.dim = dim;
+                this.position = position;
+                players = position.toPlayers();
+                turn = figure;
+                decided = false;
+                write(state("OK"));
+            } catch (RuntimeException e) {
+                write("ERR invalid game");
+            }
+        }
+
+        private String state(String prefix) {
+            reply.setLength(0);
+            reply.append(prefix).append(' ').append(dim).append(' ').append(turn);
+            for (String player : players)
+                reply.append(' ').append(player);
+            return reply.toString();
+        }
+
+        private void write(String line) {
+            for (int i = 0; i < line.length(); ++i)
+                out.put((byte) line.charAt(i));
+            out.put((byte) '\n');
+        }
+    }
+
+    /**
+     * Runs a server until the process is stopped.
+     *
+     * @param args optional port and number of worker threads
+     * @throws IOException          if the port cannot be bound
+     * @throws InterruptedException if interrupted while serving
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7474;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        FoxHoundServer server = new FoxHoundServer(port, threads);
+        FoxHoundMetrics.registerMBean();
+        System.out.println("Listening on port " + server.port() + " with " + threads + " workers");
+        server.acceptor.join();
+    }
+}
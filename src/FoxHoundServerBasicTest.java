@@ -0,0 +1,126 @@
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FoxHoundServerBasicTest {
+
+    private FoxHoundServer server;
+    private Socket socket;
+    private PrintWriter out;
+    private BufferedReader in;
+
+    @Before
+    public void setup() throws IOException {
+        server = new FoxHoundServer(0, 2);
+        socket = new Socket("localhost", server.port());
+        out = new PrintWriter(socket.getOutputStream(), true);
+        in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+    }
+
+    @After
+    public void teardown() throws IOException {
+        socket.close();
+        server.close();
+    }
+
+    private String send(String line) throws IOException {
+        out.println(line);
+        return in.readLine();
+    }
+
+    // ------------------------- protocol --------------------
+
+    @Test
+    public void testMoves() throws IOException {
+        assertEquals("New game not as expected.", "OK 8 F B1 D1 F1 H1 E8", send("NEW"));
+        assertEquals("Fox move not as expected.", "OK 8 H B1 D1 F1 H1 D7 PLAY", send("MOVE E8 D7"));
+        assertEquals("Hound moving backwards expected to fail.", "ERR invalid move", send("MOVE B1 A0"));
+        assertEquals("Fox cannot move for the hounds.", "ERR invalid move", send("MOVE D7 C6"));
+        assertEquals("Garbage expected to fail.", "ERR invalid move", send("MOVE ??? !!"));
+        assertEquals("Unknown command expected to fail.", "ERR unknown command", send("JUMP"));
+        assertEquals("Invalid dimension expected to fail.", "ERR invalid dimension", send("NEW 27"));
+    }
+
+    @Test
+    public void testSaveLoadAndWin() throws IOException {
+        assertEquals("Load not as expected.", "OK 4 F D1 B3 C2", send("LOAD 4 F B3 D1 C2"));
+        assertEquals("Fox expected to win.", "OK 4 H D1 B3 B1 FOX_WINS", send("MOVE C2 B1"));
+        assertEquals("Decided game expected to refuse moves.", "ERR game over", send("MOVE B3 A4"));
+        assertEquals("Save not as expected.", "OK 4 H D1 B3 B1", send("SAVE"));
+        assertEquals("Invalid game expected to fail.", "ERR invalid game", send("LOAD 4 X B3 D1 B1"));
+        assertEquals("Exit not as expected.", "OK BYE", send("EXIT"));
+        assertNull("Connection expected to be closed.", in.readLine());
+    }
+
+    @Test
+    public void testLoadRejectsImpossibleGames() throws IOException {
+        assertEquals("Fox on a hound expected to fail.", "ERR invalid game", send("LOAD 4 F B3 D1 D1"));
+        assertEquals("Two hounds on one square expected to fail.", "ERR invalid game", send("LOAD 4 F B3 B3 C2"));
+        assertEquals("Figure on a light square expected to fail.", "ERR invalid game", send("LOAD 4 F A3 D1 C2"));
+        assertEquals("Fox on a light square expected to fail.", "ERR invalid game", send("LOAD 4 F B3 D1 C3"));
+        // the game before the failed loads is kept
+        assertEquals("Game not expected to change.", "OK 8 F B1 D1 F1 H1 E8", send("SAVE"));
+        assertEquals("Moves expected to work on.", "OK 8 H B1 D1 F1 H1 D7 PLAY", send("MOVE E8 D7"));
+    }
+
+    @Test
+    public void testEscapedFoxWins() throws IOException {
+        assertEquals("Load not as expected.", "OK 8 H B5 D5 F5 H5 E6", send("LOAD 8 H B5 D5 F5 H5 E6"));
+        // no hound can close the gap at F5 any more
+        assertEquals("Fox expected to win.", "OK 8 F B5 D5 H5 G6 E6 FOX_WINS", send("MOVE F5 G6"));
+        assertEquals("Decided game expected to refuse moves.", "ERR game over", send("MOVE E6 F5"));
+    }
+
+    @Test
+    public void testLongLineClosesConnection() throws IOException {
+        char[] line = new char[2 * FoxHoundServer.MAX_LINE];
+        Arrays.fill(line, 'A');
+
+        assertEquals("Long line expected to fail.", "ERR line too long", send(new String(line)));
+        assertNull("Connection expected to be closed.", in.readLine());
+    }
+
+    @Test
+    public void testPipelinedCommandsWithBackpressure() throws Exception {
+        int commands = 5000;
+        OutputStream raw = socket.getOutputStream();
+        // the server stops reading while replies pile up, so write from another thread
+        Thread writer = new Thread(() -> {
+            try {
+                for (int i = 0; i < commands; ++i)
+                    raw.write("SAVE\n".getBytes(StandardCharsets.US_ASCII));
+                raw.flush();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        writer.start();
+        Thread.sleep(100);
+        for (int i = 0; i < commands; ++i)
+            assertEquals("Reply not as expected.", "OK 8 F B1 D1 F1 H1 E8", in.readLine());
+        writer.join();
+    }
+
+    // ------------------------- load client --------------------
+
+    @Test
+    public void testLoadClient() throws IOException {
+        FoxHoundLoadClient client = new FoxHoundLoadClient("localhost", server.port(), 50, 20, FoxHoundUtils.DEFAULT_DIM);
+
+        client.run();
+
+        assertEquals("All moves expected to be measured.", 50 * 20, client.moves());
+        assertTrue("Percentiles expected to be ordered.", client.percentile(50) <= client.percentile(99));
+    }
+}
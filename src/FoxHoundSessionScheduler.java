@@ -0,0 +1,93 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs many {@link FoxHoundGameSession}s concurrently in one JVM.
+ * <p>
+ * Every session gets a thread of its own that blocks while its player is
+ * thinking. On Java 21 and later these are virtual threads, so tens of
+ * thousands of sessions cost little more than their game state; on older
+ * runtimes the scheduler falls back to a cached pool of platform threads.
+ */
+public class FoxHoundSessionScheduler implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final boolean virtual;
+    private final AtomicInteger active = new AtomicInteger();
+
+    /**
+     * Creates a scheduler using virtual threads if the runtime supports them.
+     */
+    public FoxHoundSessionScheduler() {
+        ExecutorService virtualExecutor = newVirtualThreadExecutor();
+        this.virtual = virtualExecutor != null;
+        this.executor = virtual ? virtualExecutor : Executors.newCachedThreadPool();
+    }
+
+    // looked up at runtime so that the program still builds and runs on Java 17
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return true if the sessions run on virtual threads
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * @return number of sessions currently running
+     */
+    public int activeSessions() {
+        return active.get();
+    }
+
+    /**
+     * Starts a session.
+     *
+     * @param session the session to run
+     * @return the result of the session once it ended
+     * @throws NullPointerException if the session is null
+     */
+    public Future<FoxHoundGameSession.Result> submit(FoxHoundGameSession session) {
+        if (session == null)
+            throw new NullPointerException("Error : Session cannot be empty!");
+        active.incrementAndGet();
+        return executor.submit(() -> {
+            try {
+                return session.run();
+            } finally {
+                active.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Stops accepting sessions and waits for the running ones to end.
+     *
+     * @param timeout longest time to wait
+     * @param unit    unit of the timeout
+     * @return true if all sessions ended in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        executor.shutdown();
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * Interrupts the running sessions and stops accepting new ones.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
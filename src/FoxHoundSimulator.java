@@ -0,0 +1,364 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A headless simulator playing many fox hound games between computer
+ * policies.
+ * <p>
+ * Games are played with the rules of the game loop, starting with the fox
+ * from the initial position: a trapped fox loses, a fox on row 1 wins and
+ * hounds that cannot move any more lose. By default a game is adjudicated
+ * to the fox as soon as the fox can no longer be stopped, see
+ * {@link FoxHoundReachability}, which saves playing it out; a fox policy
+ * that would still throw such a game away is credited with the win. Games
+ * are handed out to the worker
+ * threads in chunks and every game draws its random numbers from its own
+ * seed, so the results only depend on the seed and not on the number of
+ * threads.
+ * <p>
+ * The {@link #main} method prints win rates, the distribution of game
+ * lengths and the number of games per second.
+ */
+public class FoxHoundSimulator {
+
+    /**
+     * A way of choosing moves.
+     */
+    public enum Policy {
+        /**
+         * Plays a uniformly random legal move.
+         */
+        RANDOM,
+        /**
+         * Plays an immediately winning move if there is one, otherwise the
+         * move with the best static evaluation, breaking ties at random.
+         */
+        GREEDY,
+        /**
+         * Plays the move of a fixed depth alpha-beta search.
+         */
+        SEARCH
+    }
+
+    /**
+     * Default depth of the {@link Policy#SEARCH} policy in plies.
+     */
+    public static final int DEFAULT_SEARCH_DEPTH = 4;
+    /**
+     * Default number of random plies at the start of every game.
+     */
+    public static final int DEFAULT_OPENING_PLIES = 2;
+
+    private static final int CHUNK_SIZE = 256;
+    // large enough to never end a fixed depth search early
+    private static final long SEARCH_TIME = Long.MAX_VALUE / 2_000_000;
+    private static final long SEED_STEP = 0x9E3779B97F4A7C15L;
+
+    private final int dim;
+    private final Policy foxPolicy;
+    private final Policy houndPolicy;
+    private final int threads;
+    private int searchDepth = DEFAULT_SEARCH_DEPTH;
+    private int openingPlies = DEFAULT_OPENING_PLIES;
+    private boolean adjudicate = true;
+    private long seed;
+
+    private long games;
+    private long foxWins;
+    private long[] lengths;
+    private long elapsedNanos;
+
+    /**
+     * Creates a simulator.
+     *
+     * @param dim         size of the board
+     * @param foxPolicy   policy of the fox
+     * @param houndPolicy policy of the hounds
+     * @param threads     number of threads playing games in parallel
+     * @throws IllegalArgumentException if the dimension is invalid or the thread count is not positive
+     * @throws NullPointerException     if a policy is null
+     */
+    public FoxHoundSimulator(int dim, Policy foxPolicy, Policy houndPolicy, int threads) {
+        FoxHoundPosition.checkDimension(dim);
+        if (foxPolicy == null || houndPolicy == null)
+            throw new NullPointerException("Error : Policies cannot be empty!");
+        if (threads <= 0)
+            throw new IllegalArgumentException("Error : Number of threads has to be positive!");
+        this.dim = dim;
+        this.foxPolicy = foxPolicy;
+        this.houndPolicy = houndPolicy;
+        this.threads = threads;
+        this.lengths = new long[maxLength(dim) + 1];
+    }
+
+    /**
+     * @param dim size of the board
+     * @return largest number of plies a game can last
+     */
+    static int maxLength(int dim) {
+        // every hound move advances a hound by one row and the fox moves in between
+        return 2 * (dim / 2) * (dim - 1) + 1;
+    }
+
+    /**
+     * @param searchDepth depth of the {@link Policy#SEARCH} policy in plies
+     * @throws IllegalArgumentException if the depth is outside of 1 to {@value FoxHoundEngine#MAX_PLY}
+     */
+    public void setSearchDepth(int searchDepth) {
+        if (searchDepth < 1 || searchDepth > FoxHoundEngine.MAX_PLY)
+            throw new IllegalArgumentException("Error : Search depth should be between 1 and " + FoxHoundEngine.MAX_PLY + "!");
+        this.searchDepth = searchDepth;
+    }
+
+    /**
+     * Sets the number of random plies played before the policies take over,
+     * so that deterministic policies play different games.
+     *
+     * @param openingPlies number of random plies at the start of every game
+     * @throws IllegalArgumentException if the number is negative
+     */
+    public void setOpeningPlies(int openingPlies) {
+        if (openingPlies < 0)
+            throw new IllegalArgumentException("Error : Number of opening plies cannot be negative!");
+        this.openingPlies = openingPlies;
+    }
+
+    /**
+     * Sets whether a game ends as soon as the fox can no longer be stopped
+     * instead of when the fox reaches row 1.
+     *
+     * @param adjudicate true to end decided games early
+     */
+    public void setAdjudicate(boolean adjudicate) {
+        this.adjudicate = adjudicate;
+    }
+
+    /**
+     * @param seed seed of the random numbers of all games
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Plays the given number of games, replacing the results of earlier runs.
+     *
+     * @param games number of games to play
+     * @throws IllegalArgumentException if the number of games is negative
+     */
+    public void simulate(long games) {
+        if (games < 0)
+            throw new IllegalArgumentException("Error : Number of games cannot be negative!");
+        long start = System.nanoTime();
+        AtomicLong next = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long wins = 0;
+        long[] counts = new long[maxLength(dim) + 1];
+        try {
+            List<Future<long[]>> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; ++i)
+                workers.add(pool.submit(() -> play(next, games)));
+            for (Future<long[]> worker : workers) {
+                long[] result = worker.get();
+                wins += result[0];
+                for (int length = 0; length < counts.length; ++length)
+                    counts[length] += result[length + 1];
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Error : Simulation interrupted!", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error : Simulation failed!", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        this.games = games;
+        this.foxWins = wins;
+        this.lengths = counts;
+        this.elapsedNanos = System.nanoTime() - start;
+    }
+
+    // plays chunks of games until all are taken, returns fox wins followed by the length counts
+    private long[] play(AtomicLong next, long games) {
+        long[] result = new long[maxLength(dim) + 2];
+        FoxHoundPosition initial = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+        FoxHoundEngine engine = new FoxHoundEngine(SEARCH_TIME);
+        engine.setMaxDepth(searchDepth);
+        FoxHoundEvaluator evaluator = new FoxHoundEvaluator();
+        FoxHoundReachability reachability = new FoxHoundReachability();
+        int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+        for (long first; (first = next.getAndAdd(CHUNK_SIZE)) < games; ) {
+            for (long game = first; game < Math.min(first + CHUNK_SIZE, games); ++game) {
+                FoxHoundPosition position = new FoxHoundPosition(initial);
+                SplittableRandom random = new SplittableRandom(seed + game * SEED_STEP);
+                evaluator.reset(position);
+                int ply = 0;
+                boolean foxWon;
+                while (true) {
+                    // same order of checks as the game loop
+                    if (position.isFoxTrapped()) {
+                        foxWon = false;
+                        break;
+                    }
+                    if (adjudicate ? reachability.isFoxEscaped(position) : position.isFoxHome()) {
+                        foxWon = true;
+                        break;
+                    }
+                    char side = position.turn();
+                    int count = FoxHoundMoves.generate(position, side, moves);
+                    if (count == 0) {
+                        foxWon = side == FoxHoundUtils.HOUND_FIELD;
+                        break;
+                    }
+                    Policy policy = side == FoxHoundUtils.FOX_FIELD ? foxPolicy : houndPolicy;
+                    int move = ply < openingPlies ? moves[random.nextInt(count)]
+                            : choose(policy, position, side, moves, count, random, engine, evaluator);
+                    position.move(FoxHoundMoves.origin(move), FoxHoundMoves.dest(move));
+                    evaluator.moved(FoxHoundMoves.origin(move), FoxHoundMoves.dest(move));
+                    ++ply;
+                }
+                if (foxWon)
+                    ++result[0];
+                ++result[ply + 1];
+            }
+        }
+        return result;
+    }
+
+    private static int choose(Policy policy, FoxHoundPosition position, char side, int[] moves, int count,
+                              SplittableRandom random, FoxHoundEngine engine, FoxHoundEvaluator evaluator) {
+        switch (policy) {
+            case RANDOM:
+                return moves[random.nextInt(count)];
+            case GREEDY:
+                return greedy(position, side, moves, count, random, evaluator);
+            default:
+                return engine.bestMove(position, side);
+        }
+    }
+
+    private static int greedy(FoxHoundPosition position, char side, int[] moves, int count, SplittableRandom random,
+                              FoxHoundEvaluator evaluator) {
+        int best = moves[0], bestScore = Integer.MIN_VALUE, ties = 0;
+        for (int i = 0; i < count; ++i) {
+            int origin = FoxHoundMoves.origin(moves[i]), dest = FoxHoundMoves.dest(moves[i]);
+            position.move(origin, dest);
+            evaluator.moved(origin, dest);
+            boolean wins = side == FoxHoundUtils.FOX_FIELD ? position.isFoxHome() : position.isFoxTrapped();
+            int score = wins ? Integer.MAX_VALUE : evaluator.evaluate(side);
+            position.move(dest, origin);
+            evaluator.moved(dest, origin);
+            if (score > bestScore) {
+                best = moves[i];
+                bestScore = score;
+                ties = 1;
+            } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                best = moves[i];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return number of games played by the last run
+     */
+    public long games() {
+        return games;
+    }
+
+    /**
+     * @return number of games won by the fox in the last run
+     */
+    public long foxWins() {
+        return foxWins;
+    }
+
+    /**
+     * @return number of games won by the hounds in the last run
+     */
+    public long houndWins() {
+        return games - foxWins;
+    }
+
+    /**
+     * @return share of games won by the fox, 0 if no game was played
+     */
+    public double foxWinRate() {
+        return games == 0 ? 0 : (double) foxWins / games;
+    }
+
+    /**
+     * @return number of games of the last run indexed by their length in plies
+     */
+    public long[] lengthCounts() {
+        return lengths.clone();
+    }
+
+    /**
+     * @return average length of the games of the last run in plies, 0 if no game was played
+     */
+    public double averageLength() {
+        long plies = 0;
+        for (int length = 0; length < lengths.length; ++length)
+            plies += length * lengths[length];
+        return games == 0 ? 0 : (double) plies / games;
+    }
+
+    /**
+     * @return wall clock time of the last run in nanoseconds
+     */
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return games per second of the last run
+     */
+    public double gamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Plays games and prints the aggregate results.
+     *
+     * @param args dimension, number of games, fox policy, hound policy and optionally
+     *             the number of threads, the seed and the search depth
+     */
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.err.println("Usage: FoxHoundSimulator <dimension> <games> <RANDOM|GREEDY|SEARCH> <RANDOM|GREEDY|SEARCH>"
+                    + " [threads] [seed] [searchDepth]");
+            return;
+        }
+        int dim = Integer.parseInt(args[0]);
+        long games = Long.parseLong(args[1]);
+        Policy fox = Policy.valueOf(args[2].toUpperCase());
+        Policy hounds = Policy.valueOf(args[3].toUpperCase());
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        FoxHoundSimulator simulator = new FoxHoundSimulator(dim, fox, hounds, threads);
+        if (args.length > 5)
+            simulator.setSeed(Long.parseLong(args[5]));
+        if (args.length > 6)
+            simulator.setSearchDepth(Integer.parseInt(args[6]));
+
+        simulator.simulate(games);
+
+        System.out.printf("dimension %d, fox %s, hounds %s, %d threads%n", dim, fox, hounds, threads);
+        System.out.printf("games %d, fox wins %d (%.2f%%), hound wins %d (%.2f%%)%n", games,
+                simulator.foxWins(), 100 * simulator.foxWinRate(),
+                simulator.houndWins(), 100 * (1 - simulator.foxWinRate()));
+        System.out.printf("average length %.2f plies, %.0f games/s%n",
+                simulator.averageLength(), simulator.gamesPerSecond());
+        System.out.printf("%8s %12s%n", "plies", "games");
+        long[] lengths = simulator.lengthCounts();
+        for (int length = 0; length < lengths.length; ++length)
+            if (lengths[length] > 0)
+                System.out.printf("%8d %12d%n", length, lengths[length]);
+    }
+}
@@ -0,0 +1,82 @@
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class FoxHoundSimulatorBasicTest {
+
+    private static long sum(long[] counts) {
+        return Arrays.stream(counts).sum();
+    }
+
+    // ------------------------- results --------------------
+
+    @Test
+    public void testAllDimensions() {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; ++dim) {
+            FoxHoundSimulator simulator = new FoxHoundSimulator(dim, FoxHoundSimulator.Policy.RANDOM,
+                    FoxHoundSimulator.Policy.GREEDY, 2);
+
+            simulator.simulate(50);
+
+            assertEquals("Every game expected to have a winner.", 50, simulator.foxWins() + simulator.houndWins());
+            assertEquals("Every game expected to have a length.", 50, sum(simulator.lengthCounts()));
+        }
+    }
+
+    @Test
+    public void testIndependentOfThreads() {
+        FoxHoundSimulator single = new FoxHoundSimulator(FoxHoundUtils.DEFAULT_DIM,
+                FoxHoundSimulator.Policy.RANDOM, FoxHoundSimulator.Policy.RANDOM, 1);
+        FoxHoundSimulator parallel = new FoxHoundSimulator(FoxHoundUtils.DEFAULT_DIM,
+                FoxHoundSimulator.Policy.RANDOM, FoxHoundSimulator.Policy.RANDOM, 3);
+        single.setSeed(11);
+        parallel.setSeed(11);
+
+        single.simulate(2000);
+        parallel.simulate(2000);
+
+        assertEquals("Fox wins expected to match.", single.foxWins(), parallel.foxWins());
+        assertArrayEquals("Game lengths expected to match.", single.lengthCounts(), parallel.lengthCounts());
+    }
+
+    @Test
+    public void testSearchBeatsRandom() {
+        FoxHoundSimulator simulator = new FoxHoundSimulator(FoxHoundUtils.DEFAULT_DIM,
+                FoxHoundSimulator.Policy.SEARCH, FoxHoundSimulator.Policy.RANDOM, 1);
+        simulator.setSearchDepth(2);
+
+        simulator.simulate(50);
+
+        assertTrue("Searching fox expected to beat random hounds.", simulator.foxWinRate() > 0.9);
+    }
+
+    @Test
+    public void testAdjudicationShortensGames() {
+        FoxHoundSimulator adjudicated = new FoxHoundSimulator(FoxHoundUtils.DEFAULT_DIM,
+                FoxHoundSimulator.Policy.GREEDY, FoxHoundSimulator.Policy.RANDOM, 1);
+        FoxHoundSimulator played = new FoxHoundSimulator(FoxHoundUtils.DEFAULT_DIM,
+                FoxHoundSimulator.Policy.GREEDY, FoxHoundSimulator.Policy.RANDOM, 1);
+        played.setAdjudicate(false);
+
+        adjudicated.simulate(500);
+        played.simulate(500);
+
+        assertEquals("Greedy fox expected to win the same games.", played.foxWins(), adjudicated.foxWins());
+        assertTrue("Adjudicated games expected to be shorter.", adjudicated.averageLength() < played.averageLength());
+    }
+
+    // ------------------------- invalid input --------------------
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDimension() {
+        new FoxHoundSimulator(FoxHoundUtils.MAX_DIM + 1, FoxHoundSimulator.Policy.RANDOM,
+                FoxHoundSimulator.Policy.RANDOM, 1);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullPolicy() {
+        new FoxHoundSimulator(FoxHoundUtils.DEFAULT_DIM, null, FoxHoundSimulator.Policy.RANDOM, 1);
+    }
+}
@@ -0,0 +1,414 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The layout of a solved fox hound endgame table and its reader.
+ * <p>
+ * A table covers every placement of the {@code dim / 2} hounds and the fox
+ * on the dark squares used by {@link FoxHoundUtils#initialisePositions},
+ * for both sides to move. Dark square {@code sq} has index {@code sq / 2},
+ * the hound set is ranked in the combinatorial number system and a
+ * position gets the index
+ * {@code (side * foxSquares + foxIndex) * combinations + houndRank},
+ * which takes O(hounds) to compute.
+ * <p>
+ * On boards with an odd dimension a position and its mirror image have the
+ * same value, so the table only holds positions with the fox in the left
+ * half including the middle column; a position with the fox further right
+ * is looked up as its mirror image. This keeps a little more than half of
+ * the entries. On even boards the fox may stand on any dark square.
+ * <p>
+ * A table file holds a {@value #HEADER_BYTES} byte header followed by one
+ * byte per index. The byte is {@link #UNKNOWN} for placements where the fox
+ * shares a square with a hound, otherwise the top bit tells if the side to
+ * move wins and the low seven bits hold the number of plies until the game
+ * ends plus one. The header holds a completion flag that the generator
+ * only sets once every level is on disk, and {@link #open} refuses a file
+ * without it, so an interrupted generation is never probed.
+ * <p>
+ * {@link #open} memory-maps a table file read-only, so opening costs the
+ * same for any table size and the operating system pages in only the parts
+ * that are probed.
+ */
+public class FoxHoundTablebase {
+
+    /**
+     * Value of an index that does not describe a legal placement.
+     */
+    public static final byte UNKNOWN = 0;
+    /**
+     * Size of the file header in bytes.
+     */
+    public static final int HEADER_BYTES = 32;
+    /**
+     * Largest number of entries a table may have, so that it can be
+     * memory-mapped as a single buffer.
+     */
+    public static final long MAX_ENTRIES = Integer.MAX_VALUE - HEADER_BYTES;
+
+    static final int MAGIC = 0x46485442; // "FHTB"
+    static final int VERSION = 3;
+    // header offset of the completion flag, 1 once the whole table is written
+    static final int COMPLETE_OFFSET = 24;
+
+    private static final int WIN_FLAG = 0x80;
+    private static final int MAX_DISTANCE = 0x7E;
+
+    private final int dim;
+    private final int hounds;
+    private final int darkSquares;
+    private final int foxSquares;
+    private final long combinations;
+    private final long entries;
+    // BINOMIAL[n][k] for n up to darkSquares and k up to hounds
+    private final long[][] binomial;
+    private final int[] darkToSquare;
+    private final int[] foxToSquare;
+    // index of the fox square or -1 if the fox has to be mirrored first
+    private final int[] squareToFox;
+    private final long[] darkMask;
+    private final FoxHoundTables tables;
+    private MappedByteBuffer values;
+
+    /**
+     * Creates the table layout of the given dimension.
+     *
+     * @param dim size of the board
+     * @throws IllegalArgumentException if the dimension is invalid or its table
+     *                                  would exceed {@link #MAX_ENTRIES} entries
+     */
+    public FoxHoundTablebase(int dim) {
+        FoxHoundPosition.checkDimension(dim);
+        this.dim = dim;
+        this.hounds = dim / 2;
+        this.darkSquares = dim * dim / 2;
+        this.tables = FoxHoundTables.of(dim);
+        darkToSquare = new int[darkSquares];
+        foxToSquare = new int[darkSquares];
+        squareToFox = new int[dim * dim];
+        darkMask = new long[FoxHoundPosition.wordCount(dim)];
+        int fox = 0;
+        for (int sq = 0; sq < dim * dim; ++sq) {
+            squareToFox[sq] = -1;
+            if (!isDark(sq))
+                continue;
+            darkToSquare[sq >>> 1] = sq;
+            darkMask[sq >>> 6] |= 1L << sq;
+            if (!tables.isSymmetric() || sq % dim <= dim / 2) {
+                foxToSquare[fox] = sq;
+                squareToFox[sq] = fox++;
+            }
+        }
+        this.foxSquares = fox;
+        binomial = new long[darkSquares + 1][hounds + 2];
+        for (int n = 0; n <= darkSquares; ++n) {
+            binomial[n][0] = 1;
+            for (int k = 1; k <= hounds + 1 && k <= n; ++k)
+                binomial[n][k] = saturatedAdd(binomial[n - 1][k - 1], binomial[n - 1][k]);
+        }
+        combinations = binomial[darkSquares][hounds];
+        if (combinations > MAX_ENTRIES / 2 / foxSquares)
+            throw new IllegalArgumentException("Error : Endgame table of dimension " + dim + " is too large!");
+        entries = 2L * foxSquares * combinations;
+    }
+
+    /**
+     * Opens a table file for probing.
+     *
+     * @param file path of a file written by {@link FoxHoundTablebaseGenerator}
+     * @return the table backed by the memory-mapped file
+     * @throws IOException if the file cannot be read or is not a complete table
+     * @throws NullPointerException if the path is null
+     */
+    public static FoxHoundTablebase open(Path file) throws IOException {
+        if (file == null)
+            throw new NullPointerException("Error: File name cannot be empty!");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.BIG_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0)
+                ;
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt(0) != MAGIC || header.getInt(4) != VERSION)
+                throw new IOException("Error: " + file + " is not an endgame table!");
+            FoxHoundTablebase table;
+            try {
+                table = new FoxHoundTablebase(header.getInt(8));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Error: " + file + " has an invalid dimension!", e);
+            }
+            if (header.getInt(12) != table.hounds || header.getLong(16) != table.entries
+                    || header.getInt(COMPLETE_OFFSET) != 1 || channel.size() != HEADER_BYTES + table.entries)
+                throw new IOException("Error: " + file + " is incomplete!");
+            table.values = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, table.entries);
+            return table;
+        }
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    /**
+     * @return size of the board
+     */
+    public int dimension() {
+        return dim;
+    }
+
+    /**
+     * @return number of hounds in every position of the table
+     */
+    public int hounds() {
+        return hounds;
+    }
+
+    /**
+     * @return number of dark squares of the board
+     */
+    public int darkSquares() {
+        return darkSquares;
+    }
+
+    /**
+     * @return number of fox squares the table holds
+     */
+    public int foxSquares() {
+        return foxSquares;
+    }
+
+    /**
+     * @return number of different hound sets
+     */
+    public long combinations() {
+        return combinations;
+    }
+
+    /**
+     * @return number of entries of the table
+     */
+    public long entries() {
+        return entries;
+    }
+
+    /**
+     * @param square a square index
+     * @return true if the square has the colour all figures stand on
+     */
+    public boolean isDark(int square) {
+        return tables.isDark(square);
+    }
+
+    /**
+     * @param darkIndex index of a dark square
+     * @return the square index of the dark square
+     */
+    public int square(int darkIndex) {
+        return darkToSquare[darkIndex];
+    }
+
+    /**
+     * @param foxIndex index of a fox square, below {@link #foxSquares()}
+     * @return the square index of the fox square
+     */
+    public int foxSquare(int foxIndex) {
+        return foxToSquare[foxIndex];
+    }
+
+    /**
+     * @param square a dark square index
+     * @return index of the fox square or -1 if the table holds the fox on
+     * this square only through the mirror image
+     */
+    public int foxIndex(int square) {
+        return squareToFox[square];
+    }
+
+    /**
+     * Ranks the hound set of a position.
+     *
+     * @param position a position of this table's dimension
+     * @return rank of the hound set between 0 and {@link #combinations()} - 1
+     */
+    public long houndRank(FoxHoundPosition position) {
+        long rank = 0;
+        int i = 0;
+        for (int w = 0, words = position.words(); w < words; ++w)
+            for (long bits = position.houndWord(w); bits != 0; bits &= bits - 1)
+                rank += binomial[((w << 6) + Long.numberOfTrailingZeros(bits)) >>> 1][++i];
+        return rank;
+    }
+
+    /**
+     * Ranks the hound set of the mirror image of a position.
+     *
+     * @param position a position of this table's dimension
+     * @return rank of the mirrored hound set between 0 and {@link #combinations()} - 1
+     */
+    public long mirroredHoundRank(FoxHoundPosition position) {
+        // the mirror keeps the order of the rows and reverses the order within
+        // a row, so every row is ranked from its highest column down, O(hounds)
+        long rank = 0;
+        int place = 0, done = -1;
+        for (int w = 0, words = position.words(); w < words; ++w)
+            for (long bits = position.houndWord(w); bits != 0; bits &= bits - 1) {
+                int square = (w << 6) + Long.numberOfTrailingZeros(bits);
+                if (square <= done)
+                    continue; // ranked with its row
+                int start = square - square % dim;
+                for (long row = rowBits(position, start); row != 0; row &= ~Long.highestOneBit(row)) {
+                    int mirrored = tables.mirror(start + 63 - Long.numberOfLeadingZeros(row));
+                    rank += binomial[mirrored >>> 1][++place];
+                }
+                done = start + dim - 1;
+            }
+        return rank;
+    }
+
+    // hounds of the row starting at the given square, one bit per column
+    private long rowBits(FoxHoundPosition position, int start) {
+        int w = start >>> 6, shift = start & 63;
+        long bits = position.houndWord(w) >>> shift;
+        if (shift + dim > 64)
+            bits |= position.houndWord(w + 1) << (64 - shift);
+        return bits & ((1L << dim) - 1);
+    }
+
+    /**
+     * Writes the ascending dark square indices of a ranked hound set.
+     *
+     * @param rank rank of the hound set
+     * @param dark receives {@link #hounds()} dark square indices
+     */
+    public void unrank(long rank, int[] dark) {
+        int high = darkSquares;
+        for (int i = hounds; i > 0; --i) {
+            // largest c below high with C(c, i) <= rank
+            int low = i - 1, c = high - 1;
+            while (low < c) {
+                int mid = (low + c + 1) >>> 1;
+                if (binomial[mid][i] <= rank)
+                    low = mid;
+                else
+                    c = mid - 1;
+            }
+            dark[i - 1] = low;
+            rank -= binomial[low][i];
+            high = low;
+        }
+    }
+
+    /**
+     * Computes the index of a placement.
+     *
+     * @param figure    side to move, {@link FoxHoundUtils#FOX_FIELD} or {@link FoxHoundUtils#HOUND_FIELD}
+     * @param fox       index of the fox square, see {@link #foxIndex(int)}
+     * @param houndRank rank of the hound set
+     * @return the index of the entry
+     */
+    public long index(char figure, int fox, long houndRank) {
+        int side = figure == FoxHoundUtils.FOX_FIELD ? 0 : 1;
+        return ((long) side * foxSquares + fox) * combinations + houndRank;
+    }
+
+    /**
+     * Computes the index of a position with its side to move.
+     *
+     * @param position a position of this table's dimension
+     * @return the index of the entry of the position or its mirror image, -1 if the
+     * table does not cover the position, i.e. a figure stands on a light square or
+     * the number of hounds differs
+     */
+    public long index(FoxHoundPosition position) {
+        if (position.dimension() != dim || !covers(position))
+            return -1;
+        int fox = squareToFox[position.fox()];
+        if (fox < 0)
+            return index(position.turn(), squareToFox[tables.mirror(position.fox())], mirroredHoundRank(position));
+        return index(position.turn(), fox, houndRank(position));
+    }
+
+    /**
+     * Looks up the value of a placement in an opened table.
+     *
+     * @param figure    side to move, {@link FoxHoundUtils#FOX_FIELD} or {@link FoxHoundUtils#HOUND_FIELD}
+     * @param fox       index of the fox square, see {@link #foxIndex(int)}
+     * @param houndRank rank of the hound set
+     * @return the table value
+     * @throws IllegalStateException if the table was not opened from a file
+     */
+    public byte probe(char figure, int fox, long houndRank) {
+        if (values == null)
+            throw new IllegalStateException("Error : Endgame table has not been opened!");
+        return values.get((int) index(figure, fox, houndRank));
+    }
+
+    /**
+     * Looks up the value of a position in an opened table.
+     *
+     * @param position a position of any dimension
+     * @param figure   side to move, {@link FoxHoundUtils#FOX_FIELD} or {@link FoxHoundUtils#HOUND_FIELD}
+     * @return the table value or {@link #UNKNOWN} if the table does not cover the position
+     * @throws IllegalStateException if the table was not opened from a file
+     */
+    public byte probe(FoxHoundPosition position, char figure) {
+        if (position.dimension() != dim || !covers(position))
+            return UNKNOWN;
+        int fox = squareToFox[position.fox()];
+        if (fox < 0)
+            return probe(figure, squareToFox[tables.mirror(position.fox())], mirroredHoundRank(position));
+        return probe(figure, fox, houndRank(position));
+    }
+
+    // all figures on dark squares and the full number of hounds
+    private boolean covers(FoxHoundPosition position) {
+        int fox = position.fox();
+        if ((darkMask[fox >>> 6] & (1L << fox)) == 0)
+            return false;
+        int count = 0;
+        for (int w = 0, words = position.words(); w < words; ++w) {
+            long bits = position.houndWord(w);
+            if ((bits & ~darkMask[w]) != 0)
+                return false;
+            count += Long.bitCount(bits);
+        }
+        return count == hounds;
+    }
+
+    /**
+     * @param distance plies until the side to move wins
+     * @return the table value of a win
+     */
+    static byte win(int distance) {
+        return (byte) (WIN_FLAG | (Math.min(distance, MAX_DISTANCE) + 1));
+    }
+
+    /**
+     * @param distance plies until the side to move loses
+     * @return the table value of a loss
+     */
+    static byte loss(int distance) {
+        return (byte) (Math.min(distance, MAX_DISTANCE) + 1);
+    }
+
+    /**
+     * @param value a table value other than {@link #UNKNOWN}
+     * @return true if the side to move wins
+     */
+    public static boolean isWin(byte value) {
+        return (value & WIN_FLAG) != 0;
+    }
+
+    /**
+     * @param value a table value other than {@link #UNKNOWN}
+     * @return number of plies until the game ends with best play
+     */
+    public static int distance(byte value) {
+        return (value & 0x7F) - 1;
+    }
+}
@@ -0,0 +1,308 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FoxHoundTablebaseBasicTest {
+
+    private Path dir;
+
+    @Before
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("foxHoundTablebase");
+    }
+
+    @After
+    public void teardown() throws IOException {
+        try (java.util.stream.Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator)
+                Files.delete(file);
+        }
+        Files.delete(dir);
+    }
+
+    // plain minimax with the game loop rules, value as stored in the table
+    private static byte solve(FoxHoundPosition position, char side) {
+        boolean foxToMove = side == FoxHoundUtils.FOX_FIELD;
+        if (position.isFoxTrapped())
+            return foxToMove ? FoxHoundTablebase.loss(0) : FoxHoundTablebase.win(0);
+        if (position.isFoxHome())
+            return foxToMove ? FoxHoundTablebase.win(0) : FoxHoundTablebase.loss(0);
+        int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+        int count = FoxHoundMoves.generate(position, side, moves);
+        if (count == 0)
+            return FoxHoundTablebase.loss(0);
+        int fastestWin = Integer.MAX_VALUE, slowestLoss = -1;
+        char opponent = foxToMove ? FoxHoundUtils.HOUND_FIELD : FoxHoundUtils.FOX_FIELD;
+        for (int i = 0; i < count; ++i) {
+            int origin = FoxHoundMoves.origin(moves[i]), dest = FoxHoundMoves.dest(moves[i]);
+            position.move(origin, dest);
+            byte child = solve(position, opponent);
+            position.move(dest, origin);
+            if (FoxHoundTablebase.isWin(child))
+                slowestLoss = Math.max(slowestLoss, FoxHoundTablebase.distance(child) + 1);
+            else
+                fastestWin = Math.min(fastestWin, FoxHoundTablebase.distance(child) + 1);
+        }
+        return fastestWin != Integer.MAX_VALUE ? FoxHoundTablebase.win(fastestWin) : FoxHoundTablebase.loss(slowestLoss);
+    }
+
+    // ------------------------- layout --------------------
+
+    @Test
+    public void testRankRoundTrip() {
+        FoxHoundTablebase layout = new FoxHoundTablebase(FoxHoundUtils.DEFAULT_DIM);
+        int[] dark = new int[layout.hounds()];
+        for (long rank = 0; rank < layout.combinations(); rank += 97) {
+            layout.unrank(rank, dark);
+            FoxHoundPosition position = new FoxHoundPosition(layout.dimension(), 0);
+            for (int d : dark)
+                position.addHound(layout.square(d));
+            assertEquals("Hound set rank not preserved.", rank, layout.houndRank(position));
+        }
+    }
+
+    @Test
+    public void testIndexCoversInitialPositions() {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= 11; ++dim) {
+            FoxHoundTablebase layout = new FoxHoundTablebase(dim);
+            FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+            long index = layout.index(position);
+            assertTrue("Initial position expected inside the table.", index >= 0 && index < layout.entries());
+        }
+        FoxHoundPosition light = new FoxHoundPosition(FoxHoundUtils.DEFAULT_DIM, 0);
+
+        assertEquals("Light squares expected outside the table.", -1,
+                new FoxHoundTablebase(FoxHoundUtils.DEFAULT_DIM).index(light));
+    }
+
+    @Test
+    public void testOddBoardsHoldOneSideOfTheMirror() {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= 11; ++dim) {
+            FoxHoundTablebase layout = new FoxHoundTablebase(dim);
+            FoxHoundTables tables = FoxHoundTables.of(dim);
+            for (int sq = 0; sq < dim * dim; ++sq) {
+                if (!layout.isDark(sq))
+                    continue;
+                int mirror = tables.mirror(sq);
+                if (dim % 2 == 0 || mirror == sq)
+                    assertTrue("Fox square expected in the table.", layout.foxIndex(sq) >= 0);
+                else
+                    assertTrue("Fox square expected on one side only.", layout.foxIndex(sq) < 0 ^ layout.foxIndex(mirror) < 0);
+            }
+
+            assertEquals("Entries not as expected.", 2L * layout.foxSquares() * layout.combinations(), layout.entries());
+            if (dim % 2 == 1)
+                assertTrue("Odd board expected to hold fewer fox squares.", layout.foxSquares() < layout.darkSquares());
+        }
+    }
+
+    @Test
+    public void testMirroredIndex() {
+        int dim = 7;
+        FoxHoundTablebase layout = new FoxHoundTablebase(dim);
+        Random random = new Random(3);
+        int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+        for (int game = 0; game < 50; ++game) {
+            FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+            for (int count; (count = FoxHoundMoves.generate(position, position.turn(), moves)) > 0
+                    && !position.isFoxHome(); ) {
+                FoxHoundPosition mirror = position.mirror();
+
+                assertEquals("Mirrored hound rank not as expected.", layout.houndRank(mirror),
+                        layout.mirroredHoundRank(position));
+                // with the fox on the middle column both hound sets have an entry
+                if (position.fox() % dim != dim / 2)
+                    assertEquals("Mirror image expected to share the entry.", layout.index(position), layout.index(mirror));
+                position.make(moves[random.nextInt(count)]);
+            }
+        }
+    }
+
+    @Test
+    public void testMirroredRankRowsAcrossWords() {
+        // from 9x9 on a row crosses the boundary of the first two hound words
+        Random random = new Random(11);
+        int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= 11; ++dim) {
+            FoxHoundTablebase layout = new FoxHoundTablebase(dim);
+            for (int game = 0; game < 20; ++game) {
+                FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+                for (int count; (count = FoxHoundMoves.generate(position, position.turn(), moves)) > 0
+                        && !position.isFoxHome(); ) {
+                    assertEquals("Mirrored hound rank not as expected for dimension " + dim + ".",
+                            layout.houndRank(position.mirror()), layout.mirroredHoundRank(position));
+                    position.make(moves[random.nextInt(count)]);
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooLargeDimension() {
+        new FoxHoundTablebase(12);
+    }
+
+    // ------------------------- generator --------------------
+
+    @Test
+    public void testGeneratedValuesMatchMinimax() throws IOException {
+        for (int dim = 4; dim <= 5; ++dim) {
+            Path file = dir.resolve("fh" + dim + ".tb");
+            new FoxHoundTablebaseGenerator(dim, file, 2).generate();
+            byte[] table = Files.readAllBytes(file);
+            FoxHoundTablebase layout = new FoxHoundTablebase(dim);
+            int[] dark = new int[layout.hounds()];
+
+            assertEquals("File size not as expected.", FoxHoundTablebase.HEADER_BYTES + layout.entries(), table.length);
+            for (long rank = 0; rank < layout.combinations(); ++rank) {
+                layout.unrank(rank, dark);
+                FoxHoundPosition position = new FoxHoundPosition(dim, layout.square(dark[0]));
+                for (int d : dark)
+                    position.addHound(layout.square(d));
+                for (int fox = 0; fox < layout.foxSquares(); ++fox) {
+                    position.move(position.fox(), layout.foxSquare(fox));
+                    boolean onHound = position.isHound(layout.foxSquare(fox));
+                    for (char side : new char[]{FoxHoundUtils.FOX_FIELD, FoxHoundUtils.HOUND_FIELD}) {
+                        byte value = table[(int) (FoxHoundTablebase.HEADER_BYTES + layout.index(side, fox, rank))];
+                        if (onHound)
+                            assertEquals("Overlapping figures expected to be unknown.", FoxHoundTablebase.UNKNOWN, value);
+                        else
+                            assertEquals("Value not as expected for " + position + " " + side,
+                                    solve(position, side), value);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMirroredProbeMatchesMinimax() throws IOException {
+        int dim = 5;
+        Path file = dir.resolve("fh5.tb");
+        new FoxHoundTablebaseGenerator(dim, file, 2).generate();
+        FoxHoundTablebase tablebase = FoxHoundTablebase.open(file);
+        int[] dark = new int[tablebase.hounds()];
+
+        for (long rank = 0; rank < tablebase.combinations(); ++rank) {
+            tablebase.unrank(rank, dark);
+            FoxHoundPosition position = new FoxHoundPosition(dim, tablebase.square(dark[0]));
+            for (int d : dark)
+                position.addHound(tablebase.square(d));
+            for (int fox = 0; fox < tablebase.darkSquares(); ++fox) {
+                if (position.isHound(tablebase.square(fox)))
+                    continue;
+                position.move(position.fox(), tablebase.square(fox));
+                for (char side : new char[]{FoxHoundUtils.FOX_FIELD, FoxHoundUtils.HOUND_FIELD})
+                    assertEquals("Value not as expected for " + position + " " + side,
+                            solve(position, side), tablebase.probe(position, side));
+            }
+        }
+    }
+
+    @Test
+    public void testGenerationResumesFromCheckpoint() throws IOException {
+        int dim = 6;
+        Path fresh = dir.resolve("fresh.tb");
+        Path resumed = dir.resolve("resumed.tb");
+        new FoxHoundTablebaseGenerator(dim, fresh, 1).generate();
+
+        FoxHoundTablebaseGenerator generator = new FoxHoundTablebaseGenerator(dim, resumed, 2);
+        generator.solveDownTo(7);
+        assertTrue("Checkpoint expected after a partial run.", Files.exists(generator.checkpointFile()));
+        new FoxHoundTablebaseGenerator(dim, resumed, 2).generate();
+
+        assertFalse("Checkpoint expected to be removed.", Files.exists(generator.checkpointFile()));
+        assertArrayEquals("Resumed table expected to equal a fresh one.",
+                Files.readAllBytes(fresh), Files.readAllBytes(resumed));
+    }
+
+    @Test
+    public void testIncompleteFileWithoutCheckpointIsRegenerated() throws IOException {
+        int dim = 6;
+        Path fresh = dir.resolve("fresh.tb");
+        Path crashed = dir.resolve("crashed.tb");
+        new FoxHoundTablebaseGenerator(dim, fresh, 1).generate();
+        // a crash after the file was extended, before anything was solved
+        byte[] unsolved = new byte[(int) Files.size(fresh)];
+        System.arraycopy(Files.readAllBytes(fresh), 0, unsolved, 0, FoxHoundTablebase.HEADER_BYTES);
+        unsolved[FoxHoundTablebase.COMPLETE_OFFSET + 3] = 0;
+        Files.write(crashed, unsolved);
+
+        try {
+            FoxHoundTablebase.open(crashed);
+            fail("Unsolved table expected to be refused.");
+        } catch (IOException e) {
+            // expected
+        }
+        new FoxHoundTablebaseGenerator(dim, crashed, 2).generate();
+
+        assertArrayEquals("Unsolved table expected to be generated again.",
+                Files.readAllBytes(fresh), Files.readAllBytes(crashed));
+    }
+
+    // ------------------------- reader --------------------
+
+    @Test
+    public void testProbeMatchesFile() throws IOException {
+        int dim = 6;
+        Path file = dir.resolve("fh6.tb");
+        new FoxHoundTablebaseGenerator(dim, file, 1).generate();
+        byte[] table = Files.readAllBytes(file);
+        FoxHoundTablebase tablebase = FoxHoundTablebase.open(file);
+        Random random = new Random(7);
+        int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+
+        assertEquals("Dimension not as expected.", dim, tablebase.dimension());
+        for (int game = 0; game < 20; ++game) {
+            FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+            for (int count; (count = FoxHoundMoves.generate(position, position.turn(), moves)) > 0
+                    && !position.isFoxHome(); ) {
+                byte expected = table[(int) (FoxHoundTablebase.HEADER_BYTES + tablebase.index(position))];
+                assertEquals("Probe not as expected.", expected, tablebase.probe(position, position.turn()));
+                int move = moves[random.nextInt(count)];
+                position.move(FoxHoundMoves.origin(move), FoxHoundMoves.dest(move));
+            }
+        }
+        FoxHoundPosition other = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(8), 8);
+        assertEquals("Other dimension expected to be unknown.", FoxHoundTablebase.UNKNOWN,
+                tablebase.probe(other, FoxHoundUtils.FOX_FIELD));
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenInvalidFile() throws IOException {
+        Path file = dir.resolve("invalid.tb");
+        Files.write(file, new byte[FoxHoundTablebase.HEADER_BYTES]);
+        FoxHoundTablebase.open(file);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testProbeWithoutFile() {
+        new FoxHoundTablebase(FoxHoundUtils.DEFAULT_DIM).probe(FoxHoundUtils.FOX_FIELD, 0, 0);
+    }
+
+    @Test
+    public void testEngineScoresFromTable() throws IOException {
+        int dim = 6;
+        Path file = dir.resolve("fh6.tb");
+        new FoxHoundTablebaseGenerator(dim, file, 1).generate();
+        FoxHoundTablebase tablebase = FoxHoundTablebase.open(file);
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+        byte value = tablebase.probe(position, FoxHoundUtils.FOX_FIELD);
+        FoxHoundEngine engine = new FoxHoundEngine(10_000);
+        engine.setTablebase(tablebase);
+        engine.setMaxDepth(1);
+
+        engine.bestMove(position, FoxHoundUtils.FOX_FIELD);
+
+        int expected = FoxHoundEngine.WIN_SCORE - FoxHoundTablebase.distance(value);
+        assertEquals("Score expected to come from the table.",
+                FoxHoundTablebase.isWin(value) ? expected : -expected, engine.bestScore());
+    }
+}
@@ -0,0 +1,267 @@
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Solves fox hound endgame tables by retrograde analysis.
+ * <p>
+ * Every hound move advances one hound by one row, so the sum of the hound
+ * rows only ever grows. Positions are therefore solved level by level from
+ * the largest row sum down: with the hounds to move a position depends only
+ * on positions of the next level, with the fox to move only on positions of
+ * the same hound set, or its mirror image which has the same row sum, with
+ * the hounds to move. All hound sets of one level are solved in parallel,
+ * first with the hounds to move and then with the fox to move.
+ * <p>
+ * The table is written straight into a memory-mapped file (see
+ * {@link FoxHoundTablebase} for the layout). After every level the file is
+ * flushed and the level is recorded in a checkpoint file next to it, so an
+ * interrupted generation continues with the next unsolved level. The
+ * checkpoint is written before the file is created, and the header is
+ * marked complete only after the last level is flushed, so a crash at any
+ * point leaves either a checkpoint or an incomplete file that is started
+ * again.
+ * <p>
+ * The rules match the game loop: a trapped fox loses, a fox on row 1 wins,
+ * and hounds that cannot move any more lose.
+ */
+public class FoxHoundTablebaseGenerator {
+
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
+    private final FoxHoundTablebase layout;
+    private final Path file;
+    private final int threads;
+    private MappedByteBuffer values;
+
+    /**
+     * Creates a generator for the given dimension.
+     *
+     * @param dim     size of the board
+     * @param file    path of the table file to write
+     * @param threads number of threads solving in parallel
+     * @throws IllegalArgumentException if the dimension is invalid or too large,
+     *                                  or the thread count is not positive
+     * @throws NullPointerException     if the path is null
+     */
+    public FoxHoundTablebaseGenerator(int dim, Path file, int threads) {
+        if (file == null)
+            throw new NullPointerException("Error: File name cannot be empty!");
+        if (threads <= 0)
+            throw new IllegalArgumentException("Error : Number of threads has to be positive!");
+        this.layout = new FoxHoundTablebase(dim);
+        this.file = file;
+        this.threads = threads;
+    }
+
+    /**
+     * @return path of the checkpoint file belonging to the table file
+     */
+    public Path checkpointFile() {
+        return Paths.get(file.toString() + CHECKPOINT_SUFFIX);
+    }
+
+    /**
+     * Solves the whole table, continuing from the checkpoint if there is one.
+     *
+     * @throws IOException if the table or checkpoint file cannot be written
+     */
+    public void generate() throws IOException {
+        solveDownTo(0);
+    }
+
+    /**
+     * Solves all levels with a hound row sum of at least the given level.
+     *
+     * @param lowestLevel smallest hound row sum to solve
+     * @throws IOException if the table or checkpoint file cannot be written
+     */
+    void solveDownTo(int lowestLevel) throws IOException {
+        int topLevel = layout.hounds() * (layout.dimension() - 1);
+        int next = readCheckpoint(topLevel);
+        if (next < lowestLevel)
+            return;
+        long length = FoxHoundTablebase.HEADER_BYTES + layout.entries();
+        if (next == topLevel)
+            writeCheckpoint(topLevel); // a crash before the first level then resumes instead of passing as finished
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            if (next == topLevel)
+                raf.setLength(0); // no usable checkpoint, start from a clean file
+            raf.setLength(length);
+            values = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+            writeHeader();
+            int[][] levels = bucketByLevel(topLevel);
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                for (int level = next; level >= lowestLevel; --level) {
+                    int[] ranks = levels[level];
+                    for (char side : new char[]{FoxHoundUtils.HOUND_FIELD, FoxHoundUtils.FOX_FIELD})
+                        pool.submit(() -> IntStream.of(ranks).parallel().forEach(rank -> solveHoundSet(rank, side))).get();
+                    values.force();
+                    writeCheckpoint(level - 1);
+                }
+                if (lowestLevel == 0) {
+                    values.putInt(FoxHoundTablebase.COMPLETE_OFFSET, 1);
+                    values.force();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Error: Table generation interrupted!", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Error: Table generation failed!", e.getCause());
+            } finally {
+                pool.shutdown();
+                values = null;
+            }
+        }
+        if (lowestLevel == 0)
+            Files.deleteIfExists(checkpointFile());
+    }
+
+    // next level to solve, topLevel if there is no checkpoint
+    private int readCheckpoint(int topLevel) throws IOException {
+        Path checkpoint = checkpointFile();
+        if (!Files.exists(checkpoint))
+            return isComplete() ? -1 : topLevel; // a finished table has no checkpoint left
+        String[] fields = new String(Files.readAllBytes(checkpoint), StandardCharsets.US_ASCII).trim().split(" ");
+        if (fields.length != 3 || Integer.parseInt(fields[0]) != layout.dimension()
+                || Integer.parseInt(fields[1]) != FoxHoundTablebase.VERSION)
+            return topLevel;
+        return Integer.parseInt(fields[2]);
+    }
+
+    // true if the file is a table of this dimension with the completion flag set
+    private boolean isComplete() {
+        if (!Files.exists(file))
+            return false;
+        try {
+            return FoxHoundTablebase.open(file).dimension() == layout.dimension();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void writeCheckpoint(int nextLevel) throws IOException {
+        Path tmp = Paths.get(file.toString() + CHECKPOINT_SUFFIX + ".tmp");
+        Files.write(tmp, (layout.dimension() + " " + FoxHoundTablebase.VERSION + " " + nextLevel)
+                .getBytes(StandardCharsets.US_ASCII));
+        Files.move(tmp, checkpointFile(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeHeader() {
+        values.putInt(0, FoxHoundTablebase.MAGIC);
+        values.putInt(4, FoxHoundTablebase.VERSION);
+        values.putInt(8, layout.dimension());
+        values.putInt(12, layout.hounds());
+        values.putLong(16, layout.entries());
+        values.putInt(FoxHoundTablebase.COMPLETE_OFFSET, 0);
+    }
+
+    // ranks of all hound sets grouped by the sum of their rows
+    private int[][] bucketByLevel(int topLevel) {
+        int combinations = (int) layout.combinations();
+        int[] levelOf = new int[combinations];
+        int[] sizes = new int[topLevel + 1];
+        int[] dark = new int[layout.hounds()];
+        for (int rank = 0; rank < combinations; ++rank) {
+            layout.unrank(rank, dark);
+            int level = 0;
+            for (int d : dark)
+                level += layout.square(d) / layout.dimension();
+            levelOf[rank] = level;
+            ++sizes[level];
+        }
+        int[][] levels = new int[topLevel + 1][];
+        for (int level = 0; level <= topLevel; ++level)
+            levels[level] = new int[sizes[level]];
+        int[] fill = new int[topLevel + 1];
+        for (int rank = 0; rank < combinations; ++rank)
+            levels[levelOf[rank]][fill[levelOf[rank]]++] = rank;
+        return levels;
+    }
+
+    // all positions of a hound set with the given side to move
+    private void solveHoundSet(int rank, char side) {
+        int[] dark = new int[layout.hounds()];
+        layout.unrank(rank, dark);
+        FoxHoundPosition position = new FoxHoundPosition(layout.dimension(), layout.foxSquare(0));
+        for (int d : dark)
+            position.addHound(layout.square(d));
+        long mirroredRank = layout.mirroredHoundRank(position);
+        int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+
+        for (int fox = 0; fox < layout.foxSquares(); ++fox) {
+            int square = layout.foxSquare(fox);
+            if (position.isHound(square))
+                continue;
+            position.move(position.fox(), square);
+            values.put(offset(side, fox, rank), solve(position, side, rank, mirroredRank, moves));
+        }
+    }
+
+    private int offset(char side, int fox, long rank) {
+        return (int) (FoxHoundTablebase.HEADER_BYTES + layout.index(side, fox, rank));
+    }
+
+    private byte solve(FoxHoundPosition position, char side, long rank, long mirroredRank, int[] moves) {
+        boolean foxToMove = side == FoxHoundUtils.FOX_FIELD;
+        if (position.isFoxTrapped())
+            return foxToMove ? FoxHoundTablebase.loss(0) : FoxHoundTablebase.win(0);
+        if (position.isFoxHome())
+            return foxToMove ? FoxHoundTablebase.win(0) : FoxHoundTablebase.loss(0);
+        int count = FoxHoundMoves.generate(position, side, moves);
+        if (count == 0)
+            return FoxHoundTablebase.loss(0);
+        int fastestWin = Integer.MAX_VALUE, slowestLoss = -1;
+        for (int i = 0; i < count; ++i) {
+            int origin = FoxHoundMoves.origin(moves[i]), dest = FoxHoundMoves.dest(moves[i]);
+            byte child;
+            if (foxToMove) {
+                int fox = layout.foxIndex(dest);
+                child = fox >= 0 ? values.get(offset(FoxHoundUtils.HOUND_FIELD, fox, rank))
+                        : values.get(offset(FoxHoundUtils.HOUND_FIELD,
+                        layout.foxIndex(position.tables().mirror(dest)), mirroredRank));
+            } else {
+                position.move(origin, dest);
+                long childRank = layout.houndRank(position);
+                position.move(dest, origin);
+                child = values.get(offset(FoxHoundUtils.FOX_FIELD, layout.foxIndex(position.fox()), childRank));
+            }
+            int distance = FoxHoundTablebase.distance(child) + 1;
+            if (FoxHoundTablebase.isWin(child))
+                slowestLoss = Math.max(slowestLoss, distance);
+            else
+                fastestWin = Math.min(fastestWin, distance);
+        }
+        return fastestWin != Integer.MAX_VALUE ? FoxHoundTablebase.win(fastestWin) : FoxHoundTablebase.loss(slowestLoss);
+    }
+
+    /**
+     * Generates a table file.
+     *
+     * @param args dimension, output file and optional number of threads
+     * @throws IOException if the table cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: FoxHoundTablebaseGenerator <dimension> <file> [threads]");
+            return;
+        }
+        int dim = Integer.parseInt(args[0]);
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        FoxHoundTablebaseGenerator generator = new FoxHoundTablebaseGenerator(dim, Paths.get(args[1]), threads);
+        long start = System.nanoTime();
+        generator.generate();
+        System.out.printf("Solved %d positions of dimension %d in %.1f s%n",
+                generator.layout.entries(), dim, (System.nanoTime() - start) / 1e9);
+    }
+}
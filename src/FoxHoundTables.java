@@ -0,0 +1,166 @@
+/**
+ * Lookup tables of the board geometry of one dimension.
+ * <p>
+ * For every square the tables hold its up to four diagonal neighbours,
+ * i.e. the squares the fox may move to, those towards row 1 first, and
+ * the up to two squares a hound may move to, away from row 1. The tables
+ * of a dimension are built on first use and never change, so move
+ * generation, win detection and evaluation only look up square indices.
+ * <p>
+ * The rules are the same for a position and its mirror image across the
+ * middle column. The mirror keeps the square colour only on boards with an
+ * odd dimension, so only there a position and its mirror image are both
+ * reachable and have the same value, see {@link #isSymmetric()}.
+ */
+public class FoxHoundTables {
+
+    // built lazily; a table is immutable with final fields only, so it is
+    // safely published even if two threads happen to build the same one
+    private static final FoxHoundTables[] TABLES = new FoxHoundTables[FoxHoundUtils.MAX_DIM + 1];
+
+    // per square: number of fox targets, number of those towards row 1 and
+    // the four target slots, those towards row 1 first
+    private static final int FOX_STRIDE = 6;
+    // per square: number of hound targets and the two target slots
+    private static final int HOUND_STRIDE = 3;
+
+    private final int dim;
+    // counts and targets of a square share a cache line
+    private final int[] fox;
+    private final int[] hound;
+    private final byte[] row;
+    private final boolean[] dark;
+    private final int[] mirror;
+
+    private FoxHoundTables(int dim) {
+        int squares = dim * dim;
+        this.dim = dim;
+        this.fox = new int[FOX_STRIDE * squares];
+        this.hound = new int[HOUND_STRIDE * squares];
+        this.row = new byte[squares];
+        this.dark = new boolean[squares];
+        this.mirror = new int[squares];
+        for (int sq = 0; sq < squares; ++sq) {
+            int r = sq / dim, c = sq % dim;
+            row[sq] = (byte) r;
+            dark[sq] = ((r + c) & 1) == 1;
+            mirror[sq] = r * dim + dim - 1 - c;
+            // same order as the directions of FoxHoundPosition
+            for (int dr = -1; dr <= 1; dr += 2)
+                for (int dc = -1; dc <= 1; dc += 2) {
+                    int tr = r + dr, tc = c + dc;
+                    if (tr < 0 || tr >= dim || tc < 0 || tc >= dim)
+                        continue;
+                    int target = tr * dim + tc;
+                    fox[FOX_STRIDE * sq + 2 + fox[FOX_STRIDE * sq]++] = target;
+                    if (dr < 0)
+                        ++fox[FOX_STRIDE * sq + 1];
+                    else
+                        hound[HOUND_STRIDE * sq + 1 + hound[HOUND_STRIDE * sq]++] = target;
+                }
+        }
+    }
+
+    /**
+     * @param dim size of the board
+     * @return the tables of the given dimension
+     * @throws IllegalArgumentException if the given dimension is invalid
+     */
+    public static FoxHoundTables of(int dim) {
+        FoxHoundTables tables = dim >= 0 && dim < TABLES.length ? TABLES[dim] : null;
+        if (tables == null) {
+            FoxHoundPosition.checkDimension(dim);
+            tables = new FoxHoundTables(dim);
+            TABLES[dim] = tables;
+        }
+        return tables;
+    }
+
+    /**
+     * @return size of the board
+     */
+    public int dimension() {
+        return dim;
+    }
+
+    /**
+     * @param square a square index on the board
+     * @return number of squares the fox can reach from the square on an empty board
+     */
+    public int foxTargetCount(int square) {
+        return fox[FOX_STRIDE * square];
+    }
+
+    /**
+     * @param square a square index on the board
+     * @return number of squares towards row 1 the fox can reach, they come first
+     */
+    public int foxForwardCount(int square) {
+        return fox[FOX_STRIDE * square + 1];
+    }
+
+    /**
+     * @param square a square index on the board
+     * @param i      index of the target, below {@link #foxTargetCount}
+     * @return square index of a diagonal neighbour
+     */
+    public int foxTarget(int square, int i) {
+        return fox[FOX_STRIDE * square + 2 + i];
+    }
+
+    /**
+     * @param square a square index on the board
+     * @return number of squares a hound can reach from the square on an empty board
+     */
+    public int houndTargetCount(int square) {
+        return hound[HOUND_STRIDE * square];
+    }
+
+    /**
+     * @param square a square index on the board
+     * @param i      index of the target, below {@link #houndTargetCount}
+     * @return square index of a diagonal neighbour away from row 1
+     */
+    public int houndTarget(int square, int i) {
+        return hound[HOUND_STRIDE * square + 1 + i];
+    }
+
+    /**
+     * @param square a square index on the board
+     * @return row of the square, 0 for row 1
+     */
+    public int row(int square) {
+        return row[square];
+    }
+
+    /**
+     * @param square a square index on the board
+     * @return true if the square has the colour all figures stand on
+     */
+    public boolean isDark(int square) {
+        return dark[square];
+    }
+
+    /**
+     * @return true if mirroring keeps the square colour, i.e. the dimension is odd
+     */
+    public boolean isSymmetric() {
+        return (dim & 1) == 1;
+    }
+
+    /**
+     * @param square a square index on the board
+     * @return the square in the same row and the mirrored column
+     */
+    public int mirror(int square) {
+        return mirror[square];
+    }
+
+    /**
+     * @param move a move encoded by {@link FoxHoundMoves#encode}
+     * @return the same move on the mirrored board
+     */
+    public int mirrorMove(int move) {
+        return FoxHoundMoves.encode(mirror[FoxHoundMoves.origin(move)], mirror[FoxHoundMoves.dest(move)]);
+    }
+}
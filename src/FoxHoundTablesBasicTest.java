@@ -0,0 +1,69 @@
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundTablesBasicTest {
+
+    private static boolean onBoard(int row, int column, int dim) {
+        return row >= 0 && row < dim && column >= 0 && column < dim;
+    }
+
+    @Test
+    public void testTargetsMatchGeometry() {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; ++dim) {
+            FoxHoundTables tables = FoxHoundTables.of(dim);
+            for (int sq = 0; sq < dim * dim; ++sq) {
+                int row = sq / dim, column = sq % dim;
+                int forward = 0, total = 0;
+                for (int dr = -1; dr <= 1; dr += 2)
+                    for (int dc = -1; dc <= 1; dc += 2)
+                        if (onBoard(row + dr, column + dc, dim)) {
+                            int target = (row + dr) * dim + column + dc;
+                            assertEquals("Target order not as expected on " + FoxHoundPosition.coordinate(sq, dim) + ".",
+                                    target, tables.foxTarget(sq, total++));
+                            if (dr < 0)
+                                ++forward;
+                        }
+                assertEquals("Fox targets not as expected.", total, tables.foxTargetCount(sq));
+                assertEquals("Forward targets not as expected.", forward, tables.foxForwardCount(sq));
+                assertEquals("Hound targets not as expected.", total - forward, tables.houndTargetCount(sq));
+                for (int i = 0; i < tables.houndTargetCount(sq); ++i)
+                    assertEquals("Hound target expected to be away from row 1.", row + 1, tables.row(tables.houndTarget(sq, i)));
+                assertEquals("Row not as expected.", row, tables.row(sq));
+                assertEquals("Colour not as expected.", (row + column) % 2 == 1, tables.isDark(sq));
+            }
+        }
+    }
+
+    @Test
+    public void testMirror() {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; ++dim) {
+            FoxHoundTables tables = FoxHoundTables.of(dim);
+            for (int sq = 0; sq < dim * dim; ++sq) {
+                int mirror = tables.mirror(sq);
+
+                assertEquals("Mirror expected in the same row.", tables.row(sq), tables.row(mirror));
+                assertEquals("Mirrored column not as expected.", dim - 1 - sq % dim, mirror % dim);
+                assertEquals("Mirror expected to keep the colour on odd boards only.",
+                        tables.isSymmetric(), tables.isDark(sq) == tables.isDark(mirror));
+            }
+            assertEquals("Symmetry not as expected.", dim % 2 == 1, tables.isSymmetric());
+        }
+        FoxHoundTables tables = FoxHoundTables.of(5);
+        int move = FoxHoundMoves.encode(FoxHoundPosition.square("A2", 5), FoxHoundPosition.square("B1", 5));
+
+        assertEquals("Mirrored move not as expected.",
+                FoxHoundMoves.encode(FoxHoundPosition.square("E2", 5), FoxHoundPosition.square("D1", 5)), tables.mirrorMove(move));
+    }
+
+    @Test
+    public void testBuiltOnce() {
+        assertSame("Tables expected to be shared.", FoxHoundTables.of(9), FoxHoundTables.of(9));
+        assertSame("Positions expected to use the shared tables.", FoxHoundTables.of(9), new FoxHoundPosition(9, 1).tables());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDimension() {
+        FoxHoundTables.of(FoxHoundUtils.MAX_DIM + 1);
+    }
+}
@@ -0,0 +1,241 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed size transposition table for the fox hound search.
+ * <p>
+ * The entries live off-heap in direct byte buffers so that even tables of
+ * several gigabytes cause no garbage collection work. Each 64 byte bucket
+ * holds four entries of two longs: the packed data and the position key
+ * XOR the data. A reader only accepts an entry if both words XOR back to
+ * its key, so search threads can read and write the table concurrently
+ * without locks; a torn entry simply reads as a miss.
+ * <p>
+ * The packed data word holds, from the lowest bit, the best move (20 bits),
+ * the bound (2 bits), the depth (8 bits), the search generation (8 bits) and
+ * the score (24 bits).
+ */
+public class FoxHoundTranspositionTable {
+
+    /**
+     * Default table size in megabytes.
+     */
+    public static final int DEFAULT_SIZE_MB = 16;
+
+    /**
+     * Bound of a score that is exact.
+     */
+    public static final int BOUND_EXACT = 1;
+    /**
+     * Bound of a score that is at least the stored value (fail high).
+     */
+    public static final int BOUND_LOWER = 2;
+    /**
+     * Bound of a score that is at most the stored value (fail low).
+     */
+    public static final int BOUND_UPPER = 3;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int BUCKET_BYTES = ENTRY_BYTES * BUCKET_ENTRIES;
+    // buckets per buffer, keeps every buffer at 1 GB so tables can exceed 2 GB
+    private static final int SEGMENT_SHIFT = 24;
+    private static final int MOVE_MASK = (1 << 20) - 1;
+
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final ByteBuffer[] segments;
+    private final long bucketMask;
+    private volatile int generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+
+    /**
+     * Creates a table of at most the given size. The number of buckets is
+     * rounded down to a power of two.
+     *
+     * @param sizeMb table size in megabytes
+     * @throws IllegalArgumentException if the size is not positive
+     */
+    public FoxHoundTranspositionTable(int sizeMb) {
+        if (sizeMb <= 0)
+            throw new IllegalArgumentException("Error : Size of the transposition table has to be positive!");
+        long buckets = Long.highestOneBit(((long) sizeMb << 20) / BUCKET_BYTES);
+        bucketMask = buckets - 1;
+        long perSegment = Math.min(buckets, 1L << SEGMENT_SHIFT);
+        segments = new ByteBuffer[(int) (buckets / perSegment)];
+        for (int i = 0; i < segments.length; ++i)
+            segments[i] = ByteBuffer.allocateDirect((int) (perSegment * BUCKET_BYTES) + BUCKET_BYTES)
+                    .alignedSlice(BUCKET_BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * @return size of the table in bytes
+     */
+    public long sizeBytes() {
+        return (bucketMask + 1) * BUCKET_BYTES;
+    }
+
+    /**
+     * Marks the start of a new search so that entries of older searches are
+     * replaced first.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Removes all entries and resets the counters.
+     */
+    public void clear() {
+        for (ByteBuffer segment : segments)
+            for (int i = 0; i < segment.capacity(); i += 8)
+                LONGS.setOpaque(segment, i, 0L);
+        hits.reset();
+        misses.reset();
+        collisions.reset();
+    }
+
+    /**
+     * Looks up the entry of a position.
+     *
+     * @param key the Zobrist key of the position
+     * @return the packed entry data or 0 if the position is not stored
+     */
+    public long probe(long key) {
+        ByteBuffer segment = segments[(int) ((key & bucketMask) >>> SEGMENT_SHIFT)];
+        int base = (int) (key & bucketMask & ((1L << SEGMENT_SHIFT) - 1)) * BUCKET_BYTES;
+        for (int i = 0; i < BUCKET_ENTRIES; ++i) {
+            int offset = base + i * ENTRY_BYTES;
+            long data = (long) LONGS.getOpaque(segment, offset);
+            long check = (long) LONGS.getOpaque(segment, offset + 8);
+            if (data != 0 && (check ^ data) == key) {
+                hits.increment();
+                return data;
+            }
+        }
+        misses.increment();
+        return 0;
+    }
+
+    /**
+     * Stores the search result of a position. An entry of the same position
+     * is replaced, otherwise the entry with the lowest depth, preferring
+     * entries of older searches.
+     *
+     * @param key   the Zobrist key of the position
+     * @param depth remaining search depth of the result
+     * @param bound one of {@link #BOUND_EXACT}, {@link #BOUND_LOWER} and {@link #BOUND_UPPER}
+     * @param score score of the position
+     * @param move  best move or {@link FoxHoundEngine#NO_MOVE}
+     */
+    public void store(long key, int depth, int bound, int score, int move) {
+        ByteBuffer segment = segments[(int) ((key & bucketMask) >>> SEGMENT_SHIFT)];
+        int base = (int) (key & bucketMask & ((1L << SEGMENT_SHIFT) - 1)) * BUCKET_BYTES;
+        int current = generation;
+        int victim = base;
+        int victimValue = Integer.MAX_VALUE;
+        boolean replacesOther = true;
+        for (int i = 0; i < BUCKET_ENTRIES; ++i) {
+            int offset = base + i * ENTRY_BYTES;
+            long data = (long) LONGS.getOpaque(segment, offset);
+            long check = (long) LONGS.getOpaque(segment, offset + 8);
+            if (data == 0 || (check ^ data) == key) {
+                victim = offset;
+                replacesOther = false;
+                break;
+            }
+            int age = (current - generation(data)) & 0xFF;
+            int value = depth(data) - 8 * age;
+            if (value < victimValue) {
+                victimValue = value;
+                victim = offset;
+            }
+        }
+        if (replacesOther && generation((long) LONGS.getOpaque(segment, victim)) == current)
+            collisions.increment();
+        long data = pack(depth, bound, score, move, current);
+        LONGS.setOpaque(segment, victim, data);
+        LONGS.setOpaque(segment, victim + 8, key ^ data);
+    }
+
+    private static long pack(int depth, int bound, int score, int move, int generation) {
+        return ((long) score << 40)
+                | ((long) generation << 32)
+                | ((long) Math.min(Math.max(depth, 0), 0xFF) << 24)
+                | ((long) bound << 20)
+                | (move & MOVE_MASK);
+    }
+
+    /**
+     * @param entry packed entry data
+     * @return stored score
+     */
+    public static int score(long entry) {
+        return (int) (entry >> 40);
+    }
+
+    /**
+     * @param entry packed entry data
+     * @return stored remaining depth
+     */
+    public static int depth(long entry) {
+        return (int) (entry >>> 24) & 0xFF;
+    }
+
+    /**
+     * @param entry packed entry data
+     * @return stored bound
+     */
+    public static int bound(long entry) {
+        return (int) (entry >>> 20) & 0x3;
+    }
+
+    /**
+     * @param entry packed entry data
+     * @return stored best move or {@link FoxHoundEngine#NO_MOVE}
+     */
+    public static int move(long entry) {
+        int move = (int) entry & MOVE_MASK;
+        return move == MOVE_MASK ? FoxHoundEngine.NO_MOVE : move;
+    }
+
+    private static int generation(long entry) {
+        return (int) (entry >>> 32) & 0xFF;
+    }
+
+    /**
+     * @return number of probes that found their position
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of probes that did not find their position
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of stores that evicted another position of the current search
+     */
+    public long collisions() {
+        return collisions.sum();
+    }
+
+    /**
+     * @return share of probes that found their position, 0 if nothing was probed
+     */
+    public double hitRate() {
+        long h = hits(), total = h + misses();
+        return total == 0 ? 0 : (double) h / total;
+    }
+}
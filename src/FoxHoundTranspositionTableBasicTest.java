@@ -0,0 +1,104 @@
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class FoxHoundTranspositionTableBasicTest {
+
+    private FoxHoundTranspositionTable table;
+
+    @Before
+    public void setup() {
+        table = new FoxHoundTranspositionTable(1);
+    }
+
+    // ------------------------- store / probe --------------------
+
+    @Test
+    public void testStoreAndProbe() {
+        long key = 0x123456789ABCDEFL;
+        int move = FoxHoundMoves.encode(675, 649);
+
+        table.store(key, 12, FoxHoundTranspositionTable.BOUND_LOWER, -FoxHoundEngine.WIN_SCORE + 3, move);
+        long entry = table.probe(key);
+
+        assertNotEquals("Stored entry expected to be found.", 0, entry);
+        assertEquals("Depth not as expected.", 12, FoxHoundTranspositionTable.depth(entry));
+        assertEquals("Bound not as expected.", FoxHoundTranspositionTable.BOUND_LOWER, FoxHoundTranspositionTable.bound(entry));
+        assertEquals("Score not as expected.", -FoxHoundEngine.WIN_SCORE + 3, FoxHoundTranspositionTable.score(entry));
+        assertEquals("Move not as expected.", move, FoxHoundTranspositionTable.move(entry));
+        assertEquals("One hit expected.", 1, table.hits());
+    }
+
+    @Test
+    public void testProbeMiss() {
+        table.store(1L, 3, FoxHoundTranspositionTable.BOUND_EXACT, 7, FoxHoundEngine.NO_MOVE);
+
+        assertEquals("Unknown key expected to miss.", 0, table.probe(2L));
+        assertEquals("Missing move expected to be preserved.",
+                FoxHoundEngine.NO_MOVE, FoxHoundTranspositionTable.move(table.probe(1L)));
+        assertEquals("One miss expected.", 1, table.misses());
+    }
+
+    @Test
+    public void testReplacementKeepsDeepEntries() {
+        long bucketStride = table.sizeBytes() / 64; // keys mapping to the same bucket
+        long deep = 5;
+        table.store(deep, 40, FoxHoundTranspositionTable.BOUND_EXACT, 1, FoxHoundEngine.NO_MOVE);
+        for (int i = 1; i <= 8; ++i)
+            table.store(deep + i * bucketStride, 1, FoxHoundTranspositionTable.BOUND_EXACT, 1, FoxHoundEngine.NO_MOVE);
+
+        assertNotEquals("Deep entry expected to survive shallow stores.", 0, table.probe(deep));
+        assertTrue("Evictions expected to be counted.", table.collisions() > 0);
+    }
+
+    @Test
+    public void testConcurrentAccessNeverReturnsForeignData() throws InterruptedException {
+        Thread[] threads = new Thread[4];
+        boolean[] failed = new boolean[1];
+        for (int t = 0; t < threads.length; ++t) {
+            long seed = t;
+            threads[t] = new Thread(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 200_000; ++i) {
+                    long key = random.nextInt(5000) * 0x9E3779B97F4A7C15L;
+                    int score = (int) (key >>> 48);
+                    table.store(key, 1, FoxHoundTranspositionTable.BOUND_EXACT, score, FoxHoundEngine.NO_MOVE);
+                    long entry = table.probe(key);
+                    if (entry != 0 && FoxHoundTranspositionTable.score(entry) != score)
+                        failed[0] = true;
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        assertFalse("Entries expected to belong to their key.", failed[0]);
+    }
+
+    // ------------------------- search --------------------
+
+    @Test
+    public void testSearchUsesTable() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+        FoxHoundPosition expected = new FoxHoundPosition(position);
+        FoxHoundEngine engine = new FoxHoundEngine(FoxHoundEngine.DEFAULT_MOVE_TIME, table);
+        engine.setMaxDepth(8);
+
+        int move = engine.bestMove(position, FoxHoundUtils.FOX_FIELD);
+
+        assertEquals("Position expected to be restored after the search.", expected, position);
+        assertTrue("Returned move expected to be legal.", FoxHoundMoves.isLegal(position, FoxHoundUtils.FOX_FIELD,
+                FoxHoundMoves.origin(move), FoxHoundMoves.dest(move)));
+        assertTrue("Table expected to produce hits during the search.", table.hits() > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSize() {
+        new FoxHoundTranspositionTable(0);
+    }
+}
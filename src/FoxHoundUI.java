@@ -1,3 +1,4 @@
+import java.io.PrintStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Scanner;
@@ -14,12 +15,12 @@ public class FoxHoundUI {
     /**
      * Number of main menu entries.
      */
-    private static final int MENU_ENTRIES = 4;
+    private static final int MENU_ENTRIES = 7;
     /**
      * Main menu display string.
      */
     private static final String MAIN_MENU =
-            "\n1. Move\n2. Save Game\n3. Load Game\n4. Exit\n\nEnter 1 - 4:";
+            "\n1. Move\n2. Save Game\n3. Load Game\n4. Exit\n5. Computer Move\n6. Undo\n7. Redo\n\nEnter 1 - 7:";
 
     /**
      * Menu entry to select a move action.
@@ -37,8 +38,24 @@ public class FoxHoundUI {
      * Menu entry to terminate the program.
      */
     public static final int MENU_EXIT = 4;
+    /**
+     * Menu entry to let the computer make the next move.
+     */
+    public static final int MENU_COMPUTER = 5;
+    /**
+     * Menu entry to take back the last move.
+     */
+    public static final int MENU_UNDO = 6;
+    /**
+     * Menu entry to play a taken back move again.
+     */
+    public static final int MENU_REDO = 7;
 
-    private static int check;
+    /**
+     * Renderer of every thread, they keep a reusable buffer.
+     */
+    private static final ThreadLocal<FoxHoundBoardRenderer> RENDERER =
+            ThreadLocal.withInitial(FoxHoundBoardRenderer::new);
 
     /**
      * Displays the game board
@@ -49,82 +66,13 @@ public class FoxHoundUI {
      * @throws NullPointerException     if player array is null
      */
     public static void displayBoard(String[] players, int dimension) {
-        if (dimension < 0)
-            throw new IllegalArgumentException("Error : Dimensions cannot be a negative number!");
-        if (dimension < FoxHoundUtils.MIN_DIM || dimension > FoxHoundUtils.MAX_DIM)
-            throw new IllegalArgumentException("Error : Dimension should be between 4 and 26(inclusive)!");
-        if (players == null)
-            throw new NullPointerException("Error : Array containing positions of fox and hounds cannot be empty!");
-        String co_ords;
-        if (dimension < 10) {
-            System.out.print("  ");
-            for (int i = 1; i <= dimension; ++i)
-                System.out.print((char) (65 + i - 1));
-            System.out.print("  \n\n");
-            for (int i = 1; i <= dimension; ++i) {
-                System.out.print(i + " ");
-                for (char ch = 'A'; ch <= (char) (64 + dimension); ++ch) {
-                    co_ords = ch + Integer.toString(i);
-                    for (int j = 0; j < players.length - 1; ++j) {
-                        if (players[j].equals(co_ords)) {
-                            System.out.print('H');
-                            check = 1;
-                            break;
-                        } else if (players[players.length - 1].equals(co_ords)) {
-                            System.out.print('F');
-                            check = 1;
-                            break;
-                        } else
-                            check = 0;
-                    }
-                    if (check == 0)
-                        System.out.print('.');
-                }
-                System.out.println(" " + i);
-            }
-            System.out.println();
-            System.out.print("  ");
-            for (int i = 1; i <= dimension; ++i)
-                System.out.print((char) (65 + i - 1));
-            System.out.print("  ");
-        } else {
-            System.out.print("   ");
-            for (int i = 1; i <= dimension; ++i)
-                System.out.print((char) (65 + i - 1));
-            System.out.print("\n\n");
-            for (int i = 1; i <= dimension; ++i) {
-                if (i < 10)
-                    System.out.print("0" + i + " ");
-                else
-                    System.out.print(i + " ");
-                for (char ch = 'A'; ch <= (char) (64 + dimension); ++ch) {
-                    co_ords = ch + Integer.toString(i);
-                    for (int j = 0; j < players.length - 1; ++j) {
-                        if (players[j].equals(co_ords)) {
-                            System.out.print('H');
-                            check = 1;
-                            break;
-                        } else if (players[players.length - 1].equals(co_ords)) {
-                            System.out.print('F');
-                            check = 1;
-                            break;
-                        } else
-                            check = 0;
-                    }
-                    if (check == 0)
-                        System.out.print('.');
-                }
-                if (i < 10)
-                    System.out.println(" 0" + i);
-                else
-                    System.out.println(" " + i);
-            }
-            System.out.println();
-            System.out.print("   ");
-            for (int i = 1; i <= dimension; ++i)
-                System.out.print((char) (65 + i - 1));
+        FoxHoundEvents.Rendering event = new FoxHoundEvents.Rendering();
+        event.begin();
+        RENDERER.get().render(players, dimension, System.out);
+        if (event.shouldCommit()) {
+            event.dimension = dimension;
+            event.commit();
         }
-        System.out.println("\n");
     }
 
     /**
@@ -137,6 +85,20 @@ public class FoxHoundUI {
      * @throws NullPointerException     if the given Scanner is null
      */
     public static int mainMenuQuery(char figureToMove, Scanner stdin) {
+        return mainMenuQuery(figureToMove, stdin, System.out);
+    }
+
+    /**
+     * Print the main menu and query the user for an entry selection.
+     *
+     * @param figureToMove the figure type that has the next move
+     * @param stdin        a Scanner object to read user input from
+     * @param out          stream to print the menu to
+     * @return a number representing the menu entry selected by the user
+     * @throws IllegalArgumentException if the given figure type is invalid
+     * @throws NullPointerException     if the given Scanner is null
+     */
+    public static int mainMenuQuery(char figureToMove, Scanner stdin, PrintStream out) {
         Objects.requireNonNull(stdin, "Given Scanner must not be null");
         if (figureToMove != FoxHoundUtils.FOX_FIELD
                 && figureToMove != FoxHoundUtils.HOUND_FIELD) {
@@ -148,8 +110,8 @@ public class FoxHoundUI {
 
         int input = -1;
         while (input == -1) {
-            System.out.println(nextFigure + " to move");
-            System.out.println(MAIN_MENU);
+            out.println(nextFigure + " to move");
+            out.println(MAIN_MENU);
 
             boolean validInput = false;
             if (stdin.hasNextInt()) {
@@ -158,7 +120,7 @@ public class FoxHoundUI {
             }
 
             if (!validInput) {
-                System.out.println("Please enter valid number.");
+                out.println("Please enter valid number.");
                 input = -1; // reset input variable
             }
 
@@ -178,6 +140,21 @@ public class FoxHoundUI {
      * @throws NullPointerException     if the given Scanner is null
      */
     public static String[] positionQuery(int dim, Scanner test_in) {
+        return positionQuery(dim, test_in, System.out, System.err);
+    }
+
+    /**
+     * Print the main menu and query the user for an entry selection.
+     *
+     * @param dim     the dimension of the game board
+     * @param test_in a Scanner object to read user input from
+     * @param out     stream to print the query to
+     * @param err     stream to print errors to
+     * @return a string including the initial and final destination
+     * @throws IllegalArgumentException if the given dimension is invalid
+     * @throws NullPointerException     if the given Scanner is null
+     */
+    public static String[] positionQuery(int dim, Scanner test_in, PrintStream out, PrintStream err) {
         if (dim < 0)
             throw new IllegalArgumentException("Error : Dimensions cannot be a negative number!");
         if (dim < FoxHoundUtils.MIN_DIM || dim > FoxHoundUtils.MAX_DIM)
@@ -188,12 +165,12 @@ public class FoxHoundUI {
         String[] coords = new String[2];
         // while loop runs till the user inputs valid co-ordinates
         while (input == -1) {
-            System.out.println("Provide origin and destination coordinates.\nEnter two positions between A1-" + column + dim + ":");
+            out.println("Provide origin and destination coordinates.\nEnter two positions between A1-" + column + dim + ":");
             coordinates = test_in.nextLine();
             Objects.requireNonNull(test_in, "Given Scanner must not be null");
             coords = coordinates.split(" ");
             if (coords.length != 2)
-                System.err.println("Error: Invalid co-ordinates!");
+                err.println("Error: Invalid co-ordinates!");
             else {
                 if (dim < 10) {
                     row_origin = coords[0].charAt(1) - 48;
@@ -219,8 +196,8 @@ public class FoxHoundUI {
                 if (65 <= (int) coords[0].charAt(0) && (int) coords[0].charAt(0) <= (int) column && 65 <= (int) coords[1].charAt(0) && (int) coords[1].charAt(0) <= (int) column && 1 <= row_origin && 1 <= row_dest && row_origin <= dim && row_dest <= dim)
                     input = 1;
                 else {
-                    System.out.println();
-                    System.err.println("ERROR: Please enter valid coordinate pair separated by space.");
+                    out.println();
+                    err.println("ERROR: Please enter valid coordinate pair separated by space.");
                 }
             }
         }
@@ -237,7 +214,18 @@ public class FoxHoundUI {
      * @return a path to the file where the game is loaded from or saved
      */
     public static Path fileQuery(Scanner test_in) {
-        System.out.print("Enter file path: ");
+        return fileQuery(test_in, System.out);
+    }
+
+    /**
+     * Print the main menu and query the user for an entry selection.
+     *
+     * @param test_in a Scanner object to read user input from
+     * @param out     stream to print the query to
+     * @return a path to the file where the game is loaded from or saved
+     */
+    public static Path fileQuery(Scanner test_in, PrintStream out) {
+        out.print("Enter file path: ");
         return Paths.get(test_in.next());
     }
 }
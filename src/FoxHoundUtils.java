@@ -77,12 +77,11 @@ public class FoxHoundUtils {
      *
      * @param foxPos a string containing the position of fox on the board
      * @return a boolean indicating whether the fox have won or not
+     * @throws NullPointerException if the given position is null
      */
     public static boolean isFoxWin(String foxPos) {
-        boolean check_fox_won = false;
-        if (foxPos.charAt(1) == '1' && foxPos.length() == 2)
-            check_fox_won = true;
-        return check_fox_won;
+        // the row part has to be exactly "1", so "B10" and "B01" are no wins
+        return foxPos.length() == 2 && foxPos.charAt(1) == '1';
     }
 
     /**
@@ -91,26 +90,11 @@ public class FoxHoundUtils {
      * @param players   an array containing the positions of fox and hounds
      * @param dimension size of the board
      * @return a boolean value indicating whether hounds have won the game or not
-     * @throws IllegalArgumentException if the given dimension is invalid
+     * @throws IllegalArgumentException if the given dimension or player array is invalid
      * @throws NullPointerException     if player array is null
      */
     public static boolean isHoundWin(String[] players, int dimension) {
-        if (dimension < 0)
-            throw new IllegalArgumentException("Error : Dimension cannot be negative!");
-        if (players == null)
-            throw new NullPointerException("Error : Strings containing the positions cannot be empty!");
-        boolean check_hounds_won = true;
-        String co_ord;
-        for (int i = 1; i <= dimension; ++i) {
-            for (char ch = 'A'; ch <= (char) (64 + dimension); ++ch) {
-                co_ord = ch + Integer.toString(i);
-                if (isValidMove(dimension, players, 'F', players[dimension / 2], co_ord)) {
-                    check_hounds_won = false;
-                    break;
-                }
-            }
-        }
-        return check_hounds_won;
+        return FoxHoundPosition.fromPlayers(players, dimension).isFoxTrapped();
     }
 
     /**
@@ -122,101 +106,15 @@ public class FoxHoundUtils {
      * @param origin  a string representing the initial position of the piece
      * @param dest    a string representing the destination(final position) of the piece
      * @return a boolean value indicating whether the move is valid or not
-     * @throws IllegalArgumentException if the given dimension is invalid
+     * @throws IllegalArgumentException if the given dimension or player array is invalid
      * @throws NullPointerException     if player array is null
      */
     public static boolean isValidMove(int dim, String[] players, char figure, String origin, String dest) {
-        if (dim < 0)
-            throw new IllegalArgumentException("Error : Dimensions cannot be a negative number!");
-        if (dim < FoxHoundUtils.MIN_DIM || dim > FoxHoundUtils.MAX_DIM)
-            throw new IllegalArgumentException("Error : Dimension should be between 4 and 26(inclusive)!");
-        if (players == null)
-            throw new NullPointerException("Error : Array including positions of fox and hounds cannot be empty!");
-        boolean validity = false;
-        int check = 1, i;
-        if (figure == 'F') {
-            if (origin.equals(players[dim / 2])) {
-                if (65 <= dest.charAt(0) && dest.charAt(0) <= (char) (64 + dim) && (((dest.charAt(0) - origin.charAt(0)) == 1) || ((dest.charAt(0) - origin.charAt(0)) == -1))) {
-                    if (dim < 10) {
-                        if ((0 < (dest.charAt(1) - 48)) && ((int) (dest.charAt(1)) - 48 <= dim) && (((dest.charAt(1) - origin.charAt(1)) == -1) || ((dest.charAt(1) - origin.charAt(1)) == 1))) {
-                            for (i = 0; i <= dim / 2; ++i)
-                                if (dest.equals(players[i])) {
-                                    check = 0;
-                                    break;
-                                }
-                            if (check == 1)
-                                validity = true;
-                        }
-                    } else {
-                        if(dest.length() > 2 && origin.length() > 2) {
-                            if (((((int) (dest.charAt(1)) - 48) * 10 + (int) (dest.charAt(2)) - 48) <= dim) && ((((((int) (dest.charAt(1)) - 48) * 10 + (int) (dest.charAt(2)) - 48) - (((int) (origin.charAt(1)) - 48) * 10 + (int) (origin.charAt(2)) - 48)) == -1) || (((((int) (dest.charAt(1)) - 48) * 10 + (int) (dest.charAt(2)) - 48) - (((int) (origin.charAt(1)) - 48) * 10 + (int) (origin.charAt(2)) - 48)) == 1))) {
-                                for (i = 0; i <= dim / 2; ++i)
-                                    if (dest.equals(players[i])) {
-                                        check = 0;
-                                        break;
-                                    }
-                                if (check == 1)
-                                    validity = true;
-                            }
-                        }
-                        else if(dest.length() > 2 && origin.length() == 2) {
-                            if (((((int) (dest.charAt(1)) - 48) * 10 + (int) (dest.charAt(2)) - 48) <= dim) && (((((int) (dest.charAt(1)) - 48) * 10 + (int) (dest.charAt(2)) - 48) - ((int) (origin.charAt(1)) - 48) == -1) || ((((int) (dest.charAt(1)) - 48) * 10 + (int) (dest.charAt(2)) - 48) - (((int) (origin.charAt(1)) - 48)) == 1))) {
-                                for (i = 0; i <= dim / 2; ++i)
-                                    if (dest.equals(players[i])) {
-                                        check = 0;
-                                        break;
-                                    }
-                                if (check == 1)
-                                    validity = true;
-                            }
-                        }
-                        else if(dest.length() == 2 && origin.length() > 2) {
-                            if ((((int) (dest.charAt(1)) - 48) <= dim) && (((((int) (dest.charAt(1)) - 48) - (((int) (origin.charAt(1)) - 48) * 10 + (int) (origin.charAt(2)) - 48)) == -1) || ((((int) (dest.charAt(1)) - 48) - (((int) (origin.charAt(1)) - 48) * 10 + (int) (origin.charAt(2)) - 48)) == 1))) {
-                                for (i = 0; i <= dim / 2; ++i)
-                                    if (dest.equals(players[i])) {
-                                        check = 0;
-                                        break;
-                                    }
-                                if (check == 1)
-                                    validity = true;
-                            }
-                        }
-                        else {
-                            if ((((int) (dest.charAt(1)) - 48) <= dim) && ((((int) (dest.charAt(1)) - 48) - ((int) (origin.charAt(1)) - 48) == -1) || (((int) (dest.charAt(1)) - 48) - ((int) (origin.charAt(1)) - 48) == 1))) {
-                                for (i = 0; i <= dim / 2; ++i)
-                                    if (dest.equals(players[i])) {
-                                        check = 0;
-                                        break;
-                                    }
-                                if (check == 1)
-                                    validity = true;
-                            }
-                        }
-                    }
-                }
-            }
-        } else {
-            for (i = 0; i < dim / 2; ++i)
-                if (origin.equals(players[i])) {
-                    if ((dest.charAt(0) <= (char) (64 + dim)) && (((dest.charAt(0) - origin.charAt(0)) == 1) || ((dest.charAt(0) - origin.charAt(0)) == -1))) {
-                        if (dim < 10) {
-                            if (((int) (dest.charAt(1)) - 48 <= dim) && (int) (dest.charAt(1) - origin.charAt(1)) == 1)
-                                for (i = 0; i <= dim / 2; ++i)
-                                    if (dest.equals(players[i])) {
-                                        check = 0;
-                                        break;
-                                    }
-                        } else if (((((int) (dest.charAt(1)) - 48) * 10 + (int) (dest.charAt(2)) - 48) <= dim) && (((((int) (dest.charAt(1)) - 48) * 10 + (int) (dest.charAt(2)) - 48) - (((int) (origin.charAt(1)) - 48) * 10 + (int) (origin.charAt(2)) - 48)) == 1))
-                            for (i = 0; i < dim / 2; ++i)
-                                if (dest.equals(players[i])) {
-                                    check = 0;
-                                    break;
-                                }
-                        if (check == 1)
-                            validity = true;
-                    }
-                }
-        }
-        return validity;
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(players, dim);
+        int from = FoxHoundPosition.square(origin, dim);
+        int to = FoxHoundPosition.square(dest, dim);
+        if (from < 0 || to < 0)
+            return false;
+        return FoxHoundMoves.isLegal(position, figure, from, to);
     }
 }
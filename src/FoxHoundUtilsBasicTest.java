@@ -55,6 +55,24 @@ public class FoxHoundUtilsBasicTest {
         assertFalse("Fox is not expected to win in position: " + foxPos, result);
     }
 
+    @Test
+    public void testIsFoxWinTwoDigitRows() {
+        String foxPos = "B10";
+        boolean result = FoxHoundUtils.isFoxWin(foxPos);
+
+        assertFalse("Fox is not expected to win in position: " + foxPos, result);
+
+        foxPos = "B01";
+        result = FoxHoundUtils.isFoxWin(foxPos);
+
+        assertFalse("Fox is not expected to win in position: " + foxPos, result);
+
+        foxPos = "B1x";
+        result = FoxHoundUtils.isFoxWin(foxPos);
+
+        assertFalse("Fox is not expected to win in position: " + foxPos, result);
+    }
+
     @Test(expected = NullPointerException.class)
     public void testIsFoxWinNull() {
         FoxHoundUtils.isFoxWin(null);
@@ -86,6 +104,21 @@ public class FoxHoundUtilsBasicTest {
         assertFalse("Hounds are not expected to win in given positions.", result);
     }
 
+    @Test
+    public void testIsHoundWinLargeBoard() {
+        String[] players = {"A2","C2","E2","G2","I2","K2","M2","O2","Q2","S2","T1","V1","X1","B1"};
+        int dimension = FoxHoundUtils.MAX_DIM;
+
+        boolean result = FoxHoundUtils.isHoundWin(players, dimension);
+
+        assertTrue("Hounds are expected to win with the fox trapped in the corner.", result);
+
+        players[1] = "C3";
+        result = FoxHoundUtils.isHoundWin(players, dimension);
+
+        assertFalse("Hounds are not expected to win in given positions.", result);
+    }
+
     @Test(expected = NullPointerException.class)
     public void testIsHoundWinPNull() {
         FoxHoundUtils.isHoundWin(null, FoxHoundUtils.DEFAULT_DIM);
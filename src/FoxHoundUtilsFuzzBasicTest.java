@@ -0,0 +1,431 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+/**
+ * Differential fuzzing of the move and win checks against the string
+ * based rules of the original implementation.
+ * <p>
+ * Random reachable positions of all dimensions are probed with random
+ * move attempts. {@link FoxHoundUtils#isValidMove} has to agree with the
+ * move generator everywhere, and with the original rules wherever those
+ * follow the game rules: the original accepts hound moves backwards,
+ * hounds moving onto the fox on boards of size 10 and more, and fails
+ * with an exception for hound moves from or to a row below 10 there, so
+ * those attempts are only compared with the generator. The first
+ * divergence is reduced to the shortest game prefix that shows one.
+ * The number of attempts can be raised with the system property
+ * {@code foxhound.fuzzAttempts}.
+ */
+public class FoxHoundUtilsFuzzBasicTest {
+
+    private static final long ATTEMPTS = Long.getLong("foxhound.fuzzAttempts", 4_000_000);
+    private static final int ATTEMPTS_PER_POSITION = 32;
+
+    // ------------------------- rules under test --------------------
+
+    interface Rules {
+        boolean isValidMove(int dim, String[] players, char figure, String origin, String dest);
+
+        boolean isHoundWin(String[] players, int dim);
+    }
+
+    private static final Rules FAST = new Rules() {
+        @Override
+        public boolean isValidMove(int dim, String[] players, char figure, String origin, String dest) {
+            return FoxHoundUtils.isValidMove(dim, players, figure, origin, dest);
+        }
+
+        @Override
+        public boolean isHoundWin(String[] players, int dim) {
+            return FoxHoundUtils.isHoundWin(players, dim);
+        }
+    };
+
+    // ------------------------- harness --------------------
+
+    static final class Divergence {
+        final String check;
+        final int dim;
+        final int plies;
+        final String[] players;
+        final char figure;
+        final String origin;
+        final String dest;
+        final boolean expected;
+        final boolean actual;
+
+        Divergence(String check, int dim, int plies, String[] players, char figure, String origin, String dest,
+                   boolean expected, boolean actual) {
+            this.check = check;
+            this.dim = dim;
+            this.plies = plies;
+            this.players = players;
+            this.figure = figure;
+            this.origin = origin;
+            this.dest = dest;
+            this.expected = expected;
+            this.actual = actual;
+        }
+
+        @Override
+        public String toString() {
+            return check + " diverges on dimension " + dim + " after " + plies + " moves, players "
+                    + String.join(" ", players) + (origin == null ? "" : ", " + figure + " " + origin + " " + dest)
+                    + ": expected " + expected + " but was " + actual;
+        }
+    }
+
+    static final class Fuzzer {
+
+        private final Rules rules;
+        private final SplittableRandom random;
+        private final int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+
+        Fuzzer(Rules rules, long seed) {
+            this.rules = rules;
+            this.random = new SplittableRandom(seed);
+        }
+
+        Divergence run(long attempts, AtomicBoolean stop) {
+            for (long done = 0; done < attempts && !stop.get(); done += ATTEMPTS_PER_POSITION) {
+                int dim = FoxHoundUtils.MIN_DIM + random.nextInt(FoxHoundUtils.MAX_DIM - FoxHoundUtils.MIN_DIM + 1);
+                int[] path = randomPath(dim);
+                FoxHoundPosition position = replay(dim, path, path.length);
+                Divergence divergence = checkWins(position, path.length);
+                for (int i = 0; i < ATTEMPTS_PER_POSITION && divergence == null; ++i)
+                    divergence = randomAttempt(position, path.length);
+                if (divergence != null) {
+                    stop.set(true);
+                    return minimise(dim, path, divergence);
+                }
+            }
+            return null;
+        }
+
+        // random moves from the initial position, up to a random length or the end of the game
+        private int[] randomPath(int dim) {
+            FoxHoundPosition position = replay(dim, new int[0], 0);
+            int length = random.nextInt(FoxHoundSimulator.maxLength(dim));
+            int[] path = new int[length];
+            int plies = 0;
+            while (plies < length && !position.isFoxHome()) {
+                int count = FoxHoundMoves.generate(position, position.turn(), moves);
+                if (count == 0)
+                    break;
+                path[plies] = moves[random.nextInt(count)];
+                position.make(path[plies++]);
+            }
+            return Arrays.copyOf(path, plies);
+        }
+
+        private static FoxHoundPosition replay(int dim, int[] path, int plies) {
+            FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+            for (int i = 0; i < plies; ++i)
+                position.make(path[i]);
+            return position;
+        }
+
+        // mostly own figures moving to neighbouring squares, sometimes anything
+        private Divergence randomAttempt(FoxHoundPosition position, int plies) {
+            int dim = position.dimension();
+            FoxHoundTables tables = position.tables();
+            char figure = random.nextBoolean() ? FoxHoundUtils.FOX_FIELD : FoxHoundUtils.HOUND_FIELD;
+            int origin;
+            if (random.nextInt(4) == 0) {
+                origin = random.nextInt(dim * dim);
+            } else if (figure == FoxHoundUtils.FOX_FIELD) {
+                origin = position.fox();
+            } else {
+                int count = FoxHoundMoves.generate(position, FoxHoundUtils.HOUND_FIELD, moves);
+                origin = count > 0 ? FoxHoundMoves.origin(moves[random.nextInt(count)]) : random.nextInt(dim * dim);
+            }
+            int dest = random.nextInt(4) == 0 ? random.nextInt(dim * dim)
+                    : tables.foxTarget(origin, random.nextInt(tables.foxTargetCount(origin)));
+            return checkMove(position, plies, figure, origin, dest);
+        }
+
+        private Divergence checkMove(FoxHoundPosition position, int plies, char figure, int origin, int dest) {
+            int dim = position.dimension();
+            String[] players = position.toPlayers();
+            String from = FoxHoundPosition.coordinate(origin, dim);
+            String to = FoxHoundPosition.coordinate(dest, dim);
+            boolean actual = rules.isValidMove(dim, players, figure, from, to);
+            boolean generated = false;
+            int count = FoxHoundMoves.generate(position, figure, moves);
+            for (int i = 0; i < count; ++i)
+                generated |= moves[i] == FoxHoundMoves.encode(origin, dest);
+            if (actual != generated)
+                return new Divergence("move generator", dim, plies, players, figure, from, to, generated, actual);
+            if (legacyDefined(position, figure, origin, dest)) {
+                boolean legacy = Legacy.isValidMove(dim, players, figure, from, to);
+                if (actual != legacy)
+                    return new Divergence("isValidMove", dim, plies, players, figure, from, to, legacy, actual);
+            }
+            return null;
+        }
+
+        private Divergence checkWins(FoxHoundPosition position, int plies) {
+            int dim = position.dimension();
+            String[] players = position.toPlayers();
+            boolean legacy = Legacy.isHoundWin(players, dim);
+            boolean actual = rules.isHoundWin(players, dim);
+            if (actual != legacy || actual != position.isFoxTrapped())
+                return new Divergence("isHoundWin", dim, plies, players, ' ', null, null, legacy, actual);
+            String fox = players[players.length - 1];
+            if (Legacy.isFoxWin(fox) != FoxHoundUtils.isFoxWin(fox) || Legacy.isFoxWin(fox) != position.isFoxHome())
+                return new Divergence("isFoxWin", dim, plies, players, ' ', null, null,
+                        Legacy.isFoxWin(fox), FoxHoundUtils.isFoxWin(fox));
+            return null;
+        }
+
+        // where the original rules follow the game rules, see the class comment
+        private static boolean legacyDefined(FoxHoundPosition position, char figure, int origin, int dest) {
+            if (figure == FoxHoundUtils.FOX_FIELD)
+                return true;
+            int dim = position.dimension();
+            FoxHoundTables tables = position.tables();
+            if (tables.row(dest) != tables.row(origin) + 1)
+                return false;
+            return dim < 10 || tables.row(origin) >= 9 && dest != position.fox();
+        }
+
+        // the shortest prefix of the game with a divergence, probing every move of every figure
+        private Divergence minimise(int dim, int[] path, Divergence found) {
+            for (int plies = 0; plies <= path.length; ++plies) {
+                FoxHoundPosition position = replay(dim, path, plies);
+                Divergence divergence = checkWins(position, plies);
+                long[] figures = new long[position.words()];
+                for (int w = 0; w < figures.length; ++w)
+                    figures[w] = position.houndWord(w);
+                figures[position.fox() >>> 6] |= 1L << position.fox();
+                for (int origin = 0; origin < dim * dim && divergence == null; ++origin) {
+                    if ((figures[origin >>> 6] & 1L << origin) == 0)
+                        continue;
+                    for (int dest = 0; dest < dim * dim && divergence == null; ++dest) {
+                        divergence = checkMove(position, plies, FoxHoundUtils.FOX_FIELD, origin, dest);
+                        if (divergence == null)
+                            divergence = checkMove(position, plies, FoxHoundUtils.HOUND_FIELD, origin, dest);
+                    }
+                }
+                if (divergence != null)
+                    return divergence;
+            }
+            return found; // only shows with an origin that holds no figure
+        }
+    }
+
+    private static Divergence fuzz(Rules rules, long attempts, long seed) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        AtomicBoolean stop = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Divergence>> results = new ArrayList<>();
+            for (int t = 0; t < threads; ++t) {
+                Fuzzer fuzzer = new Fuzzer(rules, seed + t);
+                results.add(pool.submit(() -> fuzzer.run(attempts / threads, stop)));
+            }
+            Divergence first = null;
+            for (Future<Divergence> result : results) {
+                Divergence divergence = result.get();
+                if (first == null || divergence != null && divergence.plies < first.plies)
+                    first = divergence != null ? divergence : first;
+            }
+            return first;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // ------------------------- tests --------------------
+
+    @Test
+    public void testAgreesWithLegacyRules() throws Exception {
+        Divergence divergence = fuzz(FAST, ATTEMPTS, 20240229);
+
+        assertNull(String.valueOf(divergence), divergence);
+    }
+
+    @Test
+    public void testFindsPlantedDivergence() throws Exception {
+        // hounds that may also capture the fox by moving onto it
+        Rules broken = new Rules() {
+            @Override
+            public boolean isValidMove(int dim, String[] players, char figure, String origin, String dest) {
+                if (figure == FoxHoundUtils.HOUND_FIELD && dest.equals(players[players.length - 1])) {
+                    int from = FoxHoundPosition.square(origin, dim), to = FoxHoundPosition.square(dest, dim);
+                    return to - from == dim - 1 || to - from == dim + 1;
+                }
+                return FAST.isValidMove(dim, players, figure, origin, dest);
+            }
+
+            @Override
+            public boolean isHoundWin(String[] players, int dim) {
+                return FAST.isHoundWin(players, dim);
+            }
+        };
+
+        Divergence divergence = fuzz(broken, ATTEMPTS, 1);
+
+        assertNotNull("Planted divergence expected to be found.", divergence);
+        assertEquals("Divergence expected for a hound move.", FoxHoundUtils.HOUND_FIELD, divergence.figure);
+        assertEquals("Divergence expected onto the fox.", divergence.players[divergence.players.length - 1], divergence.dest);
+    }
+
+    // ------------------------- original rules --------------------
+
+    // FoxHoundUtils as it was before the bitboard rewrite, unchanged
+    @SuppressWarnings("cast")
+    static class Legacy {
+        public static boolean isFoxWin(String foxPos) {
+            boolean check_fox_won = false;
+            if (foxPos.charAt(1) == '1' && foxPos.length() == 2)
+                check_fox_won = true;
+            return check_fox_won;
+        }
+
+        /**
+         * Checks if hounds have won the game
+         *
+         * @param players   an array containing the positions of fox and hounds
+         * @param dimension size of the board
+         * @return a boolean value indicating whether hounds have won the game or not
+         * @throws IllegalArgumentException if the given dimension is invalid
+         * @throws NullPointerException     if player array is null
+         */
+        public static boolean isHoundWin(String[] players, int dimension) {
+            if (dimension < 0)
+                throw new IllegalArgumentException("Error : Dimension cannot be negative!");
+            if (players == null)
+                throw new NullPointerException("Error : Strings containing the positions cannot be empty!");
+            boolean check_hounds_won = true;
+            String co_ord;
+            for (int i = 1; i <= dimension; ++i) {
+                for (char ch = 'A'; ch <= (char) (64 + dimension); ++ch) {
+                    co_ord = ch + Integer.toString(i);
+                    if (isValidMove(dimension, players, 'F', players[dimension / 2], co_ord)) {
+                        check_hounds_won = false;
+                        break;
+                    }
+                }
+            }
+            return check_hounds_won;
+        }
+
+        /**
+         * Checks if the move given by the user is valid
+         *
+         * @param players an array containing the positions of fox and hounds
+         * @param dim     size of the board
+         * @param figure  a character indicating the piece(fox or hound) to be moved
+         * @param origin  a string representing the initial position of the piece
+         * @param dest    a string representing the destination(final position) of the piece
+         * @return a boolean value indicating whether the move is valid or not
+         * @throws IllegalArgumentException if the given dimension is invalid
+         * @throws NullPointerException     if player array is null
+         */
+        public static boolean isValidMove(int dim, String[] players, char figure, String origin, String dest) {
+            if (dim < 0)
+                throw new IllegalArgumentException("Error : Dimensions cannot be a negative number!");
+            if (dim < FoxHoundUtils.MIN_DIM || dim > FoxHoundUtils.MAX_DIM)
+                throw new IllegalArgumentException("Error : Dimension should be between 4 and 26(inclusive)!");
+            if (players == null)
+                throw new NullPointerException("Error : Array including positions of fox and hounds cannot be empty!");
+            boolean validity = false;
+            int check = 1, i;
+            if (figure == 'F') {
+                if (origin.equals(players[dim / 2])) {
+                    if (65 <= dest.charAt(0) && dest.charAt(0) <= (char) (64 + dim) && (((dest.charAt(0) - origin.charAt(0)) == 1) || ((dest.charAt(0) - origin.charAt(0)) == -1))) {
+                        if (dim < 10) {
+                            if ((0 < (dest.charAt(1) - 48)) && ((int) (dest.charAt(1)) - 48 <= dim) && (((dest.charAt(1) - origin.charAt(1)) == -1) || ((dest.charAt(1) - origin.charAt(1)) == 1))) {
+                                for (i = 0; i <= dim / 2; ++i)
+                                    if (dest.equals(players[i])) {
+                                        check = 0;
+                                        break;
+                                    }
+                                if (check == 1)
+                                    validity = true;
+                            }
+                        } else {
+                            if(dest.length() > 2 && origin.length() > 2) {
+                                if (((((int) (dest.charAt(1)) - 48) * 10 + (int) (dest.charAt(2)) - 48) <= dim) && ((((((int) (dest.charAt(1)) - 48) * 10 + (int) (dest.charAt(2)) - 48) - (((int) (origin.charAt(1)) - 48) * 10 + (int) (origin.charAt(2)) - 48)) == -1) || (((((int) (dest.charAt(1)) - 48) * 10 + (int) (dest.charAt(2)) - 48) - (((int) (origin.charAt(1)) - 48) * 10 + (int) (origin.charAt(2)) - 48)) == 1))) {
+                                    for (i = 0; i <= dim / 2; ++i)
+                                        if (dest.equals(players[i])) {
+                                            check = 0;
+                                            break;
+                                        }
+                                    if (check == 1)
+                                        validity = true;
+                                }
+                            }
+                            else if(dest.length() > 2 && origin.length() == 2) {
+                                if (((((int) (dest.charAt(1)) - 48) * 10 + (int) (dest.charAt(2)) - 48) <= dim) && (((((int) (dest.charAt(1)) - 48) * 10 + (int) (dest.charAt(2)) - 48) - ((int) (origin.charAt(1)) - 48) == -1) || ((((int) (dest.charAt(1)) - 48) * 10 + (int) (dest.charAt(2)) - 48) - (((int) (origin.charAt(1)) - 48)) == 1))) {
+                                    for (i = 0; i <= dim / 2; ++i)
+                                        if (dest.equals(players[i])) {
+                                            check = 0;
+                                            break;
+                                        }
+                                    if (check == 1)
+                                        validity = true;
+                                }
+                            }
+                            else if(dest.length() == 2 && origin.length() > 2) {
+                                if ((((int) (dest.charAt(1)) - 48) <= dim) && (((((int) (dest.charAt(1)) - 48) - (((int) (origin.charAt(1)) - 48) * 10 + (int) (origin.charAt(2)) - 48)) == -1) || ((((int) (dest.charAt(1)) - 48) - (((int) (origin.charAt(1)) - 48) * 10 + (int) (origin.charAt(2)) - 48)) == 1))) {
+                                    for (i = 0; i <= dim / 2; ++i)
+                                        if (dest.equals(players[i])) {
+                                            check = 0;
+                                            break;
+                                        }
+                                    if (check == 1)
+                                        validity = true;
+                                }
+                            }
+                            else {
+                                if ((((int) (dest.charAt(1)) - 48) <= dim) && ((((int) (dest.charAt(1)) - 48) - ((int) (origin.charAt(1)) - 48) == -1) || (((int) (dest.charAt(1)) - 48) - ((int) (origin.charAt(1)) - 48) == 1))) {
+                                    for (i = 0; i <= dim / 2; ++i)
+                                        if (dest.equals(players[i])) {
+                                            check = 0;
+                                            break;
+                                        }
+                                    if (check == 1)
+                                        validity = true;
+                                }
+                            }
+                        }
+                    }
+                }
+            } else {
+                for (i = 0; i < dim / 2; ++i)
+                    if (origin.equals(players[i])) {
+                        if ((dest.charAt(0) <= (char) (64 + dim)) && (((dest.charAt(0) - origin.charAt(0)) == 1) || ((dest.charAt(0) - origin.charAt(0)) == -1))) {
+                            if (dim < 10) {
+                                if (((int) (dest.charAt(1)) - 48 <= dim) && (int) (dest.charAt(1) - origin.charAt(1)) == 1)
+                                    for (i = 0; i <= dim / 2; ++i)
+                                        if (dest.equals(players[i])) {
+                                            check = 0;
+                                            break;
+                                        }
+                            } else if (((((int) (dest.charAt(1)) - 48) * 10 + (int) (dest.charAt(2)) - 48) <= dim) && (((((int) (dest.charAt(1)) - 48) * 10 + (int) (dest.charAt(2)) - 48) - (((int) (origin.charAt(1)) - 48) * 10 + (int) (origin.charAt(2)) - 48)) == 1))
+                                for (i = 0; i < dim / 2; ++i)
+                                    if (dest.equals(players[i])) {
+                                        check = 0;
+                                        break;
+                                    }
+                            if (check == 1)
+                                validity = true;
+                        }
+                    }
+            }
+            return validity;
+        }
+    }
+}
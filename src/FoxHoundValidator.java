@@ -0,0 +1,364 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks whole directory trees of save files.
+ * <p>
+ * Every regular file below the given directory is read on a bounded pool
+ * of threads and checked completely: a text game against the rules of
+ * {@link FoxHoundIO#loadGame} for the given board size, a binary game
+ * against its format and checksum, and both for figures outside the
+ * board, on light squares and on the same square. The failures are
+ * reported with a {@link Reason} and a detail message, one per line:
+ * <pre>
+ * path TAB reason TAB detail
+ * </pre>
+ */
+public class FoxHoundValidator {
+
+    /**
+     * Why a save file is invalid.
+     */
+    public enum Reason {
+        /**
+         * The file cannot be read.
+         */
+        UNREADABLE,
+        /**
+         * The text is not a single line of space separated fields.
+         */
+        SYNTAX,
+        /**
+         * The figure to move is neither {@code F} nor {@code H}.
+         */
+        SIDE_TO_MOVE,
+        /**
+         * The number of figures does not match the board size.
+         */
+        DIMENSION,
+        /**
+         * A figure stands outside of the board.
+         */
+        OFF_BOARD,
+        /**
+         * A figure stands on a light square, which no move can reach.
+         */
+        SQUARE_COLOUR,
+        /**
+         * Two figures stand on the same square.
+         */
+        OVERLAP,
+        /**
+         * A binary game fails its format or checksum.
+         */
+        CORRUPT
+    }
+
+    /**
+     * An invalid save file.
+     */
+    public static final class Failure {
+
+        private final Path file;
+        private final Reason reason;
+        private final String detail;
+
+        Failure(Path file, Reason reason, String detail) {
+            this.file = file;
+            this.reason = reason;
+            this.detail = detail;
+        }
+
+        /**
+         * @return the invalid file
+         */
+        public Path file() {
+            return file;
+        }
+
+        /**
+         * @return why the file is invalid
+         */
+        public Reason reason() {
+            return reason;
+        }
+
+        /**
+         * @return a description of the first problem found
+         */
+        public String detail() {
+            return detail;
+        }
+
+        @Override
+        public String toString() {
+            return file + "\t" + reason + "\t" + detail;
+        }
+    }
+
+    // tasks waiting per thread before the walking thread checks files itself
+    private static final int QUEUE_PER_THREAD = 64;
+
+    private final int threads;
+    private final int dim;
+    private final AtomicLong files = new AtomicLong();
+
+    /**
+     * Creates a validator.
+     *
+     * @param threads number of threads reading and checking files
+     * @param dim     board size of text games, which do not record it
+     * @throws IllegalArgumentException if the thread count is not positive or the dimension is invalid
+     */
+    public FoxHoundValidator(int threads, int dim) {
+        if (threads <= 0)
+            throw new IllegalArgumentException("Error: Number of threads has to be positive!");
+        FoxHoundPosition.checkDimension(dim);
+        this.threads = threads;
+        this.dim = dim;
+    }
+
+    /**
+     * @return number of files visited by the last call of {@link #validateTree}, including those
+     * that could not be read
+     */
+    public long files() {
+        return files.get();
+    }
+
+    /**
+     * Checks every regular file below a directory.
+     *
+     * @param root the directory to walk
+     * @return the invalid files ordered by path
+     * @throws IOException          if the directory cannot be walked
+     * @throws InterruptedException if interrupted while waiting for the checks
+     * @throws NullPointerException if the given path is null
+     */
+    public List<Failure> validateTree(Path root) throws IOException, InterruptedException {
+        if (root == null)
+            throw new NullPointerException("Error: Directory cannot be empty!");
+        files.set(0);
+        Queue<Failure> failures = new ConcurrentLinkedQueue<>();
+        // a full queue makes the walking thread check files itself instead of queueing the whole tree
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * QUEUE_PER_THREAD), new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    if (attributes.isRegularFile())
+                        pool.execute(() -> {
+                            Failure failure = check(file, dim);
+                            if (failure != null)
+                                failures.add(failure);
+                            files.incrementAndGet();
+                        });
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    failures.add(new Failure(file, Reason.UNREADABLE, String.valueOf(e.getMessage())));
+                    files.incrementAndGet();
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        List<Failure> sorted = new ArrayList<>(failures);
+        sorted.sort(Comparator.comparing(Failure::file));
+        return sorted;
+    }
+
+    // validate, with any unexpected exception reported as a corrupt file instead of lost in the pool
+    static Failure check(Path file, int dim) {
+        try {
+            return validate(file, dim);
+        } catch (RuntimeException e) {
+            return new Failure(file, Reason.CORRUPT, String.valueOf(e));
+        }
+    }
+
+    /**
+     * Reads and checks a single save file.
+     *
+     * @param file a path to the save file
+     * @param dim  board size of a text game
+     * @return the failure, null if the file is valid
+     * @throws NullPointerException if the given path is null
+     */
+    public static Failure validate(Path file, int dim) {
+        if (file == null)
+            throw new NullPointerException("Error: File name cannot be empty!");
+        byte[] content;
+        try {
+            content = Files.readAllBytes(file);
+        } catch (IOException e) {
+            return new Failure(file, Reason.UNREADABLE, String.valueOf(e.getMessage()));
+        }
+        return validate(file, content, dim);
+    }
+
+    /**
+     * Checks the content of a save file.
+     *
+     * @param file    path of the file, used in the failure only
+     * @param content the bytes of the file
+     * @param dim     board size of a text game
+     * @return the failure, null if the content is a valid game
+     * @throws IllegalArgumentException if the dimension is invalid
+     * @throws NullPointerException     if the content is null
+     */
+    public static Failure validate(Path file, byte[] content, int dim) {
+        FoxHoundPosition.checkDimension(dim);
+        if (content.length >= 4 && ByteBuffer.wrap(content).getInt(0) == FoxHoundIO.BINARY_MAGIC)
+            return validateBinary(file, content);
+        return validateText(file, content, dim);
+    }
+
+    private static Failure validateBinary(Path file, byte[] content) {
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        FoxHoundPosition position;
+        try {
+            position = FoxHoundIO.readBinary(buffer, true);
+        } catch (IllegalArgumentException e) {
+            return new Failure(file, Reason.CORRUPT, e.getMessage());
+        }
+        if (buffer.hasRemaining())
+            return new Failure(file, Reason.CORRUPT, buffer.remaining() + " bytes after the game");
+        int dim = position.dimension();
+        if (!isDark(position.fox(), dim))
+            return colour(file, position.fox(), dim);
+        for (int w = 0; w < position.words(); ++w)
+            for (long bits = position.houndWord(w); bits != 0; bits &= bits - 1) {
+                int square = (w << 6) + Long.numberOfTrailingZeros(bits);
+                if (!isDark(square, dim))
+                    return colour(file, square, dim);
+            }
+        return null;
+    }
+
+    // the same format loadGame reads, parsed from the bytes without creating strings
+    private static Failure validateText(Path file, byte[] content, int dim) {
+        int end = content.length;
+        if (end > 0 && content[end - 1] == '\n')
+            --end;
+        if (end > 0 && content[end - 1] == '\r')
+            --end;
+        if (end == 0)
+            return new Failure(file, Reason.SYNTAX, "empty file");
+        for (int i = 0; i < end; ++i)
+            if (content[i] == '\n' || content[i] == '\r')
+                return new Failure(file, Reason.SYNTAX, "more than one line");
+        if (end < 2 || content[1] != ' ')
+            return new Failure(file, Reason.SIDE_TO_MOVE, "first field has to be F or H");
+        if (content[0] != FoxHoundUtils.FOX_FIELD && content[0] != FoxHoundUtils.HOUND_FIELD)
+            return new Failure(file, Reason.SIDE_TO_MOVE, "invalid figure to move " + (char) content[0]);
+        int figures = 0;
+        for (int i = 1; i < end; ++i)
+            if (content[i] == ' ')
+                ++figures;
+        if (figures != dim / 2 + 1)
+            return new Failure(file, Reason.DIMENSION,
+                    "expected " + (dim / 2 + 1) + " figures on a board of size " + dim + ", found " + figures);
+        long[] occupied = new long[FoxHoundPosition.MAX_WORDS];
+        for (int start = 2; start <= end; ) {
+            int stop = start;
+            while (stop < end && content[stop] != ' ')
+                ++stop;
+            int column = stop - start >= 2 ? content[start] - 'A' : -1;
+            int row = 0;
+            for (int i = start + 1; i < stop && row >= 0; ++i)
+                row = content[i] >= '0' && content[i] <= '9' && row < 100 ? 10 * row + content[i] - '0' : -1;
+            if (column < 0 || column >= 26 || row <= 0 || content[start + 1] == '0')
+                return new Failure(file, Reason.SYNTAX,
+                        "invalid coordinate " + new String(content, start, stop - start, StandardCharsets.US_ASCII));
+            if (column >= dim || row > dim)
+                return new Failure(file, Reason.OFF_BOARD,
+                        new String(content, start, stop - start, StandardCharsets.US_ASCII) + " is outside of the board");
+            int square = (row - 1) * dim + column;
+            if (!isDark(square, dim))
+                return colour(file, square, dim);
+            if ((occupied[square >>> 6] & 1L << square) != 0)
+                return new Failure(file, Reason.OVERLAP, "two figures on " + FoxHoundPosition.coordinate(square, dim));
+            occupied[square >>> 6] |= 1L << square;
+            start = stop + 1;
+        }
+        return null;
+    }
+
+    // figures start on and move between the squares whose row and column sum up odd
+    private static boolean isDark(int square, int dim) {
+        return FoxHoundTables.of(dim).isDark(square);
+    }
+
+    private static Failure colour(Path file, int square, int dim) {
+        return new Failure(file, Reason.SQUARE_COLOUR, FoxHoundPosition.coordinate(square, dim) + " is a light square");
+    }
+
+    /**
+     * Writes failures as a report, one per line.
+     *
+     * @param failures the failures to report
+     * @param out      stream to write the report to
+     * @throws IOException if writing fails
+     */
+    public static void writeReport(List<Failure> failures, PrintStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        for (Failure failure : failures)
+            writer.write(failure + "\n");
+        writer.flush();
+    }
+
+    /**
+     * Checks a directory tree and writes the report of its invalid files.
+     *
+     * @param args directory and optionally the report file, number of threads and dimension of text games
+     * @throws IOException          if the directory cannot be walked or the report cannot be written
+     * @throws InterruptedException if interrupted while checking
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: FoxHoundValidator <directory> [report] [threads] [dimension]");
+            return;
+        }
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int dim = args.length > 3 ? Integer.parseInt(args[3]) : FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundValidator validator = new FoxHoundValidator(threads, dim);
+        long start = System.nanoTime();
+        List<Failure> failures = validator.validateTree(Paths.get(args[0]));
+        long elapsed = System.nanoTime() - start;
+        if (args.length > 1 && !args[1].equals("-")) {
+            try (PrintStream report = new PrintStream(Files.newOutputStream(Paths.get(args[1])))) {
+                writeReport(failures, report);
+            }
+        } else {
+            writeReport(failures, System.out);
+        }
+        System.err.printf("%d files checked, %d invalid, %.0f files/s%n", validator.files(), failures.size(),
+                validator.files() * 1e9 / elapsed);
+    }
+}
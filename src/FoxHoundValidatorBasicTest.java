@@ -0,0 +1,115 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+public class FoxHoundValidatorBasicTest {
+
+    private static FoxHoundValidator.Reason reason(String content, int dim) {
+        FoxHoundValidator.Failure failure =
+                FoxHoundValidator.validate(Paths.get("game"), content.getBytes(StandardCharsets.US_ASCII), dim);
+        return failure == null ? null : failure.reason();
+    }
+
+    @Test
+    public void testGameFiles() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        for (String file : new String[]{"game01.txt", "game02.txt", "game03.txt"})
+            assertNull(file + " expected to be valid.", FoxHoundValidator.validate(Paths.get(file), dim));
+
+        assertEquals("Invalid order expected.", FoxHoundValidator.Reason.SIDE_TO_MOVE,
+                FoxHoundValidator.validate(Paths.get("invalidGame01.txt"), dim).reason());
+        assertEquals("Several lines expected.", FoxHoundValidator.Reason.SYNTAX,
+                FoxHoundValidator.validate(Paths.get("invalidGame03.txt"), dim).reason());
+        assertEquals("Invalid coordinate expected.", FoxHoundValidator.Reason.SYNTAX,
+                FoxHoundValidator.validate(Paths.get("invalidGame04.txt"), dim).reason());
+        assertEquals("Invalid figure expected.", FoxHoundValidator.Reason.SIDE_TO_MOVE,
+                FoxHoundValidator.validate(Paths.get("invalidGame05.txt"), dim).reason());
+        assertEquals("Coordinate outside of the board expected.", FoxHoundValidator.Reason.OFF_BOARD,
+                FoxHoundValidator.validate(Paths.get("invalidGame06.txt"), dim).reason());
+        assertEquals("Missing file expected.", FoxHoundValidator.Reason.UNREADABLE,
+                FoxHoundValidator.validate(Paths.get("path/to/unlikely/file.txt"), dim).reason());
+    }
+
+    @Test
+    public void testTextReasons() {
+        assertNull("Trailing line break expected to be accepted.", reason("F B1 D1 F1 H1 E8\r\n", 8));
+        assertEquals("Empty file expected.", FoxHoundValidator.Reason.SYNTAX, reason("", 8));
+        assertEquals("Empty field expected.", FoxHoundValidator.Reason.SYNTAX, reason("F B1 D1  F1 H1", 8));
+        assertEquals("Wrong number of figures expected.", FoxHoundValidator.Reason.DIMENSION,
+                reason("F B1 D1 F1 H1 E8", 10));
+        assertEquals("Light square expected.", FoxHoundValidator.Reason.SQUARE_COLOUR, reason("F A1 D1 F1 H1 E8", 8));
+        assertEquals("Overlap expected.", FoxHoundValidator.Reason.OVERLAP, reason("H B1 D1 F1 H1 D1", 8));
+        assertNull("Two digit rows expected to be accepted.", reason("H B1 D1 F1 H1 J1 L1 A10", 12));
+    }
+
+    @Test
+    public void testInitialPositionsValid() {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; ++dim) {
+            String text = "F " + String.join(" ", FoxHoundUtils.initialisePositions(dim));
+            assertNull("Initial text game expected to be valid for dimension " + dim + ".", reason(text, dim));
+
+            ByteBuffer binary = ByteBuffer.allocate(FoxHoundIO.binarySize(dim));
+            FoxHoundIO.writeBinary(FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim), binary);
+            assertNull("Initial binary game expected to be valid for dimension " + dim + ".",
+                    FoxHoundValidator.validate(Paths.get("game"), binary.array(), FoxHoundUtils.DEFAULT_DIM));
+            binary.put(binary.capacity() - 1, (byte) ~binary.get(binary.capacity() - 1));
+            assertEquals("Broken checksum expected.", FoxHoundValidator.Reason.CORRUPT,
+                    FoxHoundValidator.validate(Paths.get("game"), binary.array(), FoxHoundUtils.DEFAULT_DIM).reason());
+        }
+    }
+
+    @Test
+    public void testBinaryLightSquare() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+        position.move(position.fox(), position.fox() - dim);
+        ByteBuffer binary = ByteBuffer.allocate(FoxHoundIO.binarySize(dim));
+        FoxHoundIO.writeBinary(position, binary);
+
+        assertEquals("Light square expected.", FoxHoundValidator.Reason.SQUARE_COLOUR,
+                FoxHoundValidator.validate(Paths.get("game"), binary.array(), dim).reason());
+    }
+
+    @Test
+    public void testUnexpectedExceptionReported() {
+        // an invalid dimension makes the check throw after reading the file
+        FoxHoundValidator.Failure failure = FoxHoundValidator.check(Paths.get("game01.txt"), 3);
+
+        assertEquals("Exception expected to be reported as corrupt file.", FoxHoundValidator.Reason.CORRUPT,
+                failure.reason());
+        assertEquals("File of the failure not as expected.", Paths.get("game01.txt"), failure.file());
+    }
+
+    @Test
+    public void testTree() throws IOException, InterruptedException {
+        Path root = Files.createTempDirectory("foxHoundValidator");
+        Path nested = Files.createDirectories(root.resolve("a").resolve("b"));
+        int games = 3000;
+        for (int i = 0; i < games; ++i)
+            Files.write((i % 2 == 0 ? root : nested).resolve("game" + i + ".txt"),
+                    (i % 3 == 0 ? "X B1 D1 F1 H1 E8" : "F B1 D1 F1 H1 E8").getBytes(StandardCharsets.US_ASCII));
+        FoxHoundValidator validator = new FoxHoundValidator(4, FoxHoundUtils.DEFAULT_DIM);
+
+        List<FoxHoundValidator.Failure> failures = validator.validateTree(root);
+
+        assertEquals("Number of checked files not as expected.", games, validator.files());
+        assertEquals("Number of failures not as expected.", games / 3, failures.size());
+        for (int i = 1; i < failures.size(); ++i)
+            assertTrue("Failures expected to be ordered.", failures.get(i - 1).file().compareTo(failures.get(i).file()) < 0);
+        for (FoxHoundValidator.Failure failure : failures)
+            assertEquals("Reason not as expected.", FoxHoundValidator.Reason.SIDE_TO_MOVE, failure.reason());
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
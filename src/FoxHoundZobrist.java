@@ -0,0 +1,86 @@
+/**
+ * A utility class for the fox hound program.
+ * <p>
+ * It holds the random 64 bit Zobrist keys used to identify positions. A
+ * position key is the XOR of the key of its dimension, the key of the fox
+ * square, the keys of all hound squares and, with the hounds to move, the
+ * side key. Applying or undoing a move therefore only needs three XORs.
+ * <p>
+ * The keys are generated from a fixed seed so that they are the same in
+ * every run and can be stored in files.
+ */
+public class FoxHoundZobrist {
+
+    private static final long SEED = 0x466F78486F756E64L;
+
+    private static final long[] FOX_KEYS = new long[FoxHoundPosition.MAX_SQUARES];
+    private static final long[] HOUND_KEYS = new long[FoxHoundPosition.MAX_SQUARES];
+    private static final long[] DIMENSION_KEYS = new long[FoxHoundUtils.MAX_DIM + 1];
+    private static final long SIDE_KEY;
+
+    static {
+        long state = SEED;
+        for (int sq = 0; sq < FoxHoundPosition.MAX_SQUARES; ++sq) {
+            FOX_KEYS[sq] = mix(state += 0x9E3779B97F4A7C15L);
+            HOUND_KEYS[sq] = mix(state += 0x9E3779B97F4A7C15L);
+        }
+        for (int dim = 0; dim <= FoxHoundUtils.MAX_DIM; ++dim)
+            DIMENSION_KEYS[dim] = mix(state += 0x9E3779B97F4A7C15L);
+        SIDE_KEY = mix(state + 0x9E3779B97F4A7C15L);
+    }
+
+    // SplitMix64 finaliser
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @param square a square index
+     * @return key of the fox standing on the square
+     */
+    public static long fox(int square) {
+        return FOX_KEYS[square];
+    }
+
+    /**
+     * @param square a square index
+     * @return key of a hound standing on the square
+     */
+    public static long hound(int square) {
+        return HOUND_KEYS[square];
+    }
+
+    /**
+     * @param dim size of the board
+     * @return key of an empty board of the given dimension
+     */
+    public static long dimension(int dim) {
+        return DIMENSION_KEYS[dim];
+    }
+
+    /**
+     * @return key toggled whenever the side to move changes
+     */
+    public static long side() {
+        return SIDE_KEY;
+    }
+
+    /**
+     * Computes the key of a position from scratch.
+     *
+     * @param position the position to compute the key for
+     * @return the Zobrist key of the position
+     * @throws NullPointerException if the given position is null
+     */
+    public static long compute(FoxHoundPosition position) {
+        long key = DIMENSION_KEYS[position.dimension()] ^ FOX_KEYS[position.fox()];
+        for (int w = 0, words = position.words(); w < words; ++w)
+            for (long bits = position.houndWord(w); bits != 0; bits &= bits - 1)
+                key ^= HOUND_KEYS[(w << 6) + Long.numberOfTrailingZeros(bits)];
+        if (position.turn() == FoxHoundUtils.HOUND_FIELD)
+            key ^= SIDE_KEY;
+        return key;
+    }
+}
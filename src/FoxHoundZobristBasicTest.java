@@ -0,0 +1,67 @@
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FoxHoundZobristBasicTest {
+
+    // ------------------------- incremental update --------------------
+
+    @Test
+    public void testIncrementalKeyMatchesComputed() {
+        Random random = new Random(42);
+        int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; ++dim) {
+            FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+            assertEquals("Initial key not as expected.", FoxHoundZobrist.compute(position), position.key());
+            for (int ply = 0; ply < 4 * dim; ++ply) {
+                int count = FoxHoundMoves.generate(position, position.turn(), moves);
+                if (count == 0)
+                    break;
+                int move = moves[random.nextInt(count)];
+                position.move(FoxHoundMoves.origin(move), FoxHoundMoves.dest(move));
+                assertEquals("Incremental key diverged on dimension " + dim + ".",
+                        FoxHoundZobrist.compute(position), position.key());
+            }
+        }
+    }
+
+    @Test
+    public void testUndoRestoresKey() {
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundPosition position = FoxHoundPosition.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+        long key = position.key();
+        int e8 = FoxHoundPosition.square("E8", dim);
+        int d7 = FoxHoundPosition.square("D7", dim);
+
+        position.move(e8, d7);
+
+        assertNotEquals("Key expected to change with the move.", key, position.key());
+        assertEquals("Turn expected to pass to the hounds.", FoxHoundUtils.HOUND_FIELD, position.turn());
+
+        position.move(d7, e8);
+
+        assertEquals("Key expected to be restored.", key, position.key());
+        assertEquals("Turn expected to be restored.", FoxHoundUtils.FOX_FIELD, position.turn());
+    }
+
+    // ------------------------- distinct keys --------------------
+
+    @Test
+    public void testSideAndDimensionChangeKey() {
+        FoxHoundPosition position = new FoxHoundPosition(8, 3);
+        long key = position.key();
+
+        position.setTurn(FoxHoundUtils.HOUND_FIELD);
+
+        assertNotEquals("Side to move expected to change the key.", key, position.key());
+        assertEquals("Key expected to include the side to move.", FoxHoundZobrist.compute(position), position.key());
+        assertNotEquals("Dimension expected to change the key.", key, new FoxHoundPosition(9, 3).key());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetTurnInvalid() {
+        new FoxHoundPosition(8, 3).setTurn('X');
+    }
+}